@@ -41,6 +41,20 @@ export class ApiClient {
         return this.request<T>(endpoint, { method: 'GET' });
     }
 
+    // Follow nextCursor until the last page of a keyset-paginated list endpoint
+    static async getAllPages<T>(endpoint: string): Promise<T[]> {
+        const items: T[] = [];
+        let cursor: string | undefined;
+        do {
+            const separator = endpoint.includes('?') ? '&' : '?';
+            const url = cursor ? `${endpoint}${separator}cursor=${encodeURIComponent(cursor)}` : endpoint;
+            const response = await this.get<T[]>(url);
+            items.push(...response.data);
+            cursor = response.nextCursor;
+        } while (cursor);
+        return items;
+    }
+
     static async post<T>(endpoint: string, data: any): Promise<ApiResponse & { data: T }> {
         return this.request<T>(endpoint, {
             method: 'POST',
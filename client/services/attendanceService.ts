@@ -3,8 +3,7 @@ import { Attendance, AttendanceStatus, CreateAttendanceRequest, UpdateAttendance
 
 export class AttendanceService {
     static async getAllAttendance(): Promise<Attendance[]> {
-        const response = await ApiClient.get<Attendance[]>('/attendance/');
-        return response.data;
+        return ApiClient.getAllPages<Attendance>('/attendance/');
     }
 
     static async getAttendanceById(id: string): Promise<Attendance> {
@@ -3,8 +3,7 @@ import { Department, CreateDepartmentRequest, UpdateDepartmentRequest } from '..
 
 export class DepartmentService {
     static async getAllDepartments(): Promise<Department[]> {
-        const response = await ApiClient.get<Department[]>('/departments/');
-        return response.data;
+        return ApiClient.getAllPages<Department>('/departments/');
     }
 
     static async getDepartmentById(id: string): Promise<Department> {
@@ -3,8 +3,7 @@ import { Employee, CreateEmployeeRequest, UpdateEmployeeRequest } from '../types
 
 export class EmployeeService {
     static async getAllEmployees(): Promise<Employee[]> {
-        const response = await ApiClient.get<Employee[]>('/employees/');
-        return response.data;
+        return ApiClient.getAllPages<Employee>('/employees/');
     }
 
     static async getEmployeeById(id: string): Promise<Employee> {
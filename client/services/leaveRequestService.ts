@@ -7,8 +7,7 @@ export class LeaveRequestService {
 
   // Get all leave requests (non-deleted)
   static async getAllLeaveRequests(): Promise<LeaveRequest[]> {
-    const response = await ApiClient.get<LeaveRequest[]>(`${this.BASE_URL}/`);
-    return response.data;
+    return ApiClient.getAllPages<LeaveRequest>(`${this.BASE_URL}/`);
   }
 
   // Get all leave requests including deleted
@@ -1,4 +1,4 @@
-import { Payroll, CreatePayrollRequest, UpdatePayrollRequest, PayrollStatus, BulkCreatePayrollRequest } from '../types/Payroll';
+import { Payroll, CreatePayrollRequest, UpdatePayrollRequest, PayrollStatus, BulkCreatePayrollRequest, PayrollRunReport } from '../types/Payroll';
 import { ApiResponse } from '../util/ApiResponse';
 import { ApiClient } from './apiClient';
 
@@ -7,8 +7,7 @@ export class PayrollService {
 
   // Get all payroll records (non-deleted)
   static async getAllPayrolls(): Promise<Payroll[]> {
-    const response = await ApiClient.get<Payroll[]>(`${this.BASE_URL}`);
-    return response.data;
+    return ApiClient.getAllPages<Payroll>(`${this.BASE_URL}`);
   }
 
   // Get payroll by ID
@@ -207,15 +206,15 @@ export class PayrollService {
     await ApiClient.delete(`${this.BASE_URL}/${id}`);
   }
 
-  // Bulk create payroll records
-  static async bulkCreate(payrollsData: BulkCreatePayrollRequest): Promise<Payroll[]> {
-    const response = await ApiClient.post<Payroll[]>(`${this.BASE_URL}/bulk-create`, payrollsData);
+  // Bulk create payroll records; rows the server rejects are listed in the report's errors
+  static async bulkCreate(payrollsData: BulkCreatePayrollRequest): Promise<PayrollRunReport> {
+    const response = await ApiClient.post<PayrollRunReport>(`${this.BASE_URL}/bulk-create`, payrollsData.payrolls);
     return response.data;
   }
 
-  // Bulk approve payroll records
-  static async bulkApprove(payrollIds: string[]): Promise<Payroll[]> {
-    const response = await ApiClient.put<Payroll[]>(`${this.BASE_URL}/bulk-approve`, { payrollIds });
+  // Bulk approve payroll records; resolves to the ids that were pending and are now approved
+  static async bulkApprove(payrollIds: string[]): Promise<string[]> {
+    const response = await ApiClient.put<string[]>(`${this.BASE_URL}/bulk-approve`, payrollIds);
     return response.data;
   }
 }
@@ -3,8 +3,7 @@ import { Position, CreatePositionRequest, UpdatePositionRequest } from '../types
 
 export class PositionService {
     static async getAllPositions(): Promise<Position[]> {
-        const response = await ApiClient.get<Position[]>('/positions/');
-        return response.data;
+        return ApiClient.getAllPages<Position>('/positions/');
     }
 
     static async getPositionById(id: string): Promise<Position> {
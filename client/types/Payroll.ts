@@ -44,6 +44,29 @@ export interface BulkCreatePayrollRequest {
     payrolls: CreatePayrollRequest[];
 }
 
+export interface PayrollRunRowError {
+    index: number;
+    employeeId?: string;
+    message: string;
+}
+
+export interface PayrollRunChunk {
+    chunk: number;
+    rows: number;
+    saved: number;
+    failed: number;
+    elapsedMillis: number;
+}
+
+export interface PayrollRunReport {
+    requested: number;
+    created: number;
+    failed: number;
+    chunks: PayrollRunChunk[];
+    errors: PayrollRunRowError[];
+    payrolls: Payroll[];
+}
+
 export interface PayrollSummary {
     totalSalary: number;
     totalBonus: number;
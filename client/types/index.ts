@@ -49,6 +49,9 @@ export type {
     CreatePayrollRequest,
     UpdatePayrollRequest,
     BulkCreatePayrollRequest,
+    PayrollRunRowError,
+    PayrollRunChunk,
+    PayrollRunReport,
     PayrollSummary
 } from './Payroll';
 export { PayrollStatus } from './Payroll';
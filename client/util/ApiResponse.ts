@@ -2,5 +2,6 @@ export interface ApiResponse {
     status: boolean;
     message: string;
     data?: object | object[];
+    nextCursor?: string;
 }
 
@@ -0,0 +1,137 @@
+#!/bin/bash
+
+# Plan regression check for the YEAR()/MONTH() -> half-open date range rewrite
+#
+# Builds a scratch schema with the same tables, columns and indexes the app uses, fills it with
+# ROWS attendances (default 10M) plus matching payroll and leave rows, then EXPLAINs the old and new
+# query shapes. Fails if any rewritten query still plans a sequential scan, and ends with a table of the
+# execution times EXPLAIN ANALYZE measured for each shape.
+#
+# Usage: ROWS=10000000 ./benchmark_date_ranges.sh
+
+DB_HOST="${DB_HOST:-localhost}"
+DB_PORT="${DB_PORT:-5432}"
+DB_NAME="${DB_NAME:-hr_management}"
+DB_USER="${DB_USERNAME:-hr_user}"
+export PGPASSWORD="${DB_PASSWORD:-hr_password}"
+ROWS="${ROWS:-10000000}"
+EMPLOYEES="${EMPLOYEES:-20000}"
+SCHEMA="bench_date_ranges"
+
+PSQL="psql -h $DB_HOST -p $DB_PORT -U $DB_USER -d $DB_NAME -v ON_ERROR_STOP=1 -q"
+
+echo "🚀 Building $SCHEMA with $ROWS attendances for $EMPLOYEES employees..."
+
+$PSQL <<EOF
+DROP SCHEMA IF EXISTS $SCHEMA CASCADE;
+CREATE SCHEMA $SCHEMA;
+SET search_path = $SCHEMA;
+
+CREATE TABLE attendances (
+    id VARCHAR(255) PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    clock_in TIMESTAMP NOT NULL,
+    attendance_status VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL
+);
+
+CREATE TABLE payrolls (
+    id VARCHAR(255) PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    pay_period_start DATE NOT NULL,
+    net_pay NUMERIC(19, 2),
+    payroll_status VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL
+);
+
+CREATE TABLE leave_requests (
+    id VARCHAR(255) PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    total_days INTEGER,
+    leave_request_type VARCHAR(255),
+    leave_request_status VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL
+);
+
+-- One row per employee per day (10M rows over 20k employees is ~500 days from 2016-01-01)
+INSERT INTO attendances
+SELECT 'att-' || g, 'emp-' || (g % $EMPLOYEES), DATE '2016-01-01' + (g / $EMPLOYEES)::int,
+       TIMESTAMP '2016-01-01 08:30' + ((g / $EMPLOYEES)::int) * INTERVAL '1 day', 'PRESENT', g % 50 = 0
+FROM generate_series(1, $ROWS) g;
+
+INSERT INTO payrolls
+SELECT 'pay-' || g, 'emp-' || (g % $EMPLOYEES), (DATE '2016-01-01' + ((g / $EMPLOYEES)::int) * INTERVAL '1 month')::date,
+       1000, 'COMPLETED', false
+FROM generate_series(1, $ROWS / 10) g;
+
+INSERT INTO leave_requests
+SELECT 'lr-' || g, 'emp-' || (g % $EMPLOYEES), DATE '2016-01-01' + (g / ($EMPLOYEES / 10))::int,
+       DATE '2016-01-02' + (g / ($EMPLOYEES / 10))::int, 2, 'ANNUAL', 'APPROVED', false
+FROM generate_series(1, $ROWS / 10) g;
+
+-- Same date indexes as db/migration V2
+CREATE UNIQUE INDEX uq_attendances_employee_date_active ON attendances (employee_id, date) WHERE is_deleted = false;
+CREATE INDEX idx_attendances_date_active ON attendances (date) WHERE is_deleted = false;
+CREATE INDEX idx_payrolls_pay_period_start_active ON payrolls (pay_period_start) WHERE is_deleted = false;
+CREATE INDEX idx_payrolls_employee_pay_period_start_active ON payrolls (employee_id, pay_period_start) WHERE is_deleted = false;
+CREATE INDEX idx_leave_requests_start_date_active ON leave_requests (start_date) WHERE is_deleted = false;
+CREATE INDEX idx_leave_requests_employee_dates_active ON leave_requests (employee_id, start_date, end_date) WHERE is_deleted = false;
+
+ANALYZE attendances;
+ANALYZE payrolls;
+ANALYZE leave_requests;
+EOF
+
+if [ $? -ne 0 ]; then
+    echo "❌ Could not build the benchmark schema!"
+    exit 1
+fi
+
+# name|old query|new query
+QUERIES=(
+"monthly attendance|SELECT * FROM attendances WHERE EXTRACT(YEAR FROM date) = 2016 AND EXTRACT(MONTH FROM date) = 3 AND is_deleted = false|SELECT * FROM attendances WHERE date >= DATE '2016-03-01' AND date < DATE '2016-04-01' AND is_deleted = false"
+"employee monthly attendance|SELECT * FROM attendances WHERE employee_id = 'emp-42' AND EXTRACT(YEAR FROM date) = 2016 AND EXTRACT(MONTH FROM date) = 3 AND is_deleted = false|SELECT * FROM attendances WHERE employee_id = 'emp-42' AND date >= DATE '2016-03-01' AND date < DATE '2016-04-01' AND is_deleted = false"
+"payroll by month|SELECT * FROM payrolls WHERE EXTRACT(YEAR FROM pay_period_start) = 2018 AND EXTRACT(MONTH FROM pay_period_start) = 6 AND is_deleted = false|SELECT * FROM payrolls WHERE pay_period_start >= DATE '2018-06-01' AND pay_period_start < DATE '2018-07-01' AND is_deleted = false"
+"employee payroll by year|SELECT * FROM payrolls WHERE employee_id = 'emp-42' AND EXTRACT(YEAR FROM pay_period_start) = 2018 AND is_deleted = false|SELECT * FROM payrolls WHERE employee_id = 'emp-42' AND pay_period_start >= DATE '2018-01-01' AND pay_period_start < DATE '2019-01-01' AND is_deleted = false"
+"employee leave days by type and year|SELECT COALESCE(SUM(total_days), 0) FROM leave_requests WHERE employee_id = 'emp-42' AND leave_request_type = 'ANNUAL' AND leave_request_status = 'APPROVED' AND EXTRACT(YEAR FROM start_date) = 2016 AND is_deleted = false|SELECT COALESCE(SUM(total_days), 0) FROM leave_requests WHERE employee_id = 'emp-42' AND leave_request_type = 'ANNUAL' AND leave_request_status = 'APPROVED' AND start_date >= DATE '2016-01-01' AND start_date < DATE '2017-01-01' AND is_deleted = false"
+)
+
+FAILED=0
+SUMMARY=()
+for entry in "${QUERIES[@]}"; do
+    IFS='|' read -r name old new <<< "$entry"
+    echo ""
+    echo "📊 $name"
+    echo "   before: YEAR()/MONTH()"
+    OLD_PLAN=$($PSQL -c "SET search_path = $SCHEMA" -c "EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) $old")
+    echo "$OLD_PLAN" | sed 's/^/     /'
+    echo "   after: half-open range"
+    PLAN=$($PSQL -c "SET search_path = $SCHEMA" -c "EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) $new")
+    echo "$PLAN" | sed 's/^/     /'
+    if echo "$PLAN" | grep -q "Seq Scan"; then
+        echo "   ❌ range query fell back to a sequential scan"
+        FAILED=1
+    fi
+    OLD_MS=$(echo "$OLD_PLAN" | sed -n 's/.*Execution Time: \([0-9.]*\) ms.*/\1/p')
+    NEW_MS=$(echo "$PLAN" | sed -n 's/.*Execution Time: \([0-9.]*\) ms.*/\1/p')
+    SUMMARY+=("$(printf '%-40s %12s %12s' "$name" "$OLD_MS" "$NEW_MS")")
+done
+
+echo ""
+echo "⏱️  Execution time in ms ($ROWS attendances, $EMPLOYEES employees)"
+printf '%-40s %12s %12s\n' "query" "YEAR()/MONTH()" "range"
+printf '%s\n' "${SUMMARY[@]}"
+
+if [ "$KEEP" != "1" ]; then
+    $PSQL -c "DROP SCHEMA $SCHEMA CASCADE"
+fi
+
+echo ""
+if [ $FAILED -ne 0 ]; then
+    echo "❌ Plan regression: at least one rewritten query no longer uses an index"
+    exit 1
+fi
+echo "✅ Every rewritten query is served by an index"
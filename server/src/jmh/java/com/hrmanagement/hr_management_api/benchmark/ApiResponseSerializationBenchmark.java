@@ -0,0 +1,67 @@
+package com.hrmanagement.hr_management_api.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hrmanagement.hr_management_api.model.dto.AttendanceRow;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.util.ApiResponse;
+
+// JSON encoding of the ApiResponse envelope around attendance list rows; needs no database
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int records;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse response;
+
+    // Same settings Spring Boot applies to the MVC ObjectMapper
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDate date = LocalDate.of(2025, 3, 3);
+        List<AttendanceRow> attendances = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            LocalDateTime clockIn = date.atTime(8, 30).plusMinutes(i % 60);
+            attendances.add(new AttendanceRow("attendance-" + i, "employee-" + i, date, clockIn, date.atTime(17, 30),
+                    i % 60 > 30 ? AttendanceStatus.LATE : AttendanceStatus.PRESENT, i % 10 == 0 ? "Left early for an appointment" : null,
+                    LocalDateTime.of(2025, 3, 3, 8, 30)));
+        }
+        response = new ApiResponse(true, "Attendance records retrieved successfully", attendances, "cursor-" + records);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
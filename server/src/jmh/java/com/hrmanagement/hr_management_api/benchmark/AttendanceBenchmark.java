@@ -0,0 +1,115 @@
+package com.hrmanagement.hr_management_api.benchmark;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.hrmanagement.hr_management_api.controller.AttendanceController;
+import com.hrmanagement.hr_management_api.controller.AttendanceController.ClockInRequest;
+import com.hrmanagement.hr_management_api.controller.AttendanceController.ClockOutRequest;
+import com.hrmanagement.hr_management_api.model.dto.AttendanceRow;
+import com.hrmanagement.hr_management_api.model.entity.AttendanceMonthlySummary;
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+import com.hrmanagement.hr_management_api.service.AttendanceSummaryService;
+import com.hrmanagement.hr_management_api.util.ApiResponse;
+
+// Clock-in/clock-out through the controller, and the monthly attendance reads
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AttendanceBenchmark {
+
+    // Each iteration starts with nobody clocked in today; a counter hands out employees so every call is a real insert
+    // until the seeded employees run out, after which calls measure the "already clocked in" path
+    @State(Scope.Benchmark)
+    public static class ClockInState {
+        final AtomicInteger next = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkApp app) {
+            app.jdbc().update("DELETE FROM attendances WHERE date = ?", LocalDate.now());
+            next.set(0);
+        }
+    }
+
+    // Each iteration starts with every employee clocked in and not yet clocked out
+    @State(Scope.Benchmark)
+    public static class ClockOutState {
+        final AtomicInteger next = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkApp app) {
+            LocalDate today = LocalDate.now();
+            app.jdbc().update("DELETE FROM attendances WHERE date = ?", today);
+            app.jdbc().update("INSERT INTO attendances (id, employee_id, date, clock_in, attendance_status, is_deleted, created_at) " +
+                              "SELECT 'bench-today-' || id, id, CAST(? AS date), CAST(? AS date) + TIME '08:45', 'PRESENT', false, now() " +
+                              "FROM employees WHERE id LIKE '" + BenchmarkApp.EMPLOYEE_PREFIX + "%'",
+                              today, today);
+            next.set(0);
+        }
+    }
+
+    // A month the seed data covers in full
+    @State(Scope.Benchmark)
+    public static class MonthState {
+        YearMonth month;
+
+        @Setup(Level.Trial)
+        public void pick() {
+            month = YearMonth.now().minusMonths(1);
+        }
+    }
+
+    // Several threads so the clock-in batcher actually coalesces requests
+    @Benchmark
+    @Threads(8)
+    public ResponseEntity<ApiResponse> clockIn(BenchmarkApp app, ClockInState state) {
+        ClockInRequest request = new ClockInRequest();
+        request.setEmployeeId(app.employeeId(state.next.getAndIncrement()));
+        return app.bean(AttendanceController.class).clockIn(request).join();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse> clockOut(BenchmarkApp app, ClockOutState state) {
+        ClockOutRequest request = new ClockOutRequest();
+        request.setEmployeeId(app.employeeId(state.next.getAndIncrement()));
+        return app.bean(AttendanceController.class).clockOut(request);
+    }
+
+    @Benchmark
+    public List<AttendanceRow> monthlyAttendance(BenchmarkApp app, MonthState state) {
+        return app.bean(AttendanceRepository.class)
+                .findMonthlyAttendance(state.month.getYear(), state.month.getMonthValue());
+    }
+
+    @Benchmark
+    public List<AttendanceRow> employeeMonthlyAttendance(BenchmarkApp app, MonthState state) {
+        String employeeId = app.employeeId(ThreadLocalRandom.current().nextInt(app.employees()));
+        return app.bean(AttendanceRepository.class)
+                .findEmployeeMonthlyAttendance(employeeId, state.month.getYear(), state.month.getMonthValue());
+    }
+
+    @Benchmark
+    public List<AttendanceMonthlySummary> monthlySummary(BenchmarkApp app, MonthState state) {
+        return app.bean(AttendanceSummaryService.class).getMonth(state.month.getYear(), state.month.getMonthValue());
+    }
+}
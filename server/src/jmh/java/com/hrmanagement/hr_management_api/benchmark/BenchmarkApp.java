@@ -0,0 +1,138 @@
+package com.hrmanagement.hr_management_api.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.hrmanagement.hr_management_api.HrManagementApiApplication;
+import com.hrmanagement.hr_management_api.service.AttendanceSummaryService;
+import com.hrmanagement.hr_management_api.service.LeaveBalanceService;
+import com.hrmanagement.hr_management_api.service.LeaveCalendarIndex;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// The whole application on top of an embedded PostgreSQL, started and seeded once per forked benchmark JVM.
+// Volumes are set with -Dbench.employees and -Dbench.days (pass them through -jvmArgsAppend in jmh.args).
+@State(Scope.Benchmark)
+public class BenchmarkApp {
+
+    static final String EMPLOYEE_PREFIX = "bench-emp-";
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private int employees;
+    private int days;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        employees = Integer.getInteger("bench.employees", 5000);
+        days = Integer.getInteger("bench.days", 90);
+
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(HrManagementApiApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres")
+                                + "&prepareThreshold=0&reWriteBatchedInserts=true",
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .properties(overrides().toArray(String[]::new))
+                .run();
+        jdbc = context.getBean(JdbcTemplate.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // Extra application properties for a variant of the app; none by default
+    protected List<String> overrides() {
+        return List.of();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public int employees() {
+        return employees;
+    }
+
+    // Seeded employee ids wrap around, so any counter can be used as an index
+    public String employeeId(int index) {
+        return EMPLOYEE_PREFIX + (Math.floorMod(index, employees) + 1);
+    }
+
+    // Clock-ins after 09:00 are LATE and every day is nine hours or less, matching the default shift rule
+    private void seed() {
+        LocalDate today = LocalDate.now();
+
+        jdbc.update("INSERT INTO departments (id, name, is_deleted, created_at) VALUES ('bench-dept', 'Benchmark', false, now())");
+        jdbc.update("INSERT INTO positions (id, title, department_id, is_deleted, created_at) " +
+                    "VALUES ('bench-pos', 'Benchmark', 'bench-dept', false, now())");
+
+        jdbc.update("INSERT INTO employees (id, first_name, last_name, email, department_id, position_id, hire_date, salary, " +
+                    "employee_status, is_deleted, created_at) " +
+                    "SELECT '" + EMPLOYEE_PREFIX + "' || e, 'Bench', 'Employee ' || e, 'bench' || e || '@example.com', " +
+                    "'bench-dept', 'bench-pos', DATE '2020-01-01', 50000, 'ACTIVE', false, now() " +
+                    "FROM generate_series(1, ?) e", employees);
+
+        // One record per employee per day, up to but not including today so clock-in starts from a clean day
+        jdbc.update("INSERT INTO attendances (id, employee_id, date, clock_in, clock_out, attendance_status, is_deleted, created_at) " +
+                    "SELECT 'bench-att-' || e || '-' || d, '" + EMPLOYEE_PREFIX + "' || e, CAST(? AS date) - d, " +
+                    "(CAST(? AS date) - d) + TIME '08:30' + (e % 60) * INTERVAL '1 minute', (CAST(? AS date) - d) + TIME '17:30', " +
+                    "CASE WHEN e % 60 > 30 THEN 'LATE' ELSE 'PRESENT' END, d % 50 = 0, now() " +
+                    "FROM generate_series(1, ?) e, generate_series(1, ?) d",
+                    today, today, today, employees, days);
+
+        // A three-day leave about once a month over the past year, half of them approved
+        jdbc.update("INSERT INTO leave_requests (id, employee_id, leave_request_type, start_date, end_date, total_days, " +
+                    "leave_request_status, request_date, is_deleted, created_at) " +
+                    "SELECT 'bench-lr-' || e || '-' || k, '" + EMPLOYEE_PREFIX + "' || e, 'ANNUAL', " +
+                    "CAST(? AS date) - 365 + k * 30 + e % 20, CAST(? AS date) - 363 + k * 30 + e % 20, 3, " +
+                    "CASE WHEN (e + k) % 2 = 0 THEN 'APPROVED' ELSE 'PENDING' END, CAST(? AS date) - 370 + k * 30, false, now() " +
+                    "FROM generate_series(1, ?) e, generate_series(0, 11) k",
+                    today, today, today, employees);
+
+        // Twelve monthly payrolls per employee
+        jdbc.update("INSERT INTO payrolls (id, employee_id, pay_period_start, pay_period_end, salary, bonus, deductions, net_pay, " +
+                    "payroll_status, is_deleted, created_at) " +
+                    "SELECT 'bench-pay-' || e || '-' || m, '" + EMPLOYEE_PREFIX + "' || e, " +
+                    "CAST(date_trunc('month', CAST(? AS date)) - m * INTERVAL '1 month' AS date), " +
+                    "CAST(date_trunc('month', CAST(? AS date)) - (m - 1) * INTERVAL '1 month' - INTERVAL '1 day' AS date), " +
+                    "4000, 200, 300, 3900, 'COMPLETED', false, now() " +
+                    "FROM generate_series(1, ?) e, generate_series(1, 12) m",
+                    today, today, employees);
+
+        jdbc.execute("ANALYZE");
+        bean(AttendanceSummaryService.class).rebuildAll();
+        bean(LeaveBalanceService.class).rebuildAll();
+        bean(LeaveCalendarIndex.class).rebuild();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hrmanagement.hr_management_api.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hrmanagement.hr_management_api.model.dto.LeaveRequestRow;
+import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
+import com.hrmanagement.hr_management_api.repository.LeaveRequestRepository;
+import com.hrmanagement.hr_management_api.service.LeaveCalendarIndex;
+
+// The overlap check run on every leave request create and update, old and current query, and the in-memory
+// "who is off" index
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LeaveRequestBenchmark {
+
+    // A random employee and a five-day window somewhere in the seeded year
+    @Benchmark
+    public List<LeaveRequest> findOverlappingLeaveRequests(BenchmarkApp app) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().minusDays(random.nextInt(365));
+        return app.bean(LeaveRequestRepository.class).findOverlappingLeaveRequests(
+                app.employeeId(random.nextInt(app.employees())), start, start.plusDays(4));
+    }
+
+    @Benchmark
+    public List<LeaveRequestRow> findCalendarRowsOverlapping(BenchmarkApp app) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().minusDays(random.nextInt(365));
+        return app.bean(LeaveRequestRepository.class).findCalendarRowsOverlapping(
+                app.employeeId(random.nextInt(app.employees())), start, start.plusDays(4));
+    }
+
+    // Everyone off during a random week
+    @Benchmark
+    public List<LeaveRequestRow> indexedTeamOff(BenchmarkApp app) {
+        LocalDate start = LocalDate.now().minusDays(ThreadLocalRandom.current().nextInt(365));
+        return app.bean(LeaveCalendarIndex.class).off(start, start.plusDays(6), false);
+    }
+}
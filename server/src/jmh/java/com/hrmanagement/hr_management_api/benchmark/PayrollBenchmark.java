@@ -0,0 +1,56 @@
+package com.hrmanagement.hr_management_api.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.service.PayrollRunService;
+import com.hrmanagement.hr_management_api.service.PayrollRunService.PayrollRunReport;
+
+// Bulk payroll creation through the payroll run engine (validation, chunking, batched inserts)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayrollBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    // Every run gets its own pay period, far past the seeded ones, so no row is rejected as a duplicate
+    private final AtomicInteger run = new AtomicInteger();
+
+    @Benchmark
+    public PayrollRunReport bulkCreate(BenchmarkApp app) {
+        LocalDate start = LocalDate.of(2100, 1, 1).plusDays(run.getAndIncrement());
+        List<Payroll> payrolls = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Payroll payroll = new Payroll();
+            payroll.setEmployeeId(app.employeeId(i));
+            payroll.setPayPeriodStart(start);
+            payroll.setPayPeriodEnd(start.plusMonths(1).minusDays(1));
+            payroll.setSalary(new BigDecimal("4000.00"));
+            payroll.setBonus(new BigDecimal("200.00"));
+            payroll.setDeductions(new BigDecimal("300.00"));
+            payrolls.add(payroll);
+        }
+        return app.bean(PayrollRunService.class).run(payrolls).join();
+    }
+}
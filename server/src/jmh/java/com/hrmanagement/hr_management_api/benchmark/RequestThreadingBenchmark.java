@@ -0,0 +1,81 @@
+package com.hrmanagement.hr_management_api.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// HTTP load through Tomcat with platform vs virtual request threads. There are more clients than Tomcat's
+// 200 platform workers and every request blocks on JDBC; SampleTime reports p99 next to throughput.
+//   ./mvnw -Pjmh verify -DskipTests -Djmh.include=RequestThreadingBenchmark
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(400)
+public class RequestThreadingBenchmark {
+
+    private static final String PASSWORD = "bench";
+
+    // The application started in one request threading mode or the other
+    @State(Scope.Benchmark)
+    public static class ThreadingApp extends BenchmarkApp {
+
+        @Param({"false", "true"})
+        public boolean virtualThreads;
+
+        @Override
+        protected List<String> overrides() {
+            return List.of("spring.threads.virtual.enabled=" + virtualThreads,
+                           "spring.security.user.password=" + PASSWORD);
+        }
+    }
+
+    // One shared HTTP/1.1 client, authenticating as the default Spring Security user
+    @State(Scope.Benchmark)
+    public static class Client {
+        HttpClient http;
+        String baseUrl;
+        String authorization;
+
+        @Setup(Level.Trial)
+        public void connect(ThreadingApp app) {
+            http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            baseUrl = "http://localhost:" + app.port();
+            authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString(("user:" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Single-row read of a random employee
+    @Benchmark
+    public int getEmployee(ThreadingApp app, Client client) throws IOException, InterruptedException {
+        String employeeId = app.employeeId(ThreadLocalRandom.current().nextInt(app.employees()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(client.baseUrl + "/api/employees/" + employeeId))
+                .header("Authorization", client.authorization)
+                .GET()
+                .build();
+        return client.http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -2,8 +2,10 @@ package com.hrmanagement.hr_management_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HrManagementApiApplication {
 
 	public static void main(String[] args) {
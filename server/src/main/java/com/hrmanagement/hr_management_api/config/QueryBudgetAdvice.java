@@ -0,0 +1,82 @@
+package com.hrmanagement.hr_management_api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.hrmanagement.hr_management_api.util.QueryBudget;
+import com.hrmanagement.hr_management_api.util.QueryCounter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Runs just before a response body is written, when the handler's queries are done: checks the handler's
+// @QueryBudget and, in diagnostic mode, reports the request's queries in X-Query-Count, X-Query-Rows and X-Query-Time-Ms.
+// Async and streaming handlers are not covered: QueryMetricsFilter leaves them out, since their statements run on
+// other threads, so a @QueryBudget on one would never be checked.
+@ControllerAdvice
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetAdvice.class);
+
+    // Thrown in enforcing mode, so an integration test sees the request fail
+    public static class QueryBudgetExceededException extends RuntimeException {
+        public QueryBudgetExceededException(String message) {
+            super(message);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headers;
+    private final boolean enforce;
+
+    public QueryBudgetAdvice(MeterRegistry meterRegistry,
+                             @Value("${metrics.queries.headers:false}") boolean headers,
+                             @Value("${metrics.queries.budget.enforce:false}") boolean enforce) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return headers || returnType.hasMethodAnnotation(QueryBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryCounter counter = QueryCounter.current();
+        if (counter == null) {
+            return body;
+        }
+        if (headers) {
+            response.getHeaders().set("X-Query-Count", Integer.toString(counter.total()));
+            response.getHeaders().set("X-Query-Rows", Long.toString(counter.rows()));
+            response.getHeaders().set("X-Query-Time-Ms", Long.toString(counter.executionNanos() / 1_000_000));
+        }
+        QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+        if (budget != null && counter.total() > budget.value()) {
+            String handler = returnType.getContainingClass().getSimpleName() + "." + returnType.getExecutable().getName();
+            Counter.builder("http.server.requests.over.budget")
+                    .description("Requests that ran more SQL statements than their handler's @QueryBudget")
+                    .tag("handler", handler)
+                    .register(meterRegistry)
+                    .increment();
+            String message = String.format("%s ran %d SQL statements, over its budget of %d", handler, counter.total(), budget.value());
+            if (enforce) {
+                throw new QueryBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+        return body;
+    }
+}
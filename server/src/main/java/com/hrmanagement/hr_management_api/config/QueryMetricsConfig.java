@@ -0,0 +1,36 @@
+package com.hrmanagement.hr_management_api.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryMetricsConfig {
+
+    // Hibernate takes the inspector as an instance, so it is handed over here rather than named in the properties
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(@Value("${sql.log.sample-rate:0}") double sampleRate) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector(sampleRate));
+    }
+
+    // Static, so wrapping the pool does not pull this configuration in early
+    @Bean
+    @ConditionalOnProperty(name = "metrics.queries.timing.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor queryTimingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryTimingDataSource)) {
+                    return new QueryTimingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.hrmanagement.hr_management_api.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.hrmanagement.hr_management_api.util.QueryCounter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Records how many SQL statements each request ran (http.server.requests.queries, by method and route), the rows they
+// returned (http.server.requests.query.rows) and the time spent executing them (http.server.requests.query.time), and flags
+// likely N+1 patterns: one statement repeated at least repeat-threshold times in a single request is counted under
+// http.server.requests.repeated.queries and logged with the route. Requests that go async (CompletableFuture and
+// StreamingResponseBody handlers: clock-in, bulk payroll create, the NDJSON exports) are not recorded: their statements
+// run on worker threads this request's counter cannot see, so the count would only cover the first dispatch.
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public QueryMetricsFilter(MeterRegistry meterRegistry,
+                              @Value("${metrics.queries.repeat-threshold:10}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryCounter counter = QueryCounter.start()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (!request.isAsyncStarted()) {
+                    record(request, counter);
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter counter) {
+        // The route template, not the raw path, so IDs do not each become a tag value
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements run while handling a request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(counter.total());
+
+        DistributionSummary.builder("http.server.requests.query.rows")
+                .description("Rows read from SQL results while handling a request")
+                .baseUnit("rows")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(counter.rows());
+
+        Timer.builder("http.server.requests.query.time")
+                .description("Time spent executing SQL statements while handling a request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(counter.executionNanos(), TimeUnit.NANOSECONDS);
+
+        if (counter.mostRepeatedCount() >= repeatThreshold) {
+            Counter.builder("http.server.requests.repeated.queries")
+                    .description("Requests that ran one statement repeat-threshold times or more, a likely N+1")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran the same statement {} times ({} in total): {}", request.getMethod(), uri,
+                    counter.mostRepeatedCount(), counter.total(), counter.mostRepeated());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.hrmanagement.hr_management_api.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.hrmanagement.hr_management_api.util.QueryCounter;
+
+// Wraps the pool so statements run during a request add their execution time and the rows they return to the
+// request's QueryCounter. Outside a request the wrappers only delegate.
+public class QueryTimingDataSource extends DelegatingDataSource {
+
+    public QueryTimingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(), new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password), new ConnectionHandler());
+    }
+
+    // Inferred as the bean's destroy method, so the pool is still shut down with the context
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static <T> T wrap(Class<T> type, T target, DelegatingHandler handler) {
+        handler.target = target;
+        return type.cast(Proxy.newProxyInstance(QueryTimingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        Object target;
+
+        // Proxies are compared by identity: Hibernate keys its open statements and result sets by them
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Statements are wrapped as the interface the method declares (Statement, PreparedStatement, CallableStatement)
+    private static class ConnectionHandler extends DelegatingHandler {
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrapStatement(method.getReturnType(), statement);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T extends Statement> T wrapStatement(Class<?> type, Statement statement) {
+            return wrap((Class<T>) type, (T) statement, new StatementHandler());
+        }
+    }
+
+    private static class StatementHandler extends DelegatingHandler {
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            QueryCounter counter = QueryCounter.current();
+            if (counter == null) {
+                return delegate(method, args);
+            }
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    result = delegate(method, args);
+                } finally {
+                    counter.addExecution(System.nanoTime() - start);
+                }
+            } else {
+                result = delegate(method, args);
+            }
+            // From executeQuery and from getResultSet after execute
+            if (result instanceof ResultSet resultSet && method.getReturnType() == ResultSet.class) {
+                return wrap(ResultSet.class, resultSet, new ResultSetHandler(counter));
+            }
+            return result;
+        }
+    }
+
+    private static class ResultSetHandler extends DelegatingHandler {
+
+        private final QueryCounter counter;
+
+        ResultSetHandler(QueryCounter counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                counter.addRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hrmanagement.hr_management_api.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hrmanagement.hr_management_api.util.QueryCounter;
+
+// Sees every statement Hibernate prepares: counts it against the current request and logs a sample of them.
+// Replaces spring.jpa.show-sql, which printed every statement; slow ones are logged by hibernate.log_slow_query.
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.sample");
+
+    private final double sampleRate;
+
+    public SqlStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("{}", sql);
+        }
+        return sql;
+    }
+}
@@ -4,39 +4,79 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.hrmanagement.hr_management_api.model.dto.AttendanceRow;
 import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.model.entity.AttendanceMonthlySummary;
+import com.hrmanagement.hr_management_api.model.entity.ShiftRule;
 import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
 import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+import com.hrmanagement.hr_management_api.service.AbsenceMaterializationService;
+import com.hrmanagement.hr_management_api.service.AttendanceSummaryService;
+import com.hrmanagement.hr_management_api.service.AttendanceSummaryService.Contribution;
+import com.hrmanagement.hr_management_api.service.ClockInBatcher;
+import com.hrmanagement.hr_management_api.service.NdjsonExportService;
+import com.hrmanagement.hr_management_api.service.ShiftRuleEngine;
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+import com.hrmanagement.hr_management_api.util.QueryBudget;
 
 @RestController
 @RequestMapping("/api/attendance")
 public class AttendanceController {
 
     private final AttendanceRepository attendanceRepository;
-
-    public AttendanceController(AttendanceRepository attendanceRepository) {
+    private final NdjsonExportService ndjsonExportService;
+    private final ClockInBatcher clockInBatcher;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final AbsenceMaterializationService absenceMaterializationService;
+    private final ShiftRuleEngine shiftRuleEngine;
+
+    public AttendanceController(AttendanceRepository attendanceRepository, NdjsonExportService ndjsonExportService,
+                                ClockInBatcher clockInBatcher, AttendanceSummaryService attendanceSummaryService,
+                                AbsenceMaterializationService absenceMaterializationService, ShiftRuleEngine shiftRuleEngine) {
         this.attendanceRepository = attendanceRepository;
+        this.ndjsonExportService = ndjsonExportService;
+        this.clockInBatcher = clockInBatcher;
+        this.attendanceSummaryService = attendanceSummaryService;
+        this.absenceMaterializationService = absenceMaterializationService;
+        this.shiftRuleEngine = shiftRuleEngine;
     }
 
-    // Get all attendance records (non-deleted)
+    // Get all attendance records (non-deleted), one keyset page at a time
     @GetMapping("/")
-    public ResponseEntity<ApiResponse> getAllAttendance() {
-        List<Attendance> attendanceRecords = attendanceRepository.findByIsDeletedFalse();
-        ApiResponse response = new ApiResponse(true, "Attendance records retrieved successfully", attendanceRecords);
-        return ResponseEntity.ok(response);
+    @QueryBudget(1)
+    public ResponseEntity<ApiResponse> getAllAttendance(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Window<AttendanceRow> attendanceRecords = attendanceRepository.findRows(
+                KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+            ApiResponse response = new ApiResponse(true, "Attendance records retrieved successfully",
+                attendanceRecords.getContent(), KeysetCursor.next(attendanceRecords));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, "Invalid cursor", null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get all attendance records including deleted
     @GetMapping("/all")
     public ResponseEntity<ApiResponse> getAllAttendanceIncludingDeleted() {
-        List<Attendance> attendanceRecords = attendanceRepository.findAll();
+        List<AttendanceRow> attendanceRecords = attendanceRepository.findAllRows();
         ApiResponse response = new ApiResponse(true, "All attendance records retrieved successfully", attendanceRecords);
         return ResponseEntity.ok(response);
     }
@@ -70,8 +110,13 @@ public class AttendanceController {
                     "Attendance record already exists for this employee on this date", null);
                 return ResponseEntity.badRequest().body(response);
             }
-            
-            Attendance savedAttendance = attendanceRepository.save(attendance);
+
+            // Without an explicit status the department's shift rule decides
+            if (attendance.getAttendanceStatus() == null) {
+                attendance.setAttendanceStatus(shiftRuleEngine.classify(
+                    shiftRuleEngine.departmentOf(attendance.getEmployeeId()), attendance.getClockIn(), attendance.getClockOut()));
+            }
+            Attendance savedAttendance = attendanceSummaryService.save(attendance, null);
             ApiResponse response = new ApiResponse(true, "Attendance record created successfully", savedAttendance);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -85,16 +130,23 @@ public class AttendanceController {
     public ResponseEntity<ApiResponse> updateAttendance(@PathVariable String id, @RequestBody Attendance attendanceDetails) {
         return attendanceRepository.findByIdAndIsDeletedFalse(id).map(attendance -> {
             try {
+                Contribution before = Contribution.of(attendance);
                 attendance.setEmployeeId(attendanceDetails.getEmployeeId());
                 attendance.setDate(attendanceDetails.getDate());
                 attendance.setClockIn(attendanceDetails.getClockIn());
                 attendance.setClockOut(attendanceDetails.getClockOut());
-                attendance.setAttendanceStatus(attendanceDetails.getAttendanceStatus());
+                attendance.setAttendanceStatus(attendanceDetails.getAttendanceStatus() != null
+                    ? attendanceDetails.getAttendanceStatus()
+                    : shiftRuleEngine.classify(shiftRuleEngine.departmentOf(attendance.getEmployeeId()),
+                        attendance.getClockIn(), attendance.getClockOut()));
                 attendance.setNotes(attendanceDetails.getNotes());
                 
-                Attendance updatedAttendance = attendanceRepository.save(attendance);
+                Attendance updatedAttendance = attendanceSummaryService.save(attendance, before);
                 ApiResponse response = new ApiResponse(true, "Attendance record updated successfully", updatedAttendance);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error updating attendance record: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -110,6 +162,7 @@ public class AttendanceController {
     public ResponseEntity<ApiResponse> partialUpdateAttendance(@PathVariable String id, @RequestBody Attendance attendanceDetails) {
         return attendanceRepository.findByIdAndIsDeletedFalse(id).map(attendance -> {
             try {
+                Contribution before = Contribution.of(attendance);
                 if (attendanceDetails.getEmployeeId() != null) {
                     attendance.setEmployeeId(attendanceDetails.getEmployeeId());
                 }
@@ -124,14 +177,22 @@ public class AttendanceController {
                 }
                 if (attendanceDetails.getAttendanceStatus() != null) {
                     attendance.setAttendanceStatus(attendanceDetails.getAttendanceStatus());
+                } else if ((attendanceDetails.getClockIn() != null || attendanceDetails.getClockOut() != null)
+                        && ShiftRuleEngine.isRuleManaged(attendance.getAttendanceStatus())) {
+                    // New times without a new status: let the shift rule re-decide it
+                    attendance.setAttendanceStatus(shiftRuleEngine.classify(shiftRuleEngine.departmentOf(attendance.getEmployeeId()),
+                        attendance.getClockIn(), attendance.getClockOut()));
                 }
                 if (attendanceDetails.getNotes() != null) {
                     attendance.setNotes(attendanceDetails.getNotes());
                 }
                 
-                Attendance updatedAttendance = attendanceRepository.save(attendance);
+                Attendance updatedAttendance = attendanceSummaryService.save(attendance, before);
                 ApiResponse response = new ApiResponse(true, "Attendance record updated successfully", updatedAttendance);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error updating attendance record: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -147,10 +208,14 @@ public class AttendanceController {
     public ResponseEntity<ApiResponse> deleteAttendance(@PathVariable String id) {
         return attendanceRepository.findByIdAndIsDeletedFalse(id).map(attendance -> {
             try {
+                Contribution before = Contribution.of(attendance);
                 attendance.setDeleted(true);
-                attendanceRepository.save(attendance);
+                attendanceSummaryService.save(attendance, before);
                 ApiResponse response = new ApiResponse(true, "Attendance record deleted successfully", null);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error deleting attendance record: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -166,9 +231,12 @@ public class AttendanceController {
     public ResponseEntity<ApiResponse> permanentDeleteAttendance(@PathVariable String id) {
         return attendanceRepository.findById(id).map(attendance -> {
             try {
-                attendanceRepository.delete(attendance);
+                attendanceSummaryService.delete(attendance);
                 ApiResponse response = new ApiResponse(true, "Attendance record permanently deleted", null);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error permanently deleting attendance record: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -189,9 +257,12 @@ public class AttendanceController {
             }
             try {
                 attendance.setDeleted(false);
-                Attendance restoredAttendance = attendanceRepository.save(attendance);
+                Attendance restoredAttendance = attendanceSummaryService.save(attendance, null);
                 ApiResponse response = new ApiResponse(true, "Attendance record restored successfully", restoredAttendance);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error restoring attendance record: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -206,7 +277,7 @@ public class AttendanceController {
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<ApiResponse> getAttendanceByEmployee(@PathVariable String employeeId) {
         try {
-            List<Attendance> attendanceRecords = attendanceRepository.findByEmployeeIdAndIsDeletedFalse(employeeId);
+            List<AttendanceRow> attendanceRecords = attendanceRepository.findByEmployeeIdAndIsDeletedFalse(employeeId);
             ApiResponse response = new ApiResponse(true, "Employee attendance records retrieved successfully", attendanceRecords);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -220,7 +291,7 @@ public class AttendanceController {
     public ResponseEntity<ApiResponse> getAttendanceByDate(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         try {
-            List<Attendance> attendanceRecords = attendanceRepository.findByDateAndIsDeletedFalse(date);
+            List<AttendanceRow> attendanceRecords = attendanceRepository.findByDateAndIsDeletedFalse(date);
             ApiResponse response = new ApiResponse(true, "Attendance records for date retrieved successfully", attendanceRecords);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -235,7 +306,7 @@ public class AttendanceController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            List<Attendance> attendanceRecords = attendanceRepository.findByDateBetweenAndIsDeletedFalse(startDate, endDate);
+            List<AttendanceRow> attendanceRecords = attendanceRepository.findByDateBetweenAndIsDeletedFalse(startDate, endDate);
             ApiResponse response = new ApiResponse(true, "Attendance records for date range retrieved successfully", attendanceRecords);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -244,6 +315,16 @@ public class AttendanceController {
         }
     }
 
+    // Export attendance by date range as NDJSON, streamed row by row
+    @GetMapping(value = "/date-range/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAttendanceByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        StreamingResponseBody body = ndjsonExportService.export(
+            () -> attendanceRepository.streamByDateBetweenAndIsDeletedFalse(startDate, endDate));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get employee attendance by date range
     @GetMapping("/employee/{employeeId}/date-range")
     public ResponseEntity<ApiResponse> getEmployeeAttendanceByDateRange(
@@ -251,7 +332,7 @@ public class AttendanceController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            List<Attendance> attendanceRecords = attendanceRepository
+            List<AttendanceRow> attendanceRecords = attendanceRepository
                 .findByEmployeeIdAndDateBetweenAndIsDeletedFalse(employeeId, startDate, endDate);
             ApiResponse response = new ApiResponse(true, "Employee attendance records for date range retrieved successfully", attendanceRecords);
             return ResponseEntity.ok(response);
@@ -265,7 +346,7 @@ public class AttendanceController {
     @GetMapping("/status/{status}")
     public ResponseEntity<ApiResponse> getAttendanceByStatus(@PathVariable AttendanceStatus status) {
         try {
-            List<Attendance> attendanceRecords = attendanceRepository.findByAttendanceStatusAndIsDeletedFalse(status);
+            List<AttendanceRow> attendanceRecords = attendanceRepository.findByAttendanceStatusAndIsDeletedFalse(status);
             ApiResponse response = new ApiResponse(true, "Attendance records by status retrieved successfully", attendanceRecords);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -278,7 +359,7 @@ public class AttendanceController {
     @GetMapping("/late-arrivals")
     public ResponseEntity<ApiResponse> getLateArrivals() {
         try {
-            List<Attendance> lateArrivals = attendanceRepository.findLateArrivals();
+            List<AttendanceRow> lateArrivals = attendanceRepository.findLateArrivals();
             ApiResponse response = new ApiResponse(true, "Late arrival records retrieved successfully", lateArrivals);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -291,7 +372,7 @@ public class AttendanceController {
     @GetMapping("/overtime")
     public ResponseEntity<ApiResponse> getOvertimeRecords() {
         try {
-            List<Attendance> overtimeRecords = attendanceRepository.findOvertimeRecords();
+            List<AttendanceRow> overtimeRecords = attendanceRepository.findOvertimeRecords();
             ApiResponse response = new ApiResponse(true, "Overtime records retrieved successfully", overtimeRecords);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -304,7 +385,7 @@ public class AttendanceController {
     @GetMapping("/work-from-home")
     public ResponseEntity<ApiResponse> getWorkFromHomeRecords() {
         try {
-            List<Attendance> wfhRecords = attendanceRepository.findWorkFromHomeRecords();
+            List<AttendanceRow> wfhRecords = attendanceRepository.findWorkFromHomeRecords();
             ApiResponse response = new ApiResponse(true, "Work from home records retrieved successfully", wfhRecords);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -317,7 +398,7 @@ public class AttendanceController {
     @GetMapping("/monthly/{year}/{month}")
     public ResponseEntity<ApiResponse> getMonthlyAttendance(@PathVariable int year, @PathVariable int month) {
         try {
-            List<Attendance> monthlyAttendance = attendanceRepository.findMonthlyAttendance(year, month);
+            List<AttendanceRow> monthlyAttendance = attendanceRepository.findMonthlyAttendance(year, month);
             ApiResponse response = new ApiResponse(true, "Monthly attendance report retrieved successfully", monthlyAttendance);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -333,7 +414,7 @@ public class AttendanceController {
             @PathVariable int year,
             @PathVariable int month) {
         try {
-            List<Attendance> employeeMonthlyAttendance = attendanceRepository
+            List<AttendanceRow> employeeMonthlyAttendance = attendanceRepository
                 .findEmployeeMonthlyAttendance(employeeId, year, month);
             ApiResponse response = new ApiResponse(true, "Employee monthly attendance report retrieved successfully", employeeMonthlyAttendance);
             return ResponseEntity.ok(response);
@@ -343,37 +424,184 @@ public class AttendanceController {
         }
     }
 
-    // Clock in
-    @PostMapping("/clock-in")
-    public ResponseEntity<ApiResponse> clockIn(@RequestBody ClockInRequest request) {
+    // Get every employee's precomputed totals for a month
+    @GetMapping("/monthly/{year}/{month}/summary")
+    public ResponseEntity<ApiResponse> getMonthlySummary(@PathVariable int year, @PathVariable int month) {
         try {
-            LocalDate today = LocalDate.now();
-            
-            // Check if employee already clocked in today
-            Optional<Attendance> existingAttendance = attendanceRepository
-                .findByEmployeeIdAndDateAndIsDeletedFalse(request.getEmployeeId(), today);
-            
-            if (existingAttendance.isPresent()) {
-                ApiResponse response = new ApiResponse(false, "Employee already clocked in today", null);
-                return ResponseEntity.badRequest().body(response);
+            List<AttendanceMonthlySummary> summaries = attendanceSummaryService.getMonth(year, month);
+            ApiResponse response = new ApiResponse(true, "Monthly attendance summary retrieved successfully", summaries);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error retrieving monthly attendance summary: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Get one employee's precomputed totals for a month
+    @GetMapping("/monthly/{year}/{month}/summary/{employeeId}")
+    public ResponseEntity<ApiResponse> getEmployeeMonthlySummary(
+            @PathVariable int year,
+            @PathVariable int month,
+            @PathVariable String employeeId) {
+        return attendanceSummaryService.getEmployeeMonth(employeeId, year, month).map(summary -> {
+            ApiResponse response = new ApiResponse(true, "Employee monthly attendance summary retrieved successfully", summary);
+            return ResponseEntity.ok(response);
+        }).orElseGet(() -> {
+            ApiResponse response = new ApiResponse(false, "No attendance summary for this employee and month", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        });
+    }
+
+    // Recompute a month's summary from the attendance records
+    @PostMapping("/monthly/{year}/{month}/rebuild")
+    public ResponseEntity<ApiResponse> rebuildMonthlySummary(@PathVariable int year, @PathVariable int month) {
+        try {
+            int rows = attendanceSummaryService.rebuildMonth(year, month);
+            ApiResponse response = new ApiResponse(true, "Monthly attendance summary rebuilt successfully", rows);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error rebuilding monthly attendance summary: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Recompute every month's summary from the attendance records
+    @PostMapping("/monthly/rebuild")
+    public ResponseEntity<ApiResponse> rebuildAllMonthlySummaries() {
+        try {
+            int rows = attendanceSummaryService.rebuildAll();
+            ApiResponse response = new ApiResponse(true, "All monthly attendance summaries rebuilt successfully", rows);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error rebuilding monthly attendance summaries: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Get absences by date range (materialized ABSENT records)
+    @GetMapping("/absences")
+    public ResponseEntity<ApiResponse> getAbsences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            List<AttendanceRow> absences = attendanceRepository.findAbsencesFromUntil(startDate, endDate.plusDays(1));
+            ApiResponse response = new ApiResponse(true, "Absences retrieved successfully", absences);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error retrieving absences: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Mark absences for a past day now, e.g. to backfill days the nightly job did not run for
+    @PostMapping("/absences/materialize")
+    public ResponseEntity<ApiResponse> materializeAbsences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            int rows = absenceMaterializationService.materialize(date);
+            ApiResponse response = new ApiResponse(true, "Absences materialized successfully", rows);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error materializing absences: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Get the departments' own shift rules (the rest use the default)
+    @GetMapping("/rules")
+    public ResponseEntity<ApiResponse> getShiftRules() {
+        try {
+            List<ShiftRule> rules = shiftRuleEngine.getRules();
+            ApiResponse response = new ApiResponse(true, "Shift rules retrieved successfully", rules);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error retrieving shift rules: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Get the shift rule a department's attendance is classified by
+    @GetMapping("/rules/{departmentId}")
+    public ResponseEntity<ApiResponse> getShiftRule(@PathVariable String departmentId) {
+        try {
+            ShiftRule rule = shiftRuleEngine.getRule(departmentId);
+            ApiResponse response = new ApiResponse(true, "Shift rule retrieved successfully", rule);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error retrieving shift rule: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Set a department's shift rule; with reclassifyFrom, its current employees' records from that date on are
+    // reclassified under it
+    @PutMapping("/rules/{departmentId}")
+    public ResponseEntity<ApiResponse> saveShiftRule(
+            @PathVariable String departmentId,
+            @RequestBody ShiftRule rule,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate reclassifyFrom) {
+        try {
+            rule.setDepartmentId(departmentId);
+            ShiftRule savedRule = shiftRuleEngine.saveRule(rule, reclassifyFrom);
+            ApiResponse response = new ApiResponse(true, "Shift rule saved successfully", savedRule);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error saving shift rule: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Remove a department's shift rule so the default applies; reclassifyFrom works as for saving
+    @DeleteMapping("/rules/{departmentId}")
+    public ResponseEntity<ApiResponse> deleteShiftRule(
+            @PathVariable String departmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate reclassifyFrom) {
+        try {
+            if (!shiftRuleEngine.deleteRule(departmentId, reclassifyFrom)) {
+                ApiResponse response = new ApiResponse(false, "Department has no shift rule of its own", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
-            
-            Attendance attendance = new Attendance();
-            attendance.setEmployeeId(request.getEmployeeId());
-            attendance.setDate(today);
-            attendance.setClockIn(LocalDateTime.now());
-            attendance.setAttendanceStatus(AttendanceStatus.PRESENT);
-            attendance.setDeleted(false);
-            
-            Attendance savedAttendance = attendanceRepository.save(attendance);
-            ApiResponse response = new ApiResponse(true, "Clocked in successfully", savedAttendance);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            ApiResponse response = new ApiResponse(true, "Shift rule deleted successfully", null);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
-            ApiResponse response = new ApiResponse(false, "Error clocking in: " + e.getMessage(), null);
+            ApiResponse response = new ApiResponse(false, "Error deleting shift rule: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
         }
     }
 
+    // Reclassify every record from a date on under the current rules, e.g. after the default rule has changed
+    @PostMapping("/rules/reclassify")
+    public ResponseEntity<ApiResponse> reclassifyAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        try {
+            int changed = shiftRuleEngine.reclassifyAll(from);
+            ApiResponse response = new ApiResponse(true, "Attendance reclassified successfully", changed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error reclassifying attendance: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Clock in, answered once the request's micro-batch has been written
+    @PostMapping("/clock-in")
+    public CompletableFuture<ResponseEntity<ApiResponse>> clockIn(@RequestBody ClockInRequest request) {
+        return clockInBatcher.submit(request.getEmployeeId()).handle((result, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                ApiResponse response = new ApiResponse(false, "Error clocking in: " + cause.getMessage(), null);
+                HttpStatus status = cause instanceof RejectedExecutionException ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+                return ResponseEntity.status(status).body(response);
+            }
+            if (result.alreadyClockedIn()) {
+                ApiResponse response = new ApiResponse(false, "Employee already clocked in today", null);
+                return ResponseEntity.badRequest().body(response);
+            }
+            ApiResponse response = new ApiResponse(true, "Clocked in successfully", result.attendance());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
     // Clock out
     @PutMapping("/clock-out")
     public ResponseEntity<ApiResponse> clockOut(@RequestBody ClockOutRequest request) {
@@ -383,7 +611,7 @@ public class AttendanceController {
             Optional<Attendance> attendanceOpt = attendanceRepository
                 .findByEmployeeIdAndDateAndIsDeletedFalse(request.getEmployeeId(), today);
             
-            if (attendanceOpt.isEmpty()) {
+            if (attendanceOpt.isEmpty() || attendanceOpt.get().getClockIn() == null) {
                 ApiResponse response = new ApiResponse(false, "No clock-in record found for today", null);
                 return ResponseEntity.badRequest().body(response);
             }
@@ -394,14 +622,19 @@ public class AttendanceController {
                 return ResponseEntity.badRequest().body(response);
             }
             
+            Contribution before = Contribution.of(attendance);
             attendance.setClockOut(LocalDateTime.now());
+            attendance.setAttendanceStatus(shiftRuleEngine.atClockOut(shiftRuleEngine.departmentOf(attendance.getEmployeeId()), attendance));
             if (request.getNotes() != null) {
                 attendance.setNotes(request.getNotes());
             }
             
-            Attendance updatedAttendance = attendanceRepository.save(attendance);
+            Attendance updatedAttendance = attendanceSummaryService.save(attendance, before);
             ApiResponse response = new ApiResponse(true, "Clocked out successfully", updatedAttendance);
             return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (Exception e) {
             ApiResponse response = new ApiResponse(false, "Error clocking out: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
@@ -438,9 +671,7 @@ public class AttendanceController {
     @GetMapping("/deleted")
     public ResponseEntity<ApiResponse> getDeletedAttendance() {
         try {
-            List<Attendance> deletedAttendance = attendanceRepository.findAll().stream()
-                .filter(Attendance::isDeleted)
-                .toList();
+            List<AttendanceRow> deletedAttendance = attendanceRepository.findDeletedRows();
             ApiResponse response = new ApiResponse(true, "Deleted attendance records retrieved successfully", deletedAttendance);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -454,12 +685,16 @@ public class AttendanceController {
     public ResponseEntity<ApiResponse> bulkDeleteAttendance(@RequestBody List<String> attendanceIds) {
         try {
             List<Attendance> attendanceRecords = attendanceRepository.findAllById(attendanceIds);
+            List<Contribution> befores = attendanceRecords.stream().map(Contribution::of).toList();
             attendanceRecords.forEach(attendance -> attendance.setDeleted(true));
-            attendanceRepository.saveAll(attendanceRecords);
+            attendanceSummaryService.saveAll(attendanceRecords, befores);
             
             ApiResponse response = new ApiResponse(true, 
                 "Bulk delete completed. " + attendanceRecords.size() + " attendance records deleted.", attendanceRecords.size());
             return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            ApiResponse response = new ApiResponse(false, "Attendance record was changed by someone else", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (Exception e) {
             ApiResponse response = new ApiResponse(false, "Error in bulk delete: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
@@ -3,36 +3,52 @@ package com.hrmanagement.hr_management_api.controller;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.hrmanagement.hr_management_api.model.entity.Department;
+import com.hrmanagement.hr_management_api.model.entity.Position;
 import com.hrmanagement.hr_management_api.repository.DepartmentRepository;
+import com.hrmanagement.hr_management_api.service.ReferenceDataCache;
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
 
 @RestController
 @RequestMapping("/api/departments")
 public class DepartmentController {
 
     private final DepartmentRepository departmentRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public DepartmentController(DepartmentRepository departmentRepository) {
+    // Reads come from the reference data cache; writes go to the repository and then invalidate it
+    public DepartmentController(DepartmentRepository departmentRepository, ReferenceDataCache referenceDataCache) {
         this.departmentRepository = departmentRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
-    // Get all departments (non-deleted)
+    // Get all departments (non-deleted), one keyset page at a time
     @GetMapping("/")
-    public ResponseEntity<ApiResponse> getAllDepartments() {
-        List<Department> departments = departmentRepository.findByIsDeletedFalse();
-        ApiResponse response = new ApiResponse(true, "Departments retrieved successfully", departments);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse> getAllDepartments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Window<Department> departments = referenceDataCache.activeDepartments(
+                KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+            ApiResponse response = new ApiResponse(true, "Departments retrieved successfully",
+                departments.getContent(), KeysetCursor.next(departments));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, "Invalid cursor", null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get all departments including deleted
     @GetMapping("/all")
     public ResponseEntity<ApiResponse> getAllDepartmentsIncludingDeleted() {
-        List<Department> departments = departmentRepository.findAll();
+        List<Department> departments = referenceDataCache.allDepartments();
         ApiResponse response = new ApiResponse(true, "All departments retrieved successfully", departments);
         return ResponseEntity.ok(response);
     }
@@ -40,7 +56,7 @@ public class DepartmentController {
     // Get department by ID
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse> getDepartmentById(@PathVariable String id) {
-        Optional<Department> department = departmentRepository.findByIdAndIsDeletedFalse(id);
+        Optional<Department> department = referenceDataCache.department(id);
         return department.map(dep -> {
             ApiResponse response = new ApiResponse(true, "Department retrieved successfully", dep);
             return ResponseEntity.ok(response);
@@ -50,17 +66,22 @@ public class DepartmentController {
         });
     }
 
-    // Get all Positions in a department by id
+    // Get all Positions in a department by id. Same results as findByIdWithPositions: the non-deleted positions of a
+    // non-deleted department, and 404 when it has none (that query's join filter drops the department row as well)
     @GetMapping("/{id}/positions")
     public ResponseEntity<ApiResponse> getPositionsInDepartment(@PathVariable String id) {
-        Optional<Department> department = departmentRepository.findByIdWithPositions(id);
-        return department.map(dep -> {
-            ApiResponse response = new ApiResponse(true, "Positions in department retrieved successfully", dep.getPositions());
+        List<Position> positions = referenceDataCache.department(id)
+            .map(dep -> referenceDataCache.activePositions().stream()
+                .filter(position -> id.equals(position.getDepartmentId()))
+                .toList())
+            .orElse(List.of());
+        if (!positions.isEmpty()) {
+            ApiResponse response = new ApiResponse(true, "Positions in department retrieved successfully", positions);
             return ResponseEntity.ok(response);
-        }).orElseGet(() -> {
+        } else {
             ApiResponse response = new ApiResponse(false, "Department not found", null);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        });
+        }
     }
 
     // Create new department
@@ -70,6 +91,7 @@ public class DepartmentController {
             // Ensure the department is not marked as deleted when creating
             department.setDeleted(false);
             Department savedDepartment = departmentRepository.save(department);
+            referenceDataCache.invalidateDepartments();
             ApiResponse response = new ApiResponse(true, "Department created successfully", savedDepartment);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -93,6 +115,7 @@ public class DepartmentController {
             department.setManagerId(departmentDetails.getManagerId());
 
             Department updatedDepartment = departmentRepository.save(department);
+            referenceDataCache.invalidateDepartments();
             ApiResponse response = new ApiResponse(true, "Department updated successfully", updatedDepartment);
             return ResponseEntity.ok(response);
         } else {
@@ -122,6 +145,7 @@ public class DepartmentController {
             }
 
             Department updatedDepartment = departmentRepository.save(department);
+            referenceDataCache.invalidateDepartments();
             ApiResponse response = new ApiResponse(true, "Department partially updated successfully", updatedDepartment);
             return ResponseEntity.ok(response);
         } else {
@@ -139,6 +163,7 @@ public class DepartmentController {
             Department department = existingDepartment.get();
             department.setDeleted(true); // Soft delete
             departmentRepository.save(department);
+            referenceDataCache.invalidateDepartments();
             ApiResponse response = new ApiResponse(true, "Department deleted successfully", null);
             return ResponseEntity.ok(response);
         } else {
@@ -152,6 +177,9 @@ public class DepartmentController {
     public ResponseEntity<ApiResponse> hardDeleteDepartment(@PathVariable String id) {
         if (departmentRepository.existsById(id)) {
             departmentRepository.deleteById(id);
+            // Positions go with their department (cascade)
+            referenceDataCache.invalidateDepartments();
+            referenceDataCache.invalidatePositions();
             ApiResponse response = new ApiResponse(true, "Department deleted successfully", null);
             return ResponseEntity.ok(response);
         } else {
@@ -163,7 +191,10 @@ public class DepartmentController {
     // Search departments by name
     @GetMapping("/search")
     public ResponseEntity<ApiResponse> searchDepartments(@RequestParam String query) {
-        List<Department> departments = departmentRepository.searchDepartments(query);
+        List<Department> departments = referenceDataCache.activeDepartments().stream()
+            .filter(dep -> ReferenceDataCache.containsIgnoreCase(dep.getName(), query)
+                || ReferenceDataCache.containsIgnoreCase(dep.getDescription(), query))
+            .toList();
         ApiResponse response = new ApiResponse(true, "Departments retrieved successfully", departments);
         return ResponseEntity.ok(response);
     }
@@ -171,7 +202,7 @@ public class DepartmentController {
     // Get department count (non-deleted only)
     @GetMapping("/count")
     public ResponseEntity<ApiResponse> getDepartmentCount() {
-        long count = departmentRepository.countByIsDeletedFalse();
+        long count = referenceDataCache.activeDepartments().size();
         ApiResponse response = new ApiResponse(true, "Department count retrieved successfully", count);
         return ResponseEntity.ok(response);
     }
@@ -185,6 +216,7 @@ public class DepartmentController {
             Department department = existingDepartment.get();
             department.setManagerId(managerId);
             Department updatedDepartment = departmentRepository.save(department);
+            referenceDataCache.invalidateDepartments();
             ApiResponse response = new ApiResponse(true, "Manager assigned successfully", updatedDepartment);
             return ResponseEntity.ok(response);
         } else {
@@ -202,6 +234,7 @@ public class DepartmentController {
             Department department = existingDepartment.get();
             department.setManagerId(null);
             Department updatedDepartment = departmentRepository.save(department);
+            referenceDataCache.invalidateDepartments();
             ApiResponse response = new ApiResponse(true, "Manager removed successfully", updatedDepartment);
             return ResponseEntity.ok(response);
         } else {
@@ -3,36 +3,57 @@ package com.hrmanagement.hr_management_api.controller;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.hrmanagement.hr_management_api.model.dto.EmployeeSummary;
 import com.hrmanagement.hr_management_api.model.entity.Employee;
 import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.service.SearchService;
+import com.hrmanagement.hr_management_api.service.TypeaheadIndex;
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+import com.hrmanagement.hr_management_api.util.QueryBudget;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
     private final EmployeeRepository employeeRepository;
+    private final SearchService searchService;
+    private final TypeaheadIndex typeaheadIndex;
 
-    public EmployeeController(EmployeeRepository employeeRepository) {
+    public EmployeeController(EmployeeRepository employeeRepository, SearchService searchService,
+                              TypeaheadIndex typeaheadIndex) {
         this.employeeRepository = employeeRepository;
+        this.searchService = searchService;
+        this.typeaheadIndex = typeaheadIndex;
     }
 
-    // Get all employees (non-deleted)
+    // Get all employees (non-deleted), one keyset page at a time
     @GetMapping("/")
-    public ResponseEntity<ApiResponse> getAllEmployees() {
-        List<Employee> employees = employeeRepository.findByIsDeletedFalse();
-        ApiResponse response = new ApiResponse(true, "Employees retrieved successfully", employees);
-        return ResponseEntity.ok(response);
+    @QueryBudget(1)
+    public ResponseEntity<ApiResponse> getAllEmployees(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Window<EmployeeSummary> employees = employeeRepository.findRows(
+                KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+            ApiResponse response = new ApiResponse(true, "Employees retrieved successfully",
+                employees.getContent(), KeysetCursor.next(employees));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, "Invalid cursor", null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get all employees including deleted
     @GetMapping("/all")
     public ResponseEntity<ApiResponse> getAllEmployeesIncludingDeleted() {
-        List<Employee> employees = employeeRepository.findAll();
+        List<EmployeeSummary> employees = employeeRepository.findAllRows();
         ApiResponse response = new ApiResponse(true, "All employees retrieved successfully", employees);
         return ResponseEntity.ok(response);
     }
@@ -201,8 +222,9 @@ public class EmployeeController {
 
     // Get employees by department
     @GetMapping("/department/{departmentId}")
+    @QueryBudget(1)
     public ResponseEntity<ApiResponse> getEmployeesByDepartment(@PathVariable String departmentId) {
-        List<Employee> employees = employeeRepository.findByDepartmentIdAndIsDeletedFalse(departmentId);
+        List<EmployeeSummary> employees = employeeRepository.findByDepartmentIdAndIsDeletedFalse(departmentId);
         ApiResponse response = new ApiResponse(true, "Employees retrieved successfully", employees);
         return ResponseEntity.ok(response);
     }
@@ -210,7 +232,7 @@ public class EmployeeController {
     // Get employees by position
     @GetMapping("/position/{positionId}")
     public ResponseEntity<ApiResponse> getEmployeesByPosition(@PathVariable String positionId) {
-        List<Employee> employees = employeeRepository.findByPositionIdAndIsDeletedFalse(positionId);
+        List<EmployeeSummary> employees = employeeRepository.findByPositionIdAndIsDeletedFalse(positionId);
         ApiResponse response = new ApiResponse(true, "Employees retrieved successfully", employees);
         return ResponseEntity.ok(response);
     }
@@ -218,17 +240,27 @@ public class EmployeeController {
     // Get active employees only
     @GetMapping("/active")
     public ResponseEntity<ApiResponse> getActiveEmployees() {
-        List<Employee> employees = employeeRepository.findActiveEmployees();
+        List<EmployeeSummary> employees = employeeRepository.findActiveEmployees();
         ApiResponse response = new ApiResponse(true, "Active employees retrieved successfully", employees);
         return ResponseEntity.ok(response);
     }
 
-    // Search employees by name
+    // Search employees by name or email: prefix matches from the in-memory typeahead index, and the trigram
+    // search (best match first, misspellings included) when it has none
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchEmployees(@RequestParam String query) {
-        List<Employee> employees = employeeRepository.searchByNameAndIsDeleted(query);
-        ApiResponse response = new ApiResponse(true, "Employees retrieved successfully", employees);
-        return ResponseEntity.ok(response);
+    @QueryBudget(2)
+    public ResponseEntity<ApiResponse> searchEmployees(@RequestParam String query,
+                                                       @RequestParam(required = false) Integer limit) {
+        try {
+            List<EmployeeSummary> employees = typeaheadIndex.employees(query, limit)
+                .filter(matches -> !matches.isEmpty())
+                .orElseGet(() -> searchService.searchEmployees(query, limit));
+            ApiResponse response = new ApiResponse(true, "Employees retrieved successfully", employees);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get employee count (non-deleted only)
@@ -243,9 +275,7 @@ public class EmployeeController {
     @GetMapping("/deleted")
     public ResponseEntity<ApiResponse> getDeletedEmployees() {
         try {
-            List<Employee> deletedEmployees = employeeRepository.findAll().stream()
-                .filter(Employee::isDeleted)
-                .toList();
+            List<EmployeeSummary> deletedEmployees = employeeRepository.findDeletedRows();
             ApiResponse response = new ApiResponse(true, "Deleted employees retrieved successfully", deletedEmployees);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -4,39 +4,79 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.hrmanagement.hr_management_api.model.dto.LeaveRequestRow;
 import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
 import com.hrmanagement.hr_management_api.model.enums.LeaveRequestStatus;
 import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
 import com.hrmanagement.hr_management_api.repository.LeaveRequestRepository;
+import com.hrmanagement.hr_management_api.service.HolidayCalendar;
+import com.hrmanagement.hr_management_api.service.LeaveBalanceService;
+import com.hrmanagement.hr_management_api.service.LeaveBalanceService.AllowanceExceededException;
+import com.hrmanagement.hr_management_api.service.LeaveBalanceService.Usage;
+import com.hrmanagement.hr_management_api.service.LeaveCalendarIndex;
+import com.hrmanagement.hr_management_api.service.NdjsonExportService;
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+import com.hrmanagement.hr_management_api.util.QueryBudget;
 
 @RestController
 @RequestMapping("/api/leave-requests")
 public class LeaveRequestController {
 
     private final LeaveRequestRepository leaveRequestRepository;
-
-    public LeaveRequestController(LeaveRequestRepository leaveRequestRepository) {
+    private final NdjsonExportService ndjsonExportService;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+    private final LeaveBalanceService leaveBalanceService;
+    private final HolidayCalendar holidayCalendar;
+
+    public LeaveRequestController(LeaveRequestRepository leaveRequestRepository, NdjsonExportService ndjsonExportService,
+                                  LeaveCalendarIndex leaveCalendarIndex, LeaveBalanceService leaveBalanceService,
+                                  HolidayCalendar holidayCalendar) {
         this.leaveRequestRepository = leaveRequestRepository;
+        this.ndjsonExportService = ndjsonExportService;
+        this.leaveCalendarIndex = leaveCalendarIndex;
+        this.leaveBalanceService = leaveBalanceService;
+        this.holidayCalendar = holidayCalendar;
     }
 
-    // Get all leave requests (non-deleted)
+    // Leave counts working days only: weekends and public holidays inside the range cost nothing
+    private void countWorkingDays(LeaveRequest leaveRequest) {
+        if (leaveRequest.getStartDate() != null && leaveRequest.getEndDate() != null) {
+            leaveRequest.setTotalDays(holidayCalendar.workingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate()));
+        }
+    }
+
+    // Get all leave requests (non-deleted), one keyset page at a time
     @GetMapping("/")
-    public ResponseEntity<ApiResponse> getAllLeaveRequests() {
-        List<LeaveRequest> leaveRequests = leaveRequestRepository.findByIsDeletedFalse();
-        ApiResponse response = new ApiResponse(true, "Leave requests retrieved successfully", leaveRequests);
-        return ResponseEntity.ok(response);
+    @QueryBudget(1)
+    public ResponseEntity<ApiResponse> getAllLeaveRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Window<LeaveRequestRow> leaveRequests = leaveRequestRepository.findRows(
+                KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+            ApiResponse response = new ApiResponse(true, "Leave requests retrieved successfully",
+                leaveRequests.getContent(), KeysetCursor.next(leaveRequests));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, "Invalid cursor", null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get all leave requests including deleted
     @GetMapping("/all")
     public ResponseEntity<ApiResponse> getAllLeaveRequestsIncludingDeleted() {
-        List<LeaveRequest> leaveRequests = leaveRequestRepository.findAll();
+        List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findAllRows();
         ApiResponse response = new ApiResponse(true, "All leave requests retrieved successfully", leaveRequests);
         return ResponseEntity.ok(response);
     }
@@ -58,16 +98,22 @@ public class LeaveRequestController {
     @PostMapping("/")
     public ResponseEntity<ApiResponse> createLeaveRequest(@RequestBody LeaveRequest leaveRequest) {
         try {
-            // Check for overlapping approved leave requests
-            List<LeaveRequest> overlappingRequests = leaveRequestRepository.findOverlappingLeaveRequests(
+            // Check for overlapping approved or pending leave requests
+            List<LeaveRequestRow> overlappingRequests = leaveRequestRepository.findCalendarRowsOverlapping(
                 leaveRequest.getEmployeeId(), leaveRequest.getStartDate(), leaveRequest.getEndDate());
             
             if (!overlappingRequests.isEmpty()) {
                 ApiResponse response = new ApiResponse(false, 
-                    "Leave request overlaps with existing approved leave", overlappingRequests);
+                    "Leave request overlaps with existing approved or pending leave", overlappingRequests);
                 return ResponseEntity.badRequest().body(response);
             }
             
+            countWorkingDays(leaveRequest);
+            if (leaveRequest.getTotalDays() != null && leaveRequest.getTotalDays() == 0) {
+                ApiResponse response = new ApiResponse(false, "Leave request covers no working days", null);
+                return ResponseEntity.badRequest().body(response);
+            }
+
             // Ensure the leave request is not marked as deleted when creating
             leaveRequest.setDeleted(false);
             // Set default status to PENDING if not provided
@@ -79,9 +125,13 @@ public class LeaveRequestController {
                 leaveRequest.setRequestDate(LocalDate.now());
             }
             
-            LeaveRequest savedLeaveRequest = leaveRequestRepository.save(leaveRequest);
+            LeaveRequest savedLeaveRequest = leaveBalanceService.save(leaveRequest, null);
+            leaveCalendarIndex.update(savedLeaveRequest);
             ApiResponse response = new ApiResponse(true, "Leave request created successfully", savedLeaveRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (AllowanceExceededException e) {
+            ApiResponse response = new ApiResponse(false, e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             ApiResponse response = new ApiResponse(false, "Error creating leave request: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
@@ -93,19 +143,20 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> updateLeaveRequest(@PathVariable String id, @RequestBody LeaveRequest leaveRequestDetails) {
         return leaveRequestRepository.findByIdAndIsDeletedFalse(id).map(leaveRequest -> {
             try {
+                Usage before = Usage.of(leaveRequest);
                 // Check for overlapping requests if dates are being changed
                 if (!leaveRequest.getStartDate().equals(leaveRequestDetails.getStartDate()) || 
                     !leaveRequest.getEndDate().equals(leaveRequestDetails.getEndDate())) {
                     
-                    List<LeaveRequest> overlappingRequests = leaveRequestRepository.findOverlappingLeaveRequests(
+                    List<LeaveRequestRow> overlappingRequests = leaveRequestRepository.findCalendarRowsOverlapping(
                         leaveRequestDetails.getEmployeeId(), leaveRequestDetails.getStartDate(), leaveRequestDetails.getEndDate());
                     
                     // Remove current request from overlapping check
-                    overlappingRequests.removeIf(req -> req.getId().equals(id));
+                    overlappingRequests.removeIf(req -> req.id().equals(id));
                     
                     if (!overlappingRequests.isEmpty()) {
                         ApiResponse response = new ApiResponse(false, 
-                            "Leave request overlaps with existing approved leave", overlappingRequests);
+                            "Leave request overlaps with existing approved or pending leave", overlappingRequests);
                         return ResponseEntity.badRequest().body(response);
                     }
                 }
@@ -119,10 +170,18 @@ public class LeaveRequestController {
                 leaveRequest.setApprovedBy(leaveRequestDetails.getApprovedBy());
                 leaveRequest.setResponseDate(leaveRequestDetails.getResponseDate());
                 leaveRequest.setComments(leaveRequestDetails.getComments());
+                countWorkingDays(leaveRequest);
                 
-                LeaveRequest updatedLeaveRequest = leaveRequestRepository.save(leaveRequest);
+                LeaveRequest updatedLeaveRequest = leaveBalanceService.save(leaveRequest, before);
+                leaveCalendarIndex.update(updatedLeaveRequest);
                 ApiResponse response = new ApiResponse(true, "Leave request updated successfully", updatedLeaveRequest);
                 return ResponseEntity.ok(response);
+            } catch (AllowanceExceededException e) {
+                ApiResponse response = new ApiResponse(false, e.getMessage(), null);
+                return ResponseEntity.badRequest().body(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error updating leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -138,6 +197,7 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> partialUpdateLeaveRequest(@PathVariable String id, @RequestBody LeaveRequest leaveRequestDetails) {
         return leaveRequestRepository.findByIdAndIsDeletedFalse(id).map(leaveRequest -> {
             try {
+                Usage before = Usage.of(leaveRequest);
                 if (leaveRequestDetails.getEmployeeId() != null) {
                     leaveRequest.setEmployeeId(leaveRequestDetails.getEmployeeId());
                 }
@@ -165,10 +225,18 @@ public class LeaveRequestController {
                 if (leaveRequestDetails.getComments() != null) {
                     leaveRequest.setComments(leaveRequestDetails.getComments());
                 }
+                countWorkingDays(leaveRequest);
                 
-                LeaveRequest updatedLeaveRequest = leaveRequestRepository.save(leaveRequest);
+                LeaveRequest updatedLeaveRequest = leaveBalanceService.save(leaveRequest, before);
+                leaveCalendarIndex.update(updatedLeaveRequest);
                 ApiResponse response = new ApiResponse(true, "Leave request updated successfully", updatedLeaveRequest);
                 return ResponseEntity.ok(response);
+            } catch (AllowanceExceededException e) {
+                ApiResponse response = new ApiResponse(false, e.getMessage(), null);
+                return ResponseEntity.badRequest().body(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error updating leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -184,10 +252,14 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> deleteLeaveRequest(@PathVariable String id) {
         return leaveRequestRepository.findByIdAndIsDeletedFalse(id).map(leaveRequest -> {
             try {
+                Usage before = Usage.of(leaveRequest);
                 leaveRequest.setDeleted(true);
-                leaveRequestRepository.save(leaveRequest);
+                leaveCalendarIndex.update(leaveBalanceService.save(leaveRequest, before));
                 ApiResponse response = new ApiResponse(true, "Leave request deleted successfully", null);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error deleting leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -203,9 +275,13 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> permanentDeleteLeaveRequest(@PathVariable String id) {
         return leaveRequestRepository.findById(id).map(leaveRequest -> {
             try {
-                leaveRequestRepository.delete(leaveRequest);
+                leaveBalanceService.delete(leaveRequest);
+                leaveCalendarIndex.remove(id);
                 ApiResponse response = new ApiResponse(true, "Leave request permanently deleted", null);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error permanently deleting leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -225,10 +301,18 @@ public class LeaveRequestController {
                 return ResponseEntity.badRequest().body(response);
             }
             try {
+                Usage before = Usage.of(leaveRequest);
                 leaveRequest.setDeleted(false);
-                LeaveRequest restoredLeaveRequest = leaveRequestRepository.save(leaveRequest);
+                LeaveRequest restoredLeaveRequest = leaveBalanceService.save(leaveRequest, before);
+                leaveCalendarIndex.update(restoredLeaveRequest);
                 ApiResponse response = new ApiResponse(true, "Leave request restored successfully", restoredLeaveRequest);
                 return ResponseEntity.ok(response);
+            } catch (AllowanceExceededException e) {
+                ApiResponse response = new ApiResponse(false, e.getMessage(), null);
+                return ResponseEntity.badRequest().body(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error restoring leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -243,7 +327,7 @@ public class LeaveRequestController {
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<ApiResponse> getLeaveRequestsByEmployee(@PathVariable String employeeId) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByEmployeeIdAndIsDeletedFalse(employeeId);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByEmployeeIdAndIsDeletedFalse(employeeId);
             ApiResponse response = new ApiResponse(true, "Employee leave requests retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -256,7 +340,7 @@ public class LeaveRequestController {
     @GetMapping("/status/{status}")
     public ResponseEntity<ApiResponse> getLeaveRequestsByStatus(@PathVariable LeaveRequestStatus status) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByLeaveRequestStatusAndIsDeletedFalse(status);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByLeaveRequestStatusAndIsDeletedFalse(status);
             ApiResponse response = new ApiResponse(true, "Leave requests by status retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -269,7 +353,7 @@ public class LeaveRequestController {
     @GetMapping("/type/{type}")
     public ResponseEntity<ApiResponse> getLeaveRequestsByType(@PathVariable LeaveRequestType type) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByLeaveRequestTypeAndIsDeletedFalse(type);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByLeaveRequestTypeAndIsDeletedFalse(type);
             ApiResponse response = new ApiResponse(true, "Leave requests by type retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -282,7 +366,7 @@ public class LeaveRequestController {
     @GetMapping("/pending")
     public ResponseEntity<ApiResponse> getPendingLeaveRequests() {
         try {
-            List<LeaveRequest> pendingRequests = leaveRequestRepository.findPendingRequests();
+            List<LeaveRequestRow> pendingRequests = leaveRequestRepository.findPendingRequests();
             ApiResponse response = new ApiResponse(true, "Pending leave requests retrieved successfully", pendingRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -295,7 +379,7 @@ public class LeaveRequestController {
     @GetMapping("/approved")
     public ResponseEntity<ApiResponse> getApprovedLeaveRequests() {
         try {
-            List<LeaveRequest> approvedRequests = leaveRequestRepository.findApprovedRequests();
+            List<LeaveRequestRow> approvedRequests = leaveRequestRepository.findApprovedRequests();
             ApiResponse response = new ApiResponse(true, "Approved leave requests retrieved successfully", approvedRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -308,7 +392,7 @@ public class LeaveRequestController {
     @GetMapping("/rejected")
     public ResponseEntity<ApiResponse> getRejectedLeaveRequests() {
         try {
-            List<LeaveRequest> rejectedRequests = leaveRequestRepository.findRejectedRequests();
+            List<LeaveRequestRow> rejectedRequests = leaveRequestRepository.findRejectedRequests();
             ApiResponse response = new ApiResponse(true, "Rejected leave requests retrieved successfully", rejectedRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -321,7 +405,7 @@ public class LeaveRequestController {
     @GetMapping("/cancelled")
     public ResponseEntity<ApiResponse> getCancelledLeaveRequests() {
         try {
-            List<LeaveRequest> cancelledRequests = leaveRequestRepository.findCancelledRequests();
+            List<LeaveRequestRow> cancelledRequests = leaveRequestRepository.findCancelledRequests();
             ApiResponse response = new ApiResponse(true, "Cancelled leave requests retrieved successfully", cancelledRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -336,7 +420,7 @@ public class LeaveRequestController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByStartDateBetweenAndIsDeletedFalse(startDate, endDate);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByStartDateBetweenAndIsDeletedFalse(startDate, endDate);
             ApiResponse response = new ApiResponse(true, "Leave requests for date range retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -352,7 +436,7 @@ public class LeaveRequestController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository
                 .findByEmployeeIdAndStartDateBetweenAndIsDeletedFalse(employeeId, startDate, endDate);
             ApiResponse response = new ApiResponse(true, "Employee leave requests for date range retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
@@ -366,7 +450,7 @@ public class LeaveRequestController {
     @GetMapping("/approver/{approverId}")
     public ResponseEntity<ApiResponse> getLeaveRequestsByApprover(@PathVariable String approverId) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByApprovedByAndIsDeletedFalse(approverId);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByApprovedByAndIsDeletedFalse(approverId);
             ApiResponse response = new ApiResponse(true, "Leave requests by approver retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -380,6 +464,7 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> approveLeaveRequest(@PathVariable String id, @RequestBody ApprovalRequest approvalRequest) {
         return leaveRequestRepository.findByIdAndIsDeletedFalse(id).map(leaveRequest -> {
             try {
+                Usage before = Usage.of(leaveRequest);
                 leaveRequest.setLeaveRequestStatus(LeaveRequestStatus.APPROVED);
                 leaveRequest.setApprovedBy(approvalRequest.getApproverId());
                 leaveRequest.setResponseDate(LocalDate.now());
@@ -387,9 +472,16 @@ public class LeaveRequestController {
                     leaveRequest.setComments(approvalRequest.getComments());
                 }
                 
-                LeaveRequest updatedLeaveRequest = leaveRequestRepository.save(leaveRequest);
+                LeaveRequest updatedLeaveRequest = leaveBalanceService.save(leaveRequest, before);
+                leaveCalendarIndex.update(updatedLeaveRequest);
                 ApiResponse response = new ApiResponse(true, "Leave request approved successfully", updatedLeaveRequest);
                 return ResponseEntity.ok(response);
+            } catch (AllowanceExceededException e) {
+                ApiResponse response = new ApiResponse(false, e.getMessage(), null);
+                return ResponseEntity.badRequest().body(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error approving leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -405,6 +497,7 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> rejectLeaveRequest(@PathVariable String id, @RequestBody ApprovalRequest approvalRequest) {
         return leaveRequestRepository.findByIdAndIsDeletedFalse(id).map(leaveRequest -> {
             try {
+                Usage before = Usage.of(leaveRequest);
                 leaveRequest.setLeaveRequestStatus(LeaveRequestStatus.REJECTED);
                 leaveRequest.setApprovedBy(approvalRequest.getApproverId());
                 leaveRequest.setResponseDate(LocalDate.now());
@@ -412,9 +505,13 @@ public class LeaveRequestController {
                     leaveRequest.setComments(approvalRequest.getComments());
                 }
                 
-                LeaveRequest updatedLeaveRequest = leaveRequestRepository.save(leaveRequest);
+                LeaveRequest updatedLeaveRequest = leaveBalanceService.save(leaveRequest, before);
+                leaveCalendarIndex.update(updatedLeaveRequest);
                 ApiResponse response = new ApiResponse(true, "Leave request rejected successfully", updatedLeaveRequest);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error rejecting leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -430,15 +527,20 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> cancelLeaveRequest(@PathVariable String id, @RequestBody CancelRequest cancelRequest) {
         return leaveRequestRepository.findByIdAndIsDeletedFalse(id).map(leaveRequest -> {
             try {
+                Usage before = Usage.of(leaveRequest);
                 leaveRequest.setLeaveRequestStatus(LeaveRequestStatus.CANCELLED);
                 leaveRequest.setResponseDate(LocalDate.now());
                 if (cancelRequest.getReason() != null) {
                     leaveRequest.setComments(cancelRequest.getReason());
                 }
                 
-                LeaveRequest updatedLeaveRequest = leaveRequestRepository.save(leaveRequest);
+                LeaveRequest updatedLeaveRequest = leaveBalanceService.save(leaveRequest, before);
+                leaveCalendarIndex.update(updatedLeaveRequest);
                 ApiResponse response = new ApiResponse(true, "Leave request cancelled successfully", updatedLeaveRequest);
                 return ResponseEntity.ok(response);
+            } catch (OptimisticLockingFailureException e) {
+                ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
             } catch (Exception e) {
                 ApiResponse response = new ApiResponse(false, "Error cancelling leave request: " + e.getMessage(), null);
                 return ResponseEntity.badRequest().body(response);
@@ -449,11 +551,27 @@ public class LeaveRequestController {
         });
     }
 
+    // Who is off on any day of a date range: approved leave, plus pending when asked, ordered by start date
+    @GetMapping("/off")
+    public ResponseEntity<ApiResponse> getEmployeesOff(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean includePending) {
+        try {
+            List<LeaveRequestRow> leaves = leaveCalendarIndex.off(startDate, endDate, includePending);
+            ApiResponse response = new ApiResponse(true, "Employees on leave retrieved successfully", leaves);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error retrieving employees on leave: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     // Get upcoming approved leaves
     @GetMapping("/upcoming")
     public ResponseEntity<ApiResponse> getUpcomingApprovedLeaves() {
         try {
-            List<LeaveRequest> upcomingLeaves = leaveRequestRepository.findUpcomingApprovedLeaves();
+            List<LeaveRequestRow> upcomingLeaves = leaveRequestRepository.findUpcomingApprovedLeaves();
             ApiResponse response = new ApiResponse(true, "Upcoming approved leaves retrieved successfully", upcomingLeaves);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -466,7 +584,7 @@ public class LeaveRequestController {
     @GetMapping("/current-active")
     public ResponseEntity<ApiResponse> getCurrentActiveLeaves() {
         try {
-            List<LeaveRequest> activeLeaves = leaveRequestRepository.findCurrentActiveLeaves();
+            List<LeaveRequestRow> activeLeaves = leaveRequestRepository.findCurrentActiveLeaves();
             ApiResponse response = new ApiResponse(true, "Current active leaves retrieved successfully", activeLeaves);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -479,7 +597,7 @@ public class LeaveRequestController {
     @GetMapping("/year/{year}")
     public ResponseEntity<ApiResponse> getLeaveRequestsByYear(@PathVariable int year) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByYear(year);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByYear(year);
             ApiResponse response = new ApiResponse(true, "Leave requests for year retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -488,11 +606,21 @@ public class LeaveRequestController {
         }
     }
 
+    // Export leave requests by year as NDJSON, streamed row by row
+    @GetMapping(value = "/year/{year}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLeaveRequestsByYear(@PathVariable int year) {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        StreamingResponseBody body = ndjsonExportService.export(
+            () -> leaveRequestRepository.streamByStartDateBetweenAndIsDeletedFalse(startDate, endDate));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get employee leave requests by year
     @GetMapping("/employee/{employeeId}/year/{year}")
     public ResponseEntity<ApiResponse> getEmployeeLeaveRequestsByYear(@PathVariable String employeeId, @PathVariable int year) {
         try {
-            List<LeaveRequest> leaveRequests = leaveRequestRepository.findByEmployeeIdAndYear(employeeId, year);
+            List<LeaveRequestRow> leaveRequests = leaveRequestRepository.findByEmployeeIdAndYear(employeeId, year);
             ApiResponse response = new ApiResponse(true, "Employee leave requests for year retrieved successfully", leaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -508,7 +636,7 @@ public class LeaveRequestController {
             @RequestParam LeaveRequestType type,
             @RequestParam int year) {
         try {
-            int totalDays = leaveRequestRepository.getTotalLeaveDaysByEmployeeTypeAndYear(employeeId, type, year);
+            int totalDays = leaveBalanceService.getBalance(employeeId, year, type).getApprovedDays();
             ApiResponse response = new ApiResponse(true, "Total leave days retrieved successfully", totalDays);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -517,6 +645,24 @@ public class LeaveRequestController {
         }
     }
 
+    // Get leave balances by employee and year: allowance, approved, pending and remaining days per type
+    @GetMapping("/employee/{employeeId}/balance")
+    public ResponseEntity<ApiResponse> getLeaveBalance(
+            @PathVariable String employeeId,
+            @RequestParam int year,
+            @RequestParam(required = false) LeaveRequestType type) {
+        try {
+            Object balances = type != null
+                ? leaveBalanceService.getBalance(employeeId, year, type)
+                : leaveBalanceService.getBalances(employeeId, year);
+            ApiResponse response = new ApiResponse(true, "Leave balance retrieved successfully", balances);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse response = new ApiResponse(false, "Error retrieving leave balance: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     // Get leave request count
     @GetMapping("/count")
     public ResponseEntity<ApiResponse> getLeaveRequestCount() {
@@ -560,9 +706,7 @@ public class LeaveRequestController {
     @GetMapping("/deleted")
     public ResponseEntity<ApiResponse> getDeletedLeaveRequests() {
         try {
-            List<LeaveRequest> deletedLeaveRequests = leaveRequestRepository.findAll().stream()
-                .filter(LeaveRequest::isDeleted)
-                .toList();
+            List<LeaveRequestRow> deletedLeaveRequests = leaveRequestRepository.findDeletedRows();
             ApiResponse response = new ApiResponse(true, "Deleted leave requests retrieved successfully", deletedLeaveRequests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -576,12 +720,16 @@ public class LeaveRequestController {
     public ResponseEntity<ApiResponse> bulkDeleteLeaveRequests(@RequestBody List<String> leaveRequestIds) {
         try {
             List<LeaveRequest> leaveRequests = leaveRequestRepository.findAllById(leaveRequestIds);
+            List<Usage> befores = leaveRequests.stream().map(Usage::of).toList();
             leaveRequests.forEach(leaveRequest -> leaveRequest.setDeleted(true));
-            leaveRequestRepository.saveAll(leaveRequests);
+            leaveCalendarIndex.updateAll(leaveBalanceService.saveAll(leaveRequests, befores));
             
             ApiResponse response = new ApiResponse(true, 
                 "Bulk delete completed. " + leaveRequests.size() + " leave requests deleted.", leaveRequests.size());
             return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            ApiResponse response = new ApiResponse(false, "Leave request was changed by someone else", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (Exception e) {
             ApiResponse response = new ApiResponse(false, "Error in bulk delete: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
@@ -2,12 +2,17 @@ package com.hrmanagement.hr_management_api.controller;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,13 +23,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+import com.hrmanagement.hr_management_api.util.QueryBudget;
 import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.dto.PayrollRow;
 import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.entity.PayrollJob;
+import com.hrmanagement.hr_management_api.model.entity.PayrollTotal;
 import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
 import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
 import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.service.NdjsonExportService;
+import com.hrmanagement.hr_management_api.service.PayrollJobWorker;
+import com.hrmanagement.hr_management_api.service.PayrollLedgerService;
+import com.hrmanagement.hr_management_api.service.PayrollRunService;
+import com.hrmanagement.hr_management_api.service.PayrollTransitionService;
+import com.hrmanagement.hr_management_api.service.PayrollTransitionService.TransitionConflictException;
 
 @RestController
 @RequestMapping("/api/payroll")
@@ -36,12 +53,34 @@ public class PayrollController {
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    // GET all payroll records
+    @Autowired
+    private NdjsonExportService ndjsonExportService;
+
+    @Autowired
+    private PayrollRunService payrollRunService;
+
+    @Autowired
+    private PayrollTransitionService payrollTransitionService;
+
+    @Autowired
+    private PayrollLedgerService payrollLedgerService;
+
+    @Autowired
+    private PayrollJobWorker payrollJobWorker;
+
+    // GET all payroll records, one keyset page at a time
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllPayrolls() {
+    public ResponseEntity<ApiResponse> getAllPayrolls(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByIsDeletedFalse();
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll records retrieved successfully", payrolls));
+            Window<PayrollRow> payrolls = payrollRepository.findRows(
+                    KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+            return ResponseEntity.ok(new ApiResponse(true, "Payroll records retrieved successfully",
+                    payrolls.getContent(), KeysetCursor.next(payrolls)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, "Invalid cursor", null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error retrieving payroll records: " + e.getMessage(), null));
@@ -65,11 +104,28 @@ public class PayrollController {
         }
     }
 
+    // GET the processing job of a payroll: attempts, next run and the last error
+    @GetMapping("/{id}/job")
+    public ResponseEntity<ApiResponse> getPayrollJob(@PathVariable String id) {
+        try {
+            Optional<PayrollJob> job = payrollJobWorker.getJob(id);
+            if (job.isPresent()) {
+                return ResponseEntity.ok(new ApiResponse(true, "Payroll job retrieved successfully", job.get()));
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse(false, "Payroll job not found", null));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error retrieving payroll job: " + e.getMessage(), null));
+        }
+    }
+
     // GET payroll records by employee ID
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<ApiResponse> getPayrollsByEmployeeId(@PathVariable String employeeId) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByEmployeeIdAndIsDeletedFalse(employeeId);
+            List<PayrollRow> payrolls = payrollRepository.findByEmployeeIdAndIsDeletedFalse(employeeId);
             return ResponseEntity.ok(new ApiResponse(true, "Employee payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -81,7 +137,7 @@ public class PayrollController {
     @GetMapping("/status/{status}")
     public ResponseEntity<ApiResponse> getPayrollsByStatus(@PathVariable PayrollStatus status) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByPayrollStatusAndIsDeletedFalse(status);
+            List<PayrollRow> payrolls = payrollRepository.findByPayrollStatusAndIsDeletedFalse(status);
             return ResponseEntity.ok(new ApiResponse(true, "Payroll records retrieved by status successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -93,7 +149,7 @@ public class PayrollController {
     @GetMapping("/pending")
     public ResponseEntity<ApiResponse> getPendingPayrolls() {
         try {
-            List<Payroll> payrolls = payrollRepository.findPendingPayrolls();
+            List<PayrollRow> payrolls = payrollRepository.findPendingPayrolls();
             return ResponseEntity.ok(new ApiResponse(true, "Pending payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -105,7 +161,7 @@ public class PayrollController {
     @GetMapping("/approved")
     public ResponseEntity<ApiResponse> getApprovedPayrolls() {
         try {
-            List<Payroll> payrolls = payrollRepository.findApprovedPayrolls();
+            List<PayrollRow> payrolls = payrollRepository.findApprovedPayrolls();
             return ResponseEntity.ok(new ApiResponse(true, "Approved payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -117,7 +173,7 @@ public class PayrollController {
     @GetMapping("/completed")
     public ResponseEntity<ApiResponse> getCompletedPayrolls() {
         try {
-            List<Payroll> payrolls = payrollRepository.findCompletedPayrolls();
+            List<PayrollRow> payrolls = payrollRepository.findCompletedPayrolls();
             return ResponseEntity.ok(new ApiResponse(true, "Completed payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -129,7 +185,7 @@ public class PayrollController {
     @GetMapping("/draft")
     public ResponseEntity<ApiResponse> getDraftPayrolls() {
         try {
-            List<Payroll> payrolls = payrollRepository.findDraftPayrolls();
+            List<PayrollRow> payrolls = payrollRepository.findDraftPayrolls();
             return ResponseEntity.ok(new ApiResponse(true, "Draft payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -141,7 +197,7 @@ public class PayrollController {
     @GetMapping("/failed")
     public ResponseEntity<ApiResponse> getFailedPayrolls() {
         try {
-            List<Payroll> payrolls = payrollRepository.findFailedPayrolls();
+            List<PayrollRow> payrolls = payrollRepository.findFailedPayrolls();
             return ResponseEntity.ok(new ApiResponse(true, "Failed payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -154,7 +210,7 @@ public class PayrollController {
     public ResponseEntity<ApiResponse> getOverduePayrolls() {
         try {
             LocalDate cutoffDate = LocalDate.now().minusDays(30);
-            List<Payroll> payrolls = payrollRepository.findOverduePayrolls(cutoffDate);
+            List<PayrollRow> payrolls = payrollRepository.findOverduePayrolls(cutoffDate);
             return ResponseEntity.ok(new ApiResponse(true, "Overdue payroll records retrieved successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -168,7 +224,7 @@ public class PayrollController {
             @RequestParam LocalDate startDate, 
             @RequestParam LocalDate endDate) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByPayPeriodStartBetweenAndIsDeletedFalse(startDate, endDate);
+            List<PayrollRow> payrolls = payrollRepository.findByPayPeriodStartBetweenAndIsDeletedFalse(startDate, endDate);
             return ResponseEntity.ok(new ApiResponse(true, "Payroll records retrieved by date range successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -183,7 +239,7 @@ public class PayrollController {
             @RequestParam LocalDate startDate, 
             @RequestParam LocalDate endDate) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByEmployeeIdAndPayPeriodStartBetweenAndIsDeletedFalse(employeeId, startDate, endDate);
+            List<PayrollRow> payrolls = payrollRepository.findByEmployeeIdAndPayPeriodStartBetweenAndIsDeletedFalse(employeeId, startDate, endDate);
             return ResponseEntity.ok(new ApiResponse(true, "Employee payroll records retrieved by date range successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -195,7 +251,7 @@ public class PayrollController {
     @GetMapping("/year/{year}")
     public ResponseEntity<ApiResponse> getPayrollsByYear(@PathVariable int year) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByYear(year);
+            List<PayrollRow> payrolls = payrollRepository.findByYear(year);
             return ResponseEntity.ok(new ApiResponse(true, "Payroll records retrieved by year successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -203,13 +259,23 @@ public class PayrollController {
         }
     }
 
+    // GET payroll records by year as NDJSON, streamed row by row
+    @GetMapping(value = "/year/{year}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPayrollsByYear(@PathVariable int year) {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        StreamingResponseBody body = ndjsonExportService.export(
+                () -> payrollRepository.streamByPayPeriodStartBetweenAndIsDeletedFalse(startDate, endDate));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // GET payroll records by month and year
     @GetMapping("/month/{month}/year/{year}")
     public ResponseEntity<ApiResponse> getPayrollsByMonthAndYear(
             @PathVariable int month, 
             @PathVariable int year) {
         try {
-            List<Payroll> payrolls = payrollRepository.findByMonthAndYear(month, year);
+            List<PayrollRow> payrolls = payrollRepository.findByMonthAndYear(month, year);
             return ResponseEntity.ok(new ApiResponse(true, "Payroll records retrieved by month and year successfully", payrolls));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -229,11 +295,11 @@ public class PayrollController {
         }
     }
 
-    // GET total payroll amount by status
+    // GET total payroll amount by status, from the payroll_totals ledger
     @GetMapping("/total/status/{status}")
     public ResponseEntity<ApiResponse> getTotalPayrollAmountByStatus(@PathVariable PayrollStatus status) {
         try {
-            BigDecimal total = payrollRepository.getTotalPayrollAmountByStatus(status);
+            BigDecimal total = payrollLedgerService.getTotal(status).getTotalNetPay();
             return ResponseEntity.ok(new ApiResponse(true, "Total payroll amount retrieved by status successfully", total));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -241,11 +307,11 @@ public class PayrollController {
         }
     }
 
-    // GET total salary paid by employee
+    // GET total salary paid by employee, from the payroll_ytd ledger
     @GetMapping("/employee/{employeeId}/total-paid")
     public ResponseEntity<ApiResponse> getTotalSalaryPaidByEmployee(@PathVariable String employeeId) {
         try {
-            BigDecimal total = payrollRepository.getTotalSalaryPaidByEmployee(employeeId);
+            BigDecimal total = payrollLedgerService.getPaid(employeeId);
             return ResponseEntity.ok(new ApiResponse(true, "Total salary paid retrieved for employee successfully", total));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -253,13 +319,13 @@ public class PayrollController {
         }
     }
 
-    // GET total salary paid by employee and year
+    // GET total salary paid by employee and year, from the payroll_ytd ledger
     @GetMapping("/employee/{employeeId}/year/{year}/total-paid")
     public ResponseEntity<ApiResponse> getTotalSalaryPaidByEmployeeAndYear(
             @PathVariable String employeeId, 
             @PathVariable int year) {
         try {
-            BigDecimal total = payrollRepository.getTotalSalaryPaidByEmployeeAndYear(employeeId, year);
+            BigDecimal total = payrollLedgerService.getPaid(employeeId, year);
             return ResponseEntity.ok(new ApiResponse(true, "Total salary paid retrieved for employee and year successfully", total));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -267,6 +333,32 @@ public class PayrollController {
         }
     }
 
+    // GET payroll totals ledger row for a status (record count and net pay)
+    @GetMapping("/totals/status/{status}")
+    public ResponseEntity<ApiResponse> getPayrollTotalByStatus(@PathVariable PayrollStatus status) {
+        try {
+            PayrollTotal total = payrollLedgerService.getTotal(status);
+            return ResponseEntity.ok(new ApiResponse(true, "Payroll totals retrieved by status successfully", total));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error retrieving payroll totals by status: " + e.getMessage(), null));
+        }
+    }
+
+    // POST check the payroll ledgers against the raw sums, rebuilding them if they disagree
+    @PostMapping("/totals/reconcile")
+    public ResponseEntity<ApiResponse> reconcilePayrollTotals() {
+        try {
+            long mismatches = payrollLedgerService.reconcile();
+            String message = mismatches == 0 ? "Payroll totals match the payroll records"
+                    : "Payroll totals rebuilt, " + mismatches + " rows disagreed with the payroll records";
+            return ResponseEntity.ok(new ApiResponse(true, message, mismatches));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error reconciling payroll totals: " + e.getMessage(), null));
+        }
+    }
+
     // POST create new payroll record
     @PostMapping
     public ResponseEntity<ApiResponse> createPayroll(@RequestBody Payroll payroll) {
@@ -303,7 +395,7 @@ public class PayrollController {
 
             payroll.setDeleted(false);
             
-            Payroll savedPayroll = payrollRepository.save(payroll);
+            Payroll savedPayroll = payrollLedgerService.save(payroll, null);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(new ApiResponse(true, "Payroll record created successfully", savedPayroll));
         } catch (Exception e) {
@@ -323,6 +415,20 @@ public class PayrollController {
             }
 
             Payroll payroll = existingPayroll.get();
+            PayrollLedgerService.Entry before = PayrollLedgerService.Entry.of(payroll);
+
+            // A client sending back the version it read only updates that version
+            if (payrollDetails.getVersion() != null && !payrollDetails.getVersion().equals(payroll.getVersion())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ApiResponse(false, "Payroll record was changed by someone else", null));
+            }
+            // Status changes only go through the workflow endpoints: their conditional UPDATE is what stamps the
+            // processed and paid dates and queues the processing job in the same transaction
+            if (payrollDetails.getPayrollStatus() != null && payrollDetails.getPayrollStatus() != payroll.getPayrollStatus()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse(false, "Payroll status cannot be changed here; use the submit, approve, "
+                                + "reject, process, complete or fail endpoints", null));
+            }
             
             // Update fields
             if (payrollDetails.getEmployeeId() != null) {
@@ -358,9 +464,6 @@ public class PayrollController {
                 BigDecimal deductions = payroll.getDeductions() != null ? payroll.getDeductions() : BigDecimal.ZERO;
                 payroll.setNetPay(salary.add(bonus).subtract(deductions));
             }
-            if (payrollDetails.getPayrollStatus() != null) {
-                payroll.setPayrollStatus(payrollDetails.getPayrollStatus());
-            }
             if (payrollDetails.getProcessedDate() != null) {
                 payroll.setProcessedDate(payrollDetails.getProcessedDate());
             }
@@ -368,8 +471,11 @@ public class PayrollController {
                 payroll.setPaidDate(payrollDetails.getPaidDate());
             }
 
-            Payroll updatedPayroll = payrollRepository.save(payroll);
+            Payroll updatedPayroll = payrollLedgerService.save(payroll, before);
             return ResponseEntity.ok(new ApiResponse(true, "Payroll record updated successfully", updatedPayroll));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse(false, "Payroll record was changed by someone else", null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating payroll record: " + e.getMessage(), null));
@@ -378,165 +484,53 @@ public class PayrollController {
 
     // PUT approve payroll
     @PutMapping("/{id}/approve")
-    public ResponseEntity<ApiResponse> approvePayroll(@PathVariable String id) {
-        try {
-            Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-            if (!existingPayroll.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse(false, "Payroll record not found", null));
-            }
-
-            Payroll payroll = existingPayroll.get();
-            
-            if (payroll.getPayrollStatus() != PayrollStatus.PENDING) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse(false, "Only pending payroll records can be approved", null));
-            }
-
-            payroll.setPayrollStatus(PayrollStatus.APPROVED);
-            payroll.setProcessedDate(LocalDate.now());
-            
-            Payroll approvedPayroll = payrollRepository.save(payroll);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll record approved successfully", approvedPayroll));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error approving payroll record: " + e.getMessage(), null));
-        }
+    public ResponseEntity<ApiResponse> approvePayroll(@PathVariable String id, @RequestParam(required = false) Long version) {
+        return transition(id, PayrollStatus.APPROVED, version, "Payroll record approved successfully", "approving payroll record");
     }
 
     // PUT reject payroll
     @PutMapping("/{id}/reject")
-    public ResponseEntity<ApiResponse> rejectPayroll(@PathVariable String id) {
-        try {
-            Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-            if (!existingPayroll.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse(false, "Payroll record not found", null));
-            }
-
-            Payroll payroll = existingPayroll.get();
-            
-            if (payroll.getPayrollStatus() != PayrollStatus.PENDING) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse(false, "Only pending payroll records can be rejected", null));
-            }
-
-            payroll.setPayrollStatus(PayrollStatus.REJECTED);
-            
-            Payroll rejectedPayroll = payrollRepository.save(payroll);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll record rejected successfully", rejectedPayroll));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error rejecting payroll record: " + e.getMessage(), null));
-        }
+    public ResponseEntity<ApiResponse> rejectPayroll(@PathVariable String id, @RequestParam(required = false) Long version) {
+        return transition(id, PayrollStatus.REJECTED, version, "Payroll record rejected successfully", "rejecting payroll record");
     }
 
     // PUT submit payroll for approval
     @PutMapping("/{id}/submit")
-    public ResponseEntity<ApiResponse> submitPayroll(@PathVariable String id) {
-        try {
-            Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-            if (!existingPayroll.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse(false, "Payroll record not found", null));
-            }
-
-            Payroll payroll = existingPayroll.get();
-            
-            if (payroll.getPayrollStatus() != PayrollStatus.DRAFT) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse(false, "Only draft payroll records can be submitted", null));
-            }
-
-            payroll.setPayrollStatus(PayrollStatus.PENDING);
-            
-            Payroll submittedPayroll = payrollRepository.save(payroll);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll record submitted for approval successfully", submittedPayroll));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error submitting payroll record: " + e.getMessage(), null));
-        }
+    public ResponseEntity<ApiResponse> submitPayroll(@PathVariable String id, @RequestParam(required = false) Long version) {
+        return transition(id, PayrollStatus.PENDING, version, "Payroll record submitted for approval successfully", "submitting payroll record");
     }
 
-    // PUT process payroll
+    // PUT process payroll: moves it to PROCESSING and queues it for PayrollJobWorker, which completes or fails it
     @PutMapping("/{id}/process")
-    public ResponseEntity<ApiResponse> processPayroll(@PathVariable String id) {
-        try {
-            Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-            if (!existingPayroll.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse(false, "Payroll record not found", null));
-            }
-
-            Payroll payroll = existingPayroll.get();
-            
-            if (payroll.getPayrollStatus() != PayrollStatus.APPROVED) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse(false, "Only approved payroll records can be processed", null));
-            }
-
-            payroll.setPayrollStatus(PayrollStatus.PROCESSING);
-            
-            Payroll processingPayroll = payrollRepository.save(payroll);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll record is being processed", processingPayroll));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error processing payroll record: " + e.getMessage(), null));
-        }
+    public ResponseEntity<ApiResponse> processPayroll(@PathVariable String id, @RequestParam(required = false) Long version) {
+        return transition(id, PayrollStatus.PROCESSING, version, "Payroll record is being processed", "processing payroll record");
     }
 
     // PUT complete payroll
     @PutMapping("/{id}/complete")
-    public ResponseEntity<ApiResponse> completePayroll(@PathVariable String id) {
-        try {
-            Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-            if (!existingPayroll.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse(false, "Payroll record not found", null));
-            }
-
-            Payroll payroll = existingPayroll.get();
-            
-            if (payroll.getPayrollStatus() != PayrollStatus.PROCESSING) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse(false, "Only processing payroll records can be completed", null));
-            }
-
-            payroll.setPayrollStatus(PayrollStatus.COMPLETED);
-            payroll.setPaidDate(LocalDateTime.now());
-            
-            Payroll completedPayroll = payrollRepository.save(payroll);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll record completed successfully", completedPayroll));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error completing payroll record: " + e.getMessage(), null));
-        }
+    public ResponseEntity<ApiResponse> completePayroll(@PathVariable String id, @RequestParam(required = false) Long version) {
+        return transition(id, PayrollStatus.COMPLETED, version, "Payroll record completed successfully", "completing payroll record");
     }
 
     // PUT mark payroll as failed
     @PutMapping("/{id}/fail")
-    public ResponseEntity<ApiResponse> failPayroll(@PathVariable String id) {
-        try {
-            Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-            if (!existingPayroll.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse(false, "Payroll record not found", null));
-            }
-
-            Payroll payroll = existingPayroll.get();
-            
-            if (payroll.getPayrollStatus() != PayrollStatus.PROCESSING) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse(false, "Only processing payroll records can be marked as failed", null));
-            }
+    public ResponseEntity<ApiResponse> failPayroll(@PathVariable String id, @RequestParam(required = false) Long version) {
+        return transition(id, PayrollStatus.FAILED, version, "Payroll record marked as failed", "marking payroll record as failed");
+    }
 
-            payroll.setPayrollStatus(PayrollStatus.FAILED);
-            
-            Payroll failedPayroll = payrollRepository.save(payroll);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll record marked as failed", failedPayroll));
+    // One conditional UPDATE per transition; 409 when the payroll was not in a state to move (or not at version)
+    private ResponseEntity<ApiResponse> transition(String id, PayrollStatus to, Long version, String message, String action) {
+        try {
+            return payrollTransitionService.transition(id, to, version)
+                    .map(payroll -> ResponseEntity.ok(new ApiResponse(true, message, payroll)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(new ApiResponse(false, "Payroll record not found", null)));
+        } catch (TransitionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error marking payroll record as failed: " + e.getMessage(), null));
+                    .body(new ApiResponse(false, "Error " + action + ": " + e.getMessage(), null));
         }
     }
 
@@ -559,83 +553,46 @@ public class PayrollController {
                         .body(new ApiResponse(false, "Cannot delete completed or processing payroll records", null));
             }
 
+            PayrollLedgerService.Entry before = PayrollLedgerService.Entry.of(payroll);
             payroll.setDeleted(true);
-            payrollRepository.save(payroll);
+            payrollLedgerService.save(payroll, before);
             
             return ResponseEntity.ok(new ApiResponse(true, "Payroll record deleted successfully", "Payroll with ID " + id + " deleted"));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse(false, "Payroll record was changed by someone else", null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error deleting payroll record: " + e.getMessage(), null));
         }
     }
 
-    // POST bulk create payroll records for multiple employees
+    // POST bulk create payroll records for multiple employees; rejected rows are reported instead of failing the run
     @PostMapping("/bulk-create")
-    public ResponseEntity<ApiResponse> bulkCreatePayrolls(@RequestBody List<Payroll> payrolls) {
-        try {
-            List<Payroll> createdPayrolls = new java.util.ArrayList<>();
-            
-            for (Payroll payroll : payrolls) {
-                // Validate employee exists
-                Optional<Employee> employee = employeeRepository.findByIdAndIsDeletedFalse(payroll.getEmployeeId());
-                if (!employee.isPresent()) {
-                    continue; // Skip invalid employees
-                }
-
-                // Check for duplicate payroll
-                boolean exists = payrollRepository.existsByEmployeeIdAndPayPeriod(
-                        payroll.getEmployeeId(), 
-                        payroll.getPayPeriodStart(), 
-                        payroll.getPayPeriodEnd());
-                
-                if (exists) {
-                    continue; // Skip duplicates
-                }
-
-                // Set default values (don't set ID manually - let Hibernate generate it)
-                if (payroll.getPayrollStatus() == null) {
-                    payroll.setPayrollStatus(PayrollStatus.DRAFT);
-                }
-                if (payroll.getNetPay() == null) {
-                    // Calculate net pay
-                    BigDecimal salary = payroll.getSalary() != null ? payroll.getSalary() : BigDecimal.ZERO;
-                    BigDecimal bonus = payroll.getBonus() != null ? payroll.getBonus() : BigDecimal.ZERO;
-                    BigDecimal deductions = payroll.getDeductions() != null ? payroll.getDeductions() : BigDecimal.ZERO;
-                    payroll.setNetPay(salary.add(bonus).subtract(deductions));
-                }
-
-                payroll.setDeleted(false);
-                
-                createdPayrolls.add(payroll);
-            }
-            
-            List<Payroll> savedPayrolls = payrollRepository.saveAll(createdPayrolls);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(new ApiResponse(true, "Payroll records created successfully", savedPayrolls));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Error creating payroll records: " + e.getMessage(), null));
-        }
+    public CompletableFuture<ResponseEntity<ApiResponse>> bulkCreatePayrolls(@RequestBody List<Payroll> payrolls) {
+        return payrollRunService.run(payrolls).handle((report, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                HttpStatus status = cause instanceof RejectedExecutionException
+                        ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
+                return ResponseEntity.status(status)
+                        .body(new ApiResponse(false, "Error creating payroll records: " + cause.getMessage(), null));
+            }
+            String message = "Payroll run finished: " + report.created() + " created, " + report.failed() + " rejected";
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse(true, message, report));
+        });
     }
 
-    // PUT bulk approve payroll records
+    // PUT bulk approve payroll records: one UPDATE per slice of ids, only pending records move. The budget is one
+    // slice (up to InClause.MAX_SIZE ids): the UPDATE and the pending and approved ledger rows
     @PutMapping("/bulk-approve")
+    @QueryBudget(3)
     public ResponseEntity<ApiResponse> bulkApprovePayrolls(@RequestBody List<String> payrollIds) {
         try {
-            List<Payroll> approvedPayrolls = new java.util.ArrayList<>();
-            
-            for (String id : payrollIds) {
-                Optional<Payroll> existingPayroll = payrollRepository.findByIdAndIsDeletedFalse(id);
-                if (existingPayroll.isPresent() && existingPayroll.get().getPayrollStatus() == PayrollStatus.PENDING) {
-                    Payroll payroll = existingPayroll.get();
-                    payroll.setPayrollStatus(PayrollStatus.APPROVED);
-                    payroll.setProcessedDate(LocalDate.now());
-                    approvedPayrolls.add(payroll);
-                }
-            }
-            
-            List<Payroll> savedPayrolls = payrollRepository.saveAll(approvedPayrolls);
-            return ResponseEntity.ok(new ApiResponse(true, "Payroll records approved successfully", savedPayrolls));
+            List<String> approvedIds = payrollTransitionService.approveAll(payrollIds).stream().map(Payroll::getId).toList();
+
+            return ResponseEntity.ok(new ApiResponse(true,
+                    "Bulk approve completed. " + approvedIds.size() + " payroll records approved.", approvedIds));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error approving payroll records: " + e.getMessage(), null));
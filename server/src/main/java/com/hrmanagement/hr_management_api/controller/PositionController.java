@@ -3,36 +3,51 @@ package com.hrmanagement.hr_management_api.controller;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.hrmanagement.hr_management_api.model.entity.Position;
 import com.hrmanagement.hr_management_api.repository.PositionRepository;
+import com.hrmanagement.hr_management_api.service.ReferenceDataCache;
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
 
 @RestController
 @RequestMapping("/api/positions")
 public class PositionController {
 
     private final PositionRepository positionRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public PositionController(PositionRepository positionRepository) {
+    // Reads come from the reference data cache; writes go to the repository and then invalidate it
+    public PositionController(PositionRepository positionRepository, ReferenceDataCache referenceDataCache) {
         this.positionRepository = positionRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
-    // Get all positions (non-deleted)
+    // Get all positions (non-deleted), one keyset page at a time
     @GetMapping("/")
-    public ResponseEntity<ApiResponse> getAllPositions() {
-        List<Position> positions = positionRepository.findByIsDeletedFalse();
-        ApiResponse response = new ApiResponse(true, "Positions retrieved successfully", positions);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse> getAllPositions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Window<Position> positions = referenceDataCache.activePositions(
+                KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+            ApiResponse response = new ApiResponse(true, "Positions retrieved successfully",
+                positions.getContent(), KeysetCursor.next(positions));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, "Invalid cursor", null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get all positions including deleted
     @GetMapping("/all")
     public ResponseEntity<ApiResponse> getAllPositionsIncludingDeleted() {
-        List<Position> positions = positionRepository.findAll();
+        List<Position> positions = referenceDataCache.allPositions();
         ApiResponse response = new ApiResponse(true, "All positions retrieved successfully", positions);
         return ResponseEntity.ok(response);
     }
@@ -40,7 +55,7 @@ public class PositionController {
     // Get position by ID
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse> getPositionById(@PathVariable String id) {
-        Optional<Position> position = positionRepository.findByIdAndIsDeletedFalse(id);
+        Optional<Position> position = referenceDataCache.position(id);
         return position.map(pos -> {
             ApiResponse response = new ApiResponse(true, "Position retrieved successfully", pos);
             return ResponseEntity.ok(response);
@@ -57,6 +72,7 @@ public class PositionController {
             // Ensure the position is not marked as deleted when creating
             position.setDeleted(false);
             Position savedPosition = positionRepository.save(position);
+            referenceDataCache.invalidatePositions();
             ApiResponse response = new ApiResponse(true, "Position created successfully", savedPosition);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -75,6 +91,7 @@ public class PositionController {
                 position.setDepartmentId(positionDetails.getDepartmentId());
                 
                 Position updatedPosition = positionRepository.save(position);
+                referenceDataCache.invalidatePositions();
                 ApiResponse response = new ApiResponse(true, "Position updated successfully", updatedPosition);
                 return ResponseEntity.ok(response);
             } catch (Exception e) {
@@ -103,6 +120,7 @@ public class PositionController {
                 }
                 
                 Position updatedPosition = positionRepository.save(position);
+                referenceDataCache.invalidatePositions();
                 ApiResponse response = new ApiResponse(true, "Position updated successfully", updatedPosition);
                 return ResponseEntity.ok(response);
             } catch (Exception e) {
@@ -122,6 +140,7 @@ public class PositionController {
             try {
                 position.setDeleted(true);
                 positionRepository.save(position);
+                referenceDataCache.invalidatePositions();
                 ApiResponse response = new ApiResponse(true, "Position deleted successfully", null);
                 return ResponseEntity.ok(response);
             } catch (Exception e) {
@@ -140,6 +159,7 @@ public class PositionController {
         return positionRepository.findById(id).map(position -> {
             try {
                 positionRepository.delete(position);
+                referenceDataCache.invalidatePositions();
                 ApiResponse response = new ApiResponse(true, "Position permanently deleted", null);
                 return ResponseEntity.ok(response);
             } catch (Exception e) {
@@ -163,6 +183,7 @@ public class PositionController {
             try {
                 position.setDeleted(false);
                 Position restoredPosition = positionRepository.save(position);
+                referenceDataCache.invalidatePositions();
                 ApiResponse response = new ApiResponse(true, "Position restored successfully", restoredPosition);
                 return ResponseEntity.ok(response);
             } catch (Exception e) {
@@ -179,7 +200,10 @@ public class PositionController {
     @GetMapping("/search")
     public ResponseEntity<ApiResponse> searchPositions(@RequestParam String q) {
         try {
-            List<Position> positions = positionRepository.searchPositions(q);
+            List<Position> positions = referenceDataCache.activePositions().stream()
+                .filter(position -> ReferenceDataCache.containsIgnoreCase(position.getTitle(), q)
+                    || ReferenceDataCache.containsIgnoreCase(position.getDescription(), q))
+                .toList();
             ApiResponse response = new ApiResponse(true, "Search completed successfully", positions);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -192,7 +216,9 @@ public class PositionController {
     @GetMapping("/filter/title")
     public ResponseEntity<ApiResponse> filterByTitle(@RequestParam String title) {
         try {
-            List<Position> positions = positionRepository.findByTitleContainingIgnoreCaseAndIsDeletedFalse(title);
+            List<Position> positions = referenceDataCache.activePositions().stream()
+                .filter(position -> ReferenceDataCache.containsIgnoreCase(position.getTitle(), title))
+                .toList();
             ApiResponse response = new ApiResponse(true, "Positions filtered by title successfully", positions);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -221,6 +247,7 @@ public class PositionController {
             List<Position> positions = positionRepository.findAllById(positionIds);
             positions.forEach(position -> position.setDeleted(true));
             positionRepository.saveAll(positions);
+            referenceDataCache.invalidatePositions();
             
             ApiResponse response = new ApiResponse(true, 
                 "Bulk delete completed. " + positions.size() + " positions deleted.", positions.size());
@@ -235,7 +262,7 @@ public class PositionController {
     @GetMapping("/deleted")
     public ResponseEntity<ApiResponse> getDeletedPositions() {
         try {
-            List<Position> deletedPositions = positionRepository.findAll().stream()
+            List<Position> deletedPositions = referenceDataCache.allPositions().stream()
                 .filter(Position::isDeleted)
                 .toList();
             ApiResponse response = new ApiResponse(true, "Deleted positions retrieved successfully", deletedPositions);
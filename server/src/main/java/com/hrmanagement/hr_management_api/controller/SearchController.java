@@ -0,0 +1,39 @@
+package com.hrmanagement.hr_management_api.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hrmanagement.hr_management_api.service.SearchService;
+import com.hrmanagement.hr_management_api.service.SearchService.SearchResults;
+import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.QueryBudget;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Search employees, departments and positions at once; up to limit of each, best match first
+    @GetMapping
+    @QueryBudget(4)
+    public ResponseEntity<ApiResponse> search(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        try {
+            SearchResults results = searchService.search(q, limit);
+            return ResponseEntity.ok(new ApiResponse(true, "Search completed successfully", results));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error searching: " + e.getMessage(), null));
+        }
+    }
+}
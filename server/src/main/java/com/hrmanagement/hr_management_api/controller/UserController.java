@@ -3,6 +3,7 @@ package com.hrmanagement.hr_management_api.controller;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,27 +11,41 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 
+import com.hrmanagement.hr_management_api.model.dto.UserRow;
 import com.hrmanagement.hr_management_api.model.entity.User;
 import com.hrmanagement.hr_management_api.model.enums.UserRole;
 import com.hrmanagement.hr_management_api.repository.UserRepository;
+import com.hrmanagement.hr_management_api.service.TypeaheadIndex;
 import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserRepository userRepository;
+    private final TypeaheadIndex typeaheadIndex;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, TypeaheadIndex typeaheadIndex) {
         this.userRepository = userRepository;
+        this.typeaheadIndex = typeaheadIndex;
     }
 
-    // Get all users (non-deleted)
+    // Get all users (non-deleted), one keyset page at a time
     @GetMapping("/")
-    public ResponseEntity<ApiResponse> getAllUsers() {
-        List<User> users = userRepository.findByIsDeletedFalse();
-        ApiResponse response = new ApiResponse(true, "Users retrieved successfully", users);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Window<User> users = userRepository.findByIsDeletedFalse(
+                KeysetCursor.decode(cursor), KeysetCursor.SORT, KeysetCursor.limit(size));
+            ApiResponse response = new ApiResponse(true, "Users retrieved successfully",
+                users.getContent(), KeysetCursor.next(users));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse response = new ApiResponse(false, "Invalid cursor", null);
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get all users including deleted
@@ -283,11 +298,16 @@ public class UserController {
         }
     }
 
-    // Search users by username
+    // Search users by username, or by a part of it
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchUsers(@RequestParam String query) {
+    public ResponseEntity<ApiResponse> searchUsers(@RequestParam String query,
+                                                   @RequestParam(required = false) Integer limit) {
         try {
-            List<User> users = userRepository.findByUsernameContainingIgnoreCaseAndIsDeletedFalse(query);
+            // Prefix matches from the in-memory typeahead index; a substring scan when it has none
+            List<UserRow> users = typeaheadIndex.users(query, limit)
+                .filter(matches -> !matches.isEmpty())
+                .orElseGet(() -> userRepository.findByUsernameContainingIgnoreCaseAndIsDeletedFalse(query).stream()
+                    .map(UserRow::of).toList());
             ApiResponse response = new ApiResponse(true, "Users search completed successfully", users);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
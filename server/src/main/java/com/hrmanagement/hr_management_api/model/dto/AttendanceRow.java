@@ -0,0 +1,20 @@
+package com.hrmanagement.hr_management_api.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+
+// Read-only attendance row for list endpoints; serializes exactly like Attendance
+public record AttendanceRow(
+        String id,
+        String employeeId,
+        LocalDate date,
+        LocalDateTime clockIn,
+        LocalDateTime clockOut,
+        AttendanceStatus attendanceStatus,
+        String notes,
+        // Keyset position only, like BaseEntity.createdAt
+        @JsonIgnore LocalDateTime createdAt) {
+}
@@ -0,0 +1,39 @@
+package com.hrmanagement.hr_management_api.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.enums.EmployeeStatus;
+
+// Read-only employee row for list endpoints; serializes exactly like Employee
+public record EmployeeSummary(
+        String id,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber,
+        String address,
+        String departmentId,
+        String positionId,
+        LocalDate hireDate,
+        BigDecimal salary,
+        EmployeeStatus employeeStatus,
+        String profileImage,
+        // Keyset position only, like BaseEntity.createdAt
+        @JsonIgnore LocalDateTime createdAt) {
+
+    // Row for an entity that was just saved
+    public static EmployeeSummary of(Employee employee) {
+        return new EmployeeSummary(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getPhoneNumber(), employee.getAddress(), employee.getDepartmentId(), employee.getPositionId(),
+                employee.getHireDate(), employee.getSalary(), employee.getEmployeeStatus(), employee.getProfileImage(),
+                employee.getCreatedAt());
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
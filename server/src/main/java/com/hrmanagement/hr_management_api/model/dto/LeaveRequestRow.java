@@ -0,0 +1,35 @@
+package com.hrmanagement.hr_management_api.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestStatus;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
+
+// Read-only leave request row for list endpoints; serializes exactly like LeaveRequest
+public record LeaveRequestRow(
+        String id,
+        String employeeId,
+        LeaveRequestType leaveRequestType,
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer totalDays,
+        String reason,
+        LeaveRequestStatus leaveRequestStatus,
+        String approvedBy,
+        LocalDate requestDate,
+        LocalDate responseDate,
+        String comments,
+        // Keyset position only, like BaseEntity.createdAt
+        @JsonIgnore LocalDateTime createdAt) {
+
+    // Row for an entity that was just saved
+    public static LeaveRequestRow of(LeaveRequest leaveRequest) {
+        return new LeaveRequestRow(leaveRequest.getId(), leaveRequest.getEmployeeId(), leaveRequest.getLeaveRequestType(),
+                leaveRequest.getStartDate(), leaveRequest.getEndDate(), leaveRequest.getTotalDays(), leaveRequest.getReason(),
+                leaveRequest.getLeaveRequestStatus(), leaveRequest.getApprovedBy(), leaveRequest.getRequestDate(),
+                leaveRequest.getResponseDate(), leaveRequest.getComments(), leaveRequest.getCreatedAt());
+    }
+}
@@ -0,0 +1,25 @@
+package com.hrmanagement.hr_management_api.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+
+// Read-only payroll row for list endpoints; serializes exactly like Payroll
+public record PayrollRow(
+        String id,
+        String employeeId,
+        LocalDate payPeriodStart,
+        LocalDate payPeriodEnd,
+        BigDecimal salary,
+        BigDecimal bonus,
+        BigDecimal deductions,
+        BigDecimal netPay,
+        PayrollStatus payrollStatus,
+        LocalDate processedDate,
+        LocalDateTime paidDate,
+        // Keyset position only, like BaseEntity.createdAt
+        @JsonIgnore LocalDateTime createdAt) {
+}
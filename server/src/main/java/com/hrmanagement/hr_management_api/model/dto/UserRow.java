@@ -0,0 +1,17 @@
+package com.hrmanagement.hr_management_api.model.dto;
+
+import com.hrmanagement.hr_management_api.model.entity.User;
+import com.hrmanagement.hr_management_api.model.enums.UserRole;
+
+// Read-only user row for lookups; serializes exactly like User, and carries no password hash
+public record UserRow(
+        String id,
+        String username,
+        String employeeId,
+        UserRole userRole) {
+
+    // Row for an entity that was just saved
+    public static UserRow of(User user) {
+        return new UserRow(user.getId(), user.getUsername(), user.getEmployeeId(), user.getUserRole());
+    }
+}
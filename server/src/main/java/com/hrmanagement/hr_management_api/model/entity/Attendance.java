@@ -2,7 +2,6 @@ package com.hrmanagement.hr_management_api.model.entity;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
@@ -23,7 +22,8 @@ public class Attendance extends BaseEntity {
     @Column(name = "date", nullable = false)
     private LocalDate date;
 
-    @Column(name = "clock_in", nullable = false)
+    // Null on materialized ABSENT rows
+    @Column(name = "clock_in")
     private LocalDateTime clockIn;
 
     @Column(name = "clock_out")
@@ -36,6 +36,12 @@ public class Attendance extends BaseEntity {
     @Column(name = "notes")
     private String notes;
 
+    // Checked and bumped by every save, so a write whose before-snapshot went stale fails instead of
+    // moving the monthly summary by the wrong amount
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ManyToOne relationship with Employee
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", insertable = false, updatable = false)
@@ -106,6 +112,15 @@ public class Attendance extends BaseEntity {
         this.notes = notes;
     }
 
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @JsonIgnore
     public Employee getEmployee() {
         return employee;
@@ -115,18 +130,12 @@ public class Attendance extends BaseEntity {
         this.employee = employee;
     }
 
+    // Statuses are decided by ShiftRuleEngine; this only covers writes that neither set one nor went through it
     @PrePersist
     private void prePersist() {
-
-        // Present fot 09:00 AM or earlier
-        if (this.clockIn != null && this.clockIn.toLocalTime().isBefore(LocalDateTime.of(this.date, LocalTime.of(9, 0)).toLocalTime())) {
-            this.attendanceStatus = AttendanceStatus.PRESENT;
-        } else if (this.clockIn != null && this.clockIn.toLocalTime().isAfter(LocalDateTime.of(this.date, LocalTime.of(9, 0)).toLocalTime())) {
-            this.attendanceStatus = AttendanceStatus.LATE;
-        } else {
-            this.attendanceStatus = AttendanceStatus.ABSENT; // Default to ABSENT if clockIn is null
+        if (this.attendanceStatus == null) {
+            this.attendanceStatus = this.clockIn != null ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
         }
-
     }
 
 }
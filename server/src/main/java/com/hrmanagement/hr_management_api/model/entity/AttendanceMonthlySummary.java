@@ -0,0 +1,158 @@
+package com.hrmanagement.hr_management_api.model.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// Per-employee, per-month attendance totals; kept in step with attendances by AttendanceSummaryService
+@Entity
+@Table(name = "attendance_monthly_summary",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_attendance_monthly_summary_employee_month", columnNames = {"employee_id", "year", "month"})
+        })
+public class AttendanceMonthlySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+
+    @Column(name = "year", nullable = false)
+    private int year;
+
+    @Column(name = "month", nullable = false)
+    private int month;
+
+    @Column(name = "present_count", nullable = false)
+    private int presentCount;
+
+    @Column(name = "absent_count", nullable = false)
+    private int absentCount;
+
+    @Column(name = "late_count", nullable = false)
+    private int lateCount;
+
+    @Column(name = "half_day_count", nullable = false)
+    private int halfDayCount;
+
+    @Column(name = "overtime_count", nullable = false)
+    private int overtimeCount;
+
+    @Column(name = "work_from_home_count", nullable = false)
+    private int workFromHomeCount;
+
+    // Sum of whole minutes between clock-in and clock-out, for records that have clocked out
+    @Column(name = "worked_minutes", nullable = false)
+    private long workedMinutes;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AttendanceMonthlySummary() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public int getPresentCount() {
+        return presentCount;
+    }
+
+    public void setPresentCount(int presentCount) {
+        this.presentCount = presentCount;
+    }
+
+    public int getAbsentCount() {
+        return absentCount;
+    }
+
+    public void setAbsentCount(int absentCount) {
+        this.absentCount = absentCount;
+    }
+
+    public int getLateCount() {
+        return lateCount;
+    }
+
+    public void setLateCount(int lateCount) {
+        this.lateCount = lateCount;
+    }
+
+    public int getHalfDayCount() {
+        return halfDayCount;
+    }
+
+    public void setHalfDayCount(int halfDayCount) {
+        this.halfDayCount = halfDayCount;
+    }
+
+    public int getOvertimeCount() {
+        return overtimeCount;
+    }
+
+    public void setOvertimeCount(int overtimeCount) {
+        this.overtimeCount = overtimeCount;
+    }
+
+    public int getWorkFromHomeCount() {
+        return workFromHomeCount;
+    }
+
+    public void setWorkFromHomeCount(int workFromHomeCount) {
+        this.workFromHomeCount = workFromHomeCount;
+    }
+
+    public long getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public void setWorkedMinutes(long workedMinutes) {
+        this.workedMinutes = workedMinutes;
+    }
+
+    public BigDecimal getHoursWorked() {
+        return BigDecimal.valueOf(workedMinutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+}
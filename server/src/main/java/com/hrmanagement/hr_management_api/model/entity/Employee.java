@@ -7,6 +7,7 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hrmanagement.hr_management_api.model.enums.EmployeeStatus;
+import com.hrmanagement.hr_management_api.service.TypeaheadListener;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -15,6 +16,7 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@EntityListeners(TypeaheadListener.class)
 @Table(name = "employees")
 public class Employee extends BaseEntity {
     
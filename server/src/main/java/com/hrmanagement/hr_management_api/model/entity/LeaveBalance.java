@@ -0,0 +1,119 @@
+package com.hrmanagement.hr_management_api.model.entity;
+
+import java.time.LocalDateTime;
+
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
+
+import jakarta.persistence.*;
+
+// Per-employee, per-year, per-type leave days; kept in step with leave_requests by LeaveBalanceService
+@Entity
+@Table(name = "leave_balances",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_leave_balances_employee_year_type", columnNames = {"employee_id", "year", "leave_request_type"})
+        })
+public class LeaveBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+
+    @Column(name = "year", nullable = false)
+    private int year;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_request_type", nullable = false)
+    private LeaveRequestType leaveRequestType;
+
+    // Days of approved leave starting this year
+    @Column(name = "approved_days", nullable = false)
+    private int approvedDays;
+
+    // Days of pending leave starting this year, reserved against the allowance until approved or withdrawn
+    @Column(name = "pending_days", nullable = false)
+    private int pendingDays;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public LeaveBalance() {}
+
+    // Balance for a type nobody has taken leave of yet
+    public static LeaveBalance empty(String employeeId, int year, LeaveRequestType leaveRequestType) {
+        LeaveBalance balance = new LeaveBalance();
+        balance.setEmployeeId(employeeId);
+        balance.setYear(year);
+        balance.setLeaveRequestType(leaveRequestType);
+        return balance;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public LeaveRequestType getLeaveRequestType() {
+        return leaveRequestType;
+    }
+
+    public void setLeaveRequestType(LeaveRequestType leaveRequestType) {
+        this.leaveRequestType = leaveRequestType;
+    }
+
+    public int getApprovedDays() {
+        return approvedDays;
+    }
+
+    public void setApprovedDays(int approvedDays) {
+        this.approvedDays = approvedDays;
+    }
+
+    public int getPendingDays() {
+        return pendingDays;
+    }
+
+    public void setPendingDays(int pendingDays) {
+        this.pendingDays = pendingDays;
+    }
+
+    public int getAllowanceDays() {
+        return leaveRequestType.getMaxDaysPerYear();
+    }
+
+    // Allowance left for new requests: approved and pending days both count against it
+    public int getRemainingDays() {
+        return getAllowanceDays() - approvedDays - pendingDays;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+}
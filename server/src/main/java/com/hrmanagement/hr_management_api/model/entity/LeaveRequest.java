@@ -51,6 +51,12 @@ public class LeaveRequest extends BaseEntity {
     @Column(name = "comments", length = 500)
     private String comments;
 
+    // Checked and bumped by every save, so a write whose before-snapshot went stale fails instead of
+    // moving the leave balance by the wrong amount
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ManyToOne relationship with Employee
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", insertable = false, updatable = false)
@@ -170,6 +176,15 @@ public class LeaveRequest extends BaseEntity {
         this.comments = comments;
     }
 
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @JsonIgnore
     public Employee getEmployee() {
         return employee;
@@ -197,11 +212,13 @@ public class LeaveRequest extends BaseEntity {
             this.requestDate = LocalDate.now(); // Default to current date if not set
         }
 
-        // Total Days
-        if (this.startDate != null && this.endDate != null) {
-            this.totalDays = (int) (this.endDate.toEpochDay() - this.startDate.toEpochDay()) + 1; // Inclusive of start and end dates
-        } else {
-            this.totalDays = 0; // Default to 0 if dates are not set
+        // Total Days: working days are set by the controller from HolidayCalendar; calendar days only as a fallback
+        if (this.totalDays == null) {
+            if (this.startDate != null && this.endDate != null) {
+                this.totalDays = (int) (this.endDate.toEpochDay() - this.startDate.toEpochDay()) + 1; // Inclusive of start and end dates
+            } else {
+                this.totalDays = 0; // Default to 0 if dates are not set
+            }
         }
     }
     
@@ -48,6 +48,11 @@ public class Payroll extends BaseEntity {
     @Column(name = "paid_date")
     private LocalDateTime paidDate;
 
+    // Checked and bumped by every save and status transition; clients can send it back to make a transition conditional
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ManyToOne relationship with Employee
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", insertable = false, updatable = false)
@@ -154,6 +159,14 @@ public class Payroll extends BaseEntity {
         this.paidDate = paidDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @JsonIgnore
     public Employee getEmployee() {
         return employee;
@@ -0,0 +1,77 @@
+package com.hrmanagement.hr_management_api.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+
+import jakarta.persistence.*;
+
+// Live payrolls and their net pay for one status; kept in step with payrolls by PayrollLedgerService
+@Entity
+@Table(name = "payroll_totals",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_payroll_totals_status", columnNames = {"payroll_status"})
+        })
+public class PayrollTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payroll_status", nullable = false)
+    private PayrollStatus payrollStatus;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "total_net_pay", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalNetPay = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PayrollTotal() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public PayrollStatus getPayrollStatus() {
+        return payrollStatus;
+    }
+
+    public void setPayrollStatus(PayrollStatus payrollStatus) {
+        this.payrollStatus = payrollStatus;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public BigDecimal getTotalNetPay() {
+        return totalNetPay;
+    }
+
+    public void setTotalNetPay(BigDecimal totalNetPay) {
+        this.totalNetPay = totalNetPay;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hrmanagement.hr_management_api.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// Completed payrolls and their net pay for one employee and year (of the pay period start); kept in step with
+// payrolls by PayrollLedgerService
+@Entity
+@Table(name = "payroll_ytd",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_payroll_ytd_employee_year", columnNames = {"employee_id", "year"})
+        })
+public class PayrollYtd {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+
+    @Column(name = "year", nullable = false)
+    private int year;
+
+    @Column(name = "paid_count", nullable = false)
+    private long paidCount;
+
+    @Column(name = "paid_net_pay", nullable = false, precision = 19, scale = 2)
+    private BigDecimal paidNetPay = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PayrollYtd() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public long getPaidCount() {
+        return paidCount;
+    }
+
+    public void setPaidCount(long paidCount) {
+        this.paidCount = paidCount;
+    }
+
+    public BigDecimal getPaidNetPay() {
+        return paidNetPay;
+    }
+
+    public void setPaidNetPay(BigDecimal paidNetPay) {
+        this.paidNetPay = paidNetPay;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
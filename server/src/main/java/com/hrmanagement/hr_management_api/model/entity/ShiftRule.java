@@ -0,0 +1,97 @@
+package com.hrmanagement.hr_management_api.model.entity;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import jakarta.persistence.*;
+
+// A department's shift: clock-ins after shiftStart + lateGraceMinutes are LATE, days shorter than halfDayMinutes
+// are HALF_DAY and days of at least overtimeMinutes are OVERTIME
+@Entity
+@Table(name = "shift_rules")
+public class ShiftRule {
+
+    @Id
+    @Column(name = "department_id", nullable = false)
+    private String departmentId;
+
+    @Column(name = "shift_start", nullable = false)
+    private LocalTime shiftStart;
+
+    @Column(name = "late_grace_minutes", nullable = false)
+    private int lateGraceMinutes;
+
+    @Column(name = "half_day_minutes", nullable = false)
+    private int halfDayMinutes;
+
+    @Column(name = "overtime_minutes", nullable = false)
+    private int overtimeMinutes;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ShiftRule() {}
+
+    public ShiftRule(String departmentId, LocalTime shiftStart, int lateGraceMinutes, int halfDayMinutes, int overtimeMinutes) {
+        this.departmentId = departmentId;
+        this.shiftStart = shiftStart;
+        this.lateGraceMinutes = lateGraceMinutes;
+        this.halfDayMinutes = halfDayMinutes;
+        this.overtimeMinutes = overtimeMinutes;
+    }
+
+    public String getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(String departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public LocalTime getShiftStart() {
+        return shiftStart;
+    }
+
+    public void setShiftStart(LocalTime shiftStart) {
+        this.shiftStart = shiftStart;
+    }
+
+    public int getLateGraceMinutes() {
+        return lateGraceMinutes;
+    }
+
+    public void setLateGraceMinutes(int lateGraceMinutes) {
+        this.lateGraceMinutes = lateGraceMinutes;
+    }
+
+    public int getHalfDayMinutes() {
+        return halfDayMinutes;
+    }
+
+    public void setHalfDayMinutes(int halfDayMinutes) {
+        this.halfDayMinutes = halfDayMinutes;
+    }
+
+    public int getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    public void setOvertimeMinutes(int overtimeMinutes) {
+        this.overtimeMinutes = overtimeMinutes;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
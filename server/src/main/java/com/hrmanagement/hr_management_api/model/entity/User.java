@@ -2,10 +2,12 @@ package com.hrmanagement.hr_management_api.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hrmanagement.hr_management_api.model.enums.UserRole;
+import com.hrmanagement.hr_management_api.service.TypeaheadListener;
 
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(TypeaheadListener.class)
 @Table(name = "users")
 public class User extends BaseEntity {
 
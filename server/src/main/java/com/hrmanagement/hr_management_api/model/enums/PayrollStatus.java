@@ -1,5 +1,10 @@
 package com.hrmanagement.hr_management_api.model.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum PayrollStatus {
     DRAFT,
     PENDING,
@@ -7,5 +12,30 @@ public enum PayrollStatus {
     REJECTED,
     PROCESSING,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    // Allowed transitions; REJECTED, COMPLETED and FAILED are final
+    private static final Map<PayrollStatus, Set<PayrollStatus>> NEXT = new EnumMap<>(PayrollStatus.class);
+    private static final Map<PayrollStatus, Set<PayrollStatus>> PREVIOUS = new EnumMap<>(PayrollStatus.class);
+
+    static {
+        NEXT.put(DRAFT, EnumSet.of(PENDING));
+        NEXT.put(PENDING, EnumSet.of(APPROVED, REJECTED));
+        NEXT.put(APPROVED, EnumSet.of(PROCESSING));
+        NEXT.put(PROCESSING, EnumSet.of(COMPLETED, FAILED));
+        for (PayrollStatus status : values()) {
+            NEXT.putIfAbsent(status, EnumSet.noneOf(PayrollStatus.class));
+            PREVIOUS.put(status, EnumSet.noneOf(PayrollStatus.class));
+        }
+        NEXT.forEach((from, targets) -> targets.forEach(to -> PREVIOUS.get(to).add(from)));
+    }
+
+    public boolean canMoveTo(PayrollStatus next) {
+        return NEXT.get(this).contains(next);
+    }
+
+    // Statuses a payroll may be in to move to this one
+    public Set<PayrollStatus> sources() {
+        return PREVIOUS.get(this);
+    }
 }
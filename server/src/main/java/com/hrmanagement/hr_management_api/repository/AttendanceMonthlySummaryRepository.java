@@ -0,0 +1,139 @@
+package com.hrmanagement.hr_management_api.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hrmanagement.hr_management_api.model.entity.AttendanceMonthlySummary;
+
+public interface AttendanceMonthlySummaryRepository extends JpaRepository<AttendanceMonthlySummary, String> {
+
+    // Aggregated columns shared by the rebuild statements; minutes are truncated per row like Duration.toMinutes()
+    String AGGREGATE_COLUMNS =
+            "COUNT(*) FILTER (WHERE a.attendance_status = 'PRESENT'), " +
+            "COUNT(*) FILTER (WHERE a.attendance_status = 'ABSENT'), " +
+            "COUNT(*) FILTER (WHERE a.attendance_status = 'LATE'), " +
+            "COUNT(*) FILTER (WHERE a.attendance_status = 'HALF_DAY'), " +
+            "COUNT(*) FILTER (WHERE a.attendance_status = 'OVERTIME'), " +
+            "COUNT(*) FILTER (WHERE a.attendance_status = 'WORK_FROM_HOME'), " +
+            "COALESCE(SUM(FLOOR(EXTRACT(EPOCH FROM (a.clock_out - a.clock_in)) / 60)) " +
+            "FILTER (WHERE a.clock_out > a.clock_in), 0), " +
+            "now() ";
+
+    String INSERT_COLUMNS =
+            "INSERT INTO attendance_monthly_summary (id, employee_id, year, month, present_count, absent_count, late_count, " +
+            "half_day_count, overtime_count, work_from_home_count, worked_minutes, updated_at) ";
+
+    // Adds the inserted row's counts to an existing row for the same employee-month
+    String ADD_ON_CONFLICT =
+            "ON CONFLICT (employee_id, year, month) DO UPDATE SET " +
+            "present_count = attendance_monthly_summary.present_count + EXCLUDED.present_count, " +
+            "absent_count = attendance_monthly_summary.absent_count + EXCLUDED.absent_count, " +
+            "late_count = attendance_monthly_summary.late_count + EXCLUDED.late_count, " +
+            "half_day_count = attendance_monthly_summary.half_day_count + EXCLUDED.half_day_count, " +
+            "overtime_count = attendance_monthly_summary.overtime_count + EXCLUDED.overtime_count, " +
+            "work_from_home_count = attendance_monthly_summary.work_from_home_count + EXCLUDED.work_from_home_count, " +
+            "worked_minutes = attendance_monthly_summary.worked_minutes + EXCLUDED.worked_minutes, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    // Find every employee's summary for a month
+    List<AttendanceMonthlySummary> findByYearAndMonthOrderByEmployeeId(int year, int month);
+
+    // Find one employee's summary for a month
+    Optional<AttendanceMonthlySummary> findByEmployeeIdAndYearAndMonth(String employeeId, int year, int month);
+
+    // Add signed deltas to an employee's month, creating the row on first use
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "VALUES (:id, :employeeId, :year, :month, :present, :absent, :late, :halfDay, :overtime, :workFromHome, " +
+                   ":workedMinutes, :updatedAt) " +
+                   ADD_ON_CONFLICT, nativeQuery = true)
+    int applyDelta(@Param("id") String id,
+                   @Param("employeeId") String employeeId,
+                   @Param("year") int year,
+                   @Param("month") int month,
+                   @Param("present") int present,
+                   @Param("absent") int absent,
+                   @Param("late") int late,
+                   @Param("halfDay") int halfDay,
+                   @Param("overtime") int overtime,
+                   @Param("workFromHome") int workFromHome,
+                   @Param("workedMinutes") long workedMinutes,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    // applyDelta for many employee-months in one statement. The arrays run in parallel, one element per
+    // employee-month, and must not name the same one twice (an upsert cannot touch a row twice).
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), d.employee_id, d.year, d.month, d.present, d.absent, d.late, " +
+                   "d.half_day, d.overtime, d.work_from_home, d.worked_minutes, :updatedAt " +
+                   "FROM unnest(CAST(:employeeIds AS text[]), CAST(:years AS integer[]), CAST(:months AS integer[]), " +
+                   "CAST(:present AS integer[]), CAST(:absent AS integer[]), CAST(:late AS integer[]), " +
+                   "CAST(:halfDay AS integer[]), CAST(:overtime AS integer[]), CAST(:workFromHome AS integer[]), " +
+                   "CAST(:workedMinutes AS bigint[])) " +
+                   "AS d(employee_id, year, month, present, absent, late, half_day, overtime, work_from_home, worked_minutes) " +
+                   ADD_ON_CONFLICT, nativeQuery = true)
+    int applyDeltas(@Param("employeeIds") String[] employeeIds,
+                    @Param("years") Integer[] years,
+                    @Param("months") Integer[] months,
+                    @Param("present") Integer[] present,
+                    @Param("absent") Integer[] absent,
+                    @Param("late") Integer[] late,
+                    @Param("halfDay") Integer[] halfDay,
+                    @Param("overtime") Integer[] overtime,
+                    @Param("workFromHome") Integer[] workFromHome,
+                    @Param("workedMinutes") Long[] workedMinutes,
+                    @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Taken first by a rebuild, so its delete and insert run with no delta in between. Every delta writes this table
+    // in the transaction of the attendance write it stands for (ROW EXCLUSIVE, which EXCLUSIVE waits for and blocks),
+    // so a rebuild either starts after that write has committed and counts it, or holds off its delta until the
+    // rebuilt rows are in and the delta adds to them. Plain reads are not blocked.
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "LOCK TABLE attendance_monthly_summary IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Drop one month's summaries ahead of a rebuild
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM attendance_monthly_summary WHERE year = :year AND month = :month", nativeQuery = true)
+    int deleteMonth(@Param("year") int year, @Param("month") int month);
+
+    // Recompute one month from non-deleted attendances in [from, to)
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), a.employee_id, :year, :month, " + AGGREGATE_COLUMNS +
+                   "FROM attendances a WHERE a.is_deleted = false AND a.date >= :from AND a.date < :to " +
+                   "GROUP BY a.employee_id", nativeQuery = true)
+    int rebuildMonth(@Param("year") int year, @Param("month") int month,
+                     @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Drop every summary ahead of a full rebuild
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM attendance_monthly_summary", nativeQuery = true)
+    int deleteAllSummaries();
+
+    // Recompute every month from non-deleted attendances
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), a.employee_id, " +
+                   "CAST(EXTRACT(YEAR FROM a.date) AS integer), CAST(EXTRACT(MONTH FROM a.date) AS integer), " + AGGREGATE_COLUMNS +
+                   "FROM attendances a WHERE a.is_deleted = false " +
+                   "GROUP BY a.employee_id, EXTRACT(YEAR FROM a.date), EXTRACT(MONTH FROM a.date)", nativeQuery = true)
+    int rebuildAll();
+
+}
@@ -1,41 +1,110 @@
 package com.hrmanagement.hr_management_api.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.hrmanagement.hr_management_api.model.dto.AttendanceRow;
 import com.hrmanagement.hr_management_api.model.entity.Attendance;
 import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+
+import jakarta.persistence.QueryHint;
 
 public interface AttendanceRepository extends JpaRepository<Attendance, String> {
 
+    // Read-only rows for list endpoints: a constructor expression, so nothing is attached to the persistence context
+    String ROW = "SELECT new com.hrmanagement.hr_management_api.model.dto.AttendanceRow(" +
+                 "a.id, a.employeeId, a.date, a.clockIn, a.clockOut, a.attendanceStatus, a.notes, a.createdAt) " +
+                 "FROM Attendance a ";
+
     // Find all non-deleted attendance records
     List<Attendance> findByIsDeletedFalse();
+
+    // First keyset page of non-deleted attendance rows, ordered by (createdAt, id)
+    @Query(ROW + "WHERE a.isDeleted = false ORDER BY a.createdAt, a.id")
+    List<AttendanceRow> findFirstRows(Limit limit);
+
+    // Keyset page of non-deleted attendance rows after (createdAt, id)
+    @Query(ROW + "WHERE a.isDeleted = false " +
+           "AND (a.createdAt > :createdAt OR (a.createdAt = :createdAt AND a.id > :id)) " +
+           "ORDER BY a.createdAt, a.id")
+    List<AttendanceRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+    // Keyset page of non-deleted attendance rows, ordered by (createdAt, id)
+    default Window<AttendanceRow> findRows(ScrollPosition position, Limit limit) {
+        KeysetCursor.Key after = KeysetCursor.after(position);
+        Limit probe = Limit.of(limit.max() + 1);
+        List<AttendanceRow> rows = after == null ? findFirstRows(probe) : findRowsAfter(after.createdAt(), after.id(), probe);
+        return KeysetCursor.window(rows, limit, AttendanceRow::createdAt, AttendanceRow::id);
+    }
+
+    // All attendance rows, deleted ones included
+    @Query(ROW)
+    List<AttendanceRow> findAllRows();
+
+    // Deleted attendance rows
+    @Query(ROW + "WHERE a.isDeleted = true")
+    List<AttendanceRow> findDeletedRows();
     
     // Find by ID and not deleted
     Optional<Attendance> findByIdAndIsDeletedFalse(String id);
 
     // Find attendance by employee ID (non-deleted)
-    List<Attendance> findByEmployeeIdAndIsDeletedFalse(String employeeId);
+    List<AttendanceRow> findByEmployeeIdAndIsDeletedFalse(String employeeId);
 
     // Find attendance by date (non-deleted)
-    List<Attendance> findByDateAndIsDeletedFalse(LocalDate date);
+    List<AttendanceRow> findByDateAndIsDeletedFalse(LocalDate date);
 
     // Find attendance by employee and date (non-deleted)
     Optional<Attendance> findByEmployeeIdAndDateAndIsDeletedFalse(String employeeId, LocalDate date);
 
+    // Insert clock-ins in a single statement, skipping employees who already have a live record on that date;
+    // returns the rows actually inserted. The arrays run in parallel, one element per clock-in, and each row carries
+    // its own date, so a batch may span midnight. Relies on uq_attendances_employee_date_active and bypasses
+    // @PrePersist, so callers supply the ids and statuses.
+    @Transactional
+    @Query(value = "INSERT INTO attendances (id, employee_id, date, clock_in, attendance_status, is_deleted, created_at, updated_at) " +
+                   "SELECT c.id, c.employee_id, c.date, c.clock_in, c.status, false, c.clock_in, c.clock_in " +
+                   "FROM unnest(CAST(:ids AS text[]), CAST(:employeeIds AS text[]), CAST(:dates AS date[]), " +
+                   "CAST(:clockIns AS timestamp[]), CAST(:statuses AS text[])) AS c(id, employee_id, date, clock_in, status) " +
+                   "ON CONFLICT (employee_id, date) WHERE is_deleted = false DO NOTHING " +
+                   "RETURNING *", nativeQuery = true)
+    List<Attendance> insertClockInsIfAbsent(@Param("ids") String[] ids,
+                                            @Param("employeeIds") String[] employeeIds,
+                                            @Param("dates") LocalDate[] dates,
+                                            @Param("clockIns") LocalDateTime[] clockIns,
+                                            @Param("statuses") String[] statuses);
+
     // Find attendance by date range (non-deleted)
-    List<Attendance> findByDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
+    List<AttendanceRow> findByDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
+
+    // Stream attendance by date range (non-deleted) for NDJSON export; caller must hold a transaction
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Attendance> streamByDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
 
     // Find attendance by employee and date range (non-deleted)
-    List<Attendance> findByEmployeeIdAndDateBetweenAndIsDeletedFalse(String employeeId, LocalDate startDate, LocalDate endDate);
+    List<AttendanceRow> findByEmployeeIdAndDateBetweenAndIsDeletedFalse(String employeeId, LocalDate startDate, LocalDate endDate);
 
     // Find attendance by status (non-deleted)
-    List<Attendance> findByAttendanceStatusAndIsDeletedFalse(AttendanceStatus status);
+    List<AttendanceRow> findByAttendanceStatusAndIsDeletedFalse(AttendanceStatus status);
 
     // Find attendance by employee and status (non-deleted)
     List<Attendance> findByEmployeeIdAndAttendanceStatusAndIsDeletedFalse(String employeeId, AttendanceStatus status);
@@ -66,26 +135,112 @@ public interface AttendanceRepository extends JpaRepository<Attendance, String>
                                                            @Param("status") AttendanceStatus status);
 
     // Find late arrivals
-    @Query("SELECT a FROM Attendance a WHERE a.attendanceStatus = 'LATE' AND a.isDeleted = false")
-    List<Attendance> findLateArrivals();
+    @Query(ROW + "WHERE a.attendanceStatus = 'LATE' AND a.isDeleted = false")
+    List<AttendanceRow> findLateArrivals();
 
     // Find overtime records
-    @Query("SELECT a FROM Attendance a WHERE a.attendanceStatus = 'OVERTIME' AND a.isDeleted = false")
-    List<Attendance> findOvertimeRecords();
+    @Query(ROW + "WHERE a.attendanceStatus = 'OVERTIME' AND a.isDeleted = false")
+    List<AttendanceRow> findOvertimeRecords();
 
     // Find work from home records
-    @Query("SELECT a FROM Attendance a WHERE a.attendanceStatus = 'WORK_FROM_HOME' AND a.isDeleted = false")
-    List<Attendance> findWorkFromHomeRecords();
+    @Query(ROW + "WHERE a.attendanceStatus = 'WORK_FROM_HOME' AND a.isDeleted = false")
+    List<AttendanceRow> findWorkFromHomeRecords();
+
+    // Write ABSENT rows for one partition of the active employees who were hired by :date, have no live attendance that
+    // day and no approved leave covering it, and count them into the monthly summary in the same statement.
+    // Returns the number of employees marked absent; repeating it for the same day writes nothing.
+    @Modifying
+    @Transactional
+    @Query(value = "WITH absent AS (" +
+                   "INSERT INTO attendances (id, employee_id, date, attendance_status, is_deleted, created_at, updated_at) " +
+                   "SELECT CAST(gen_random_uuid() AS text), e.id, :date, 'ABSENT', false, :now, :now " +
+                   "FROM employees e " +
+                   "WHERE e.employee_status = 'ACTIVE' AND e.is_deleted = false AND e.hire_date <= :date " +
+                   "AND (hashtext(e.id) & 2147483647) % :partitions = :partition " +
+                   "AND NOT EXISTS (SELECT 1 FROM leave_requests lr WHERE lr.employee_id = e.id " +
+                   "AND lr.leave_request_status = 'APPROVED' AND lr.is_deleted = false " +
+                   "AND lr.start_date <= :date AND lr.end_date >= :date) " +
+                   "ON CONFLICT (employee_id, date) WHERE is_deleted = false DO NOTHING " +
+                   "RETURNING employee_id) " +
+                   AttendanceMonthlySummaryRepository.INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), employee_id, :year, :month, 0, 1, 0, 0, 0, 0, 0, :now FROM absent " +
+                   "ON CONFLICT (employee_id, year, month) DO UPDATE SET " +
+                   "absent_count = attendance_monthly_summary.absent_count + EXCLUDED.absent_count, " +
+                   "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int materializeAbsences(@Param("date") LocalDate date,
+                            @Param("year") int year,
+                            @Param("month") int month,
+                            @Param("partitions") int partitions,
+                            @Param("partition") int partition,
+                            @Param("now") LocalDateTime now);
+
+    // Absences in the half-open range [from, to) (non-deleted), served by idx_attendances_absent_date_active
+    @Query(ROW + "WHERE a.attendanceStatus = 'ABSENT' AND a.date >= :from AND a.date < :to AND a.isDeleted = false " +
+           "ORDER BY a.date, a.employeeId")
+    List<AttendanceRow> findAbsencesFromUntil(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Minutes between clock-in and clock-out, rounded down
+    String WORKED_MINUTES = "FLOOR(EXTRACT(EPOCH FROM (a.clock_out - a.clock_in)) / 60)";
+
+    // Status under one shift rule; the same decision as ShiftRuleEngine.Compiled.classify
+    String CLASSIFIED_STATUS = "CASE " +
+            "WHEN a.clock_out IS NOT NULL AND " + WORKED_MINUTES + " >= :overtimeMinutes THEN 'OVERTIME' " +
+            "WHEN a.clock_out IS NOT NULL AND " + WORKED_MINUTES + " < :halfDayMinutes THEN 'HALF_DAY' " +
+            "WHEN EXTRACT(HOUR FROM a.clock_in) * 60 + EXTRACT(MINUTE FROM a.clock_in) > :lateAfterMinute THEN 'LATE' " +
+            "ELSE 'PRESENT' END";
+
+    // Live rows on or after :from whose status the rules decide and would change; ABSENT and WORK_FROM_HOME are left alone
+    String RECLASSIFIABLE = "a.is_deleted = false AND a.date >= :from AND a.clock_in IS NOT NULL " +
+            "AND a.attendance_status IN ('PRESENT', 'LATE', 'HALF_DAY', 'OVERTIME') " +
+            "AND a.attendance_status <> " + CLASSIFIED_STATUS;
+
+    // Re-apply one department's rule to the attendance of its current employees from :from on; returns the rows changed
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE attendances a SET attendance_status = " + CLASSIFIED_STATUS + ", version = a.version + 1, updated_at = :now " +
+                   "FROM employees e WHERE e.id = a.employee_id AND e.department_id = :departmentId AND " + RECLASSIFIABLE,
+           nativeQuery = true)
+    int reclassifyDepartment(@Param("departmentId") String departmentId,
+                             @Param("from") LocalDate from,
+                             @Param("lateAfterMinute") int lateAfterMinute,
+                             @Param("halfDayMinutes") int halfDayMinutes,
+                             @Param("overtimeMinutes") int overtimeMinutes,
+                             @Param("now") LocalDateTime now);
+
+    // Re-apply the default rule to employees of departments without a shift rule (or without a department)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE attendances a SET attendance_status = " + CLASSIFIED_STATUS + ", version = a.version + 1, updated_at = :now " +
+                   "FROM employees e WHERE e.id = a.employee_id " +
+                   "AND NOT EXISTS (SELECT 1 FROM shift_rules r WHERE r.department_id = e.department_id) AND " + RECLASSIFIABLE,
+           nativeQuery = true)
+    int reclassifyDefault(@Param("from") LocalDate from,
+                          @Param("lateAfterMinute") int lateAfterMinute,
+                          @Param("halfDayMinutes") int halfDayMinutes,
+                          @Param("overtimeMinutes") int overtimeMinutes,
+                          @Param("now") LocalDateTime now);
+
+    // Attendance in the half-open range [from, to) (non-deleted); a plain range on date so the index can serve it
+    @Query(ROW + "WHERE a.date >= :from AND a.date < :to AND a.isDeleted = false")
+    List<AttendanceRow> findByDateFromUntil(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Employee attendance in the half-open range [from, to) (non-deleted)
+    @Query(ROW + "WHERE a.employeeId = :employeeId " +
+           "AND a.date >= :from AND a.date < :to AND a.isDeleted = false")
+    List<AttendanceRow> findByEmployeeIdAndDateFromUntil(@Param("employeeId") String employeeId,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
 
     // Monthly attendance report
-    @Query("SELECT a FROM Attendance a WHERE YEAR(a.date) = :year AND MONTH(a.date) = :month AND a.isDeleted = false")
-    List<Attendance> findMonthlyAttendance(@Param("year") int year, @Param("month") int month);
+    default List<AttendanceRow> findMonthlyAttendance(int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        return findByDateFromUntil(period.atDay(1), period.plusMonths(1).atDay(1));
+    }
 
     // Employee monthly attendance report
-    @Query("SELECT a FROM Attendance a WHERE a.employeeId = :employeeId " +
-           "AND YEAR(a.date) = :year AND MONTH(a.date) = :month AND a.isDeleted = false")
-    List<Attendance> findEmployeeMonthlyAttendance(@Param("employeeId") String employeeId,
-                                                   @Param("year") int year,
-                                                   @Param("month") int month);
+    default List<AttendanceRow> findEmployeeMonthlyAttendance(String employeeId, int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        return findByEmployeeIdAndDateFromUntil(employeeId, period.atDay(1), period.plusMonths(1).atDay(1));
+    }
 
 }
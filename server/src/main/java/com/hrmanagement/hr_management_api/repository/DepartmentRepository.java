@@ -3,6 +3,10 @@ package com.hrmanagement.hr_management_api.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +17,9 @@ public interface DepartmentRepository extends JpaRepository<Department, String>
 
     // Find all non-deleted departments
     List<Department> findByIsDeletedFalse();
+
+    // Keyset page of non-deleted departments, ordered by (createdAt, id)
+    Window<Department> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
     
     // Find by ID and not deleted
     Optional<Department> findByIdAndIsDeletedFalse(String id);
@@ -58,9 +65,20 @@ public interface DepartmentRepository extends JpaRepository<Department, String>
     @Query("SELECT d FROM Department d WHERE d.managerId = :managerId AND d.isDeleted = false")
     List<Department> findByManagerIdAndIsDeletedFalse(@Param("managerId") String managerId);
 
-    // Search departments by name or description
-    @Query("SELECT d FROM Department d WHERE d.isDeleted = false AND " +
-           "(LOWER(d.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(d.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Department> searchDepartments(@Param("searchTerm") String searchTerm);
+    // The expression idx_departments_search_trgm indexes; SearchService lowercases the term to match
+    String SEARCH = "lower(coalesce(d.name, '') || ' ' || coalesce(d.description, ''))";
+
+    String RANKED = "SELECT d.id, word_similarity(:term, " + SEARCH + ") AS score FROM departments d " +
+                    "WHERE d.is_deleted = false AND ";
+
+    String BY_RANK = " ORDER BY score DESC, d.name, d.id LIMIT :limit";
+
+    // Best :limit non-deleted departments whose name or description matches LIKE :pattern or is word-similar to :term,
+    // as [id, score]
+    @Query(value = RANKED + "(" + SEARCH + " LIKE :pattern OR :term <% " + SEARCH + ")" + BY_RANK, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Same, by word similarity alone, for terms shorter than a trigram
+    @Query(value = RANKED + ":term <% " + SEARCH + BY_RANK, nativeQuery = true)
+    List<Object[]> searchRankedBySimilarity(@Param("term") String term, @Param("limit") int limit);
 }
@@ -1,28 +1,84 @@
 package com.hrmanagement.hr_management_api.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.hrmanagement.hr_management_api.model.dto.EmployeeSummary;
 import com.hrmanagement.hr_management_api.model.entity.Employee;
 import com.hrmanagement.hr_management_api.model.enums.EmployeeStatus;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
 
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
 
+    // Read-only rows for list endpoints: a constructor expression, so nothing is attached to the persistence context
+    String ROW = "SELECT new com.hrmanagement.hr_management_api.model.dto.EmployeeSummary(" +
+                 "e.id, e.firstName, e.lastName, e.email, e.phoneNumber, e.address, e.departmentId, " +
+                 "e.positionId, e.hireDate, e.salary, e.employeeStatus, e.profileImage, e.createdAt) " +
+                 "FROM Employee e ";
+
     // Find all non-deleted employees
     List<Employee> findByIsDeletedFalse();
+
+    // First keyset page of non-deleted employee summaries, ordered by (createdAt, id)
+    @Query(ROW + "WHERE e.isDeleted = false ORDER BY e.createdAt, e.id")
+    List<EmployeeSummary> findFirstRows(Limit limit);
+
+    // Keyset page of non-deleted employee summaries after (createdAt, id)
+    @Query(ROW + "WHERE e.isDeleted = false " +
+           "AND (e.createdAt > :createdAt OR (e.createdAt = :createdAt AND e.id > :id)) " +
+           "ORDER BY e.createdAt, e.id")
+    List<EmployeeSummary> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+    // Keyset page of non-deleted employee summaries, ordered by (createdAt, id)
+    default Window<EmployeeSummary> findRows(ScrollPosition position, Limit limit) {
+        KeysetCursor.Key after = KeysetCursor.after(position);
+        Limit probe = Limit.of(limit.max() + 1);
+        List<EmployeeSummary> rows = after == null ? findFirstRows(probe) : findRowsAfter(after.createdAt(), after.id(), probe);
+        return KeysetCursor.window(rows, limit, EmployeeSummary::createdAt, EmployeeSummary::id);
+    }
+
+    // All employee summaries, deleted ones included
+    @Query(ROW)
+    List<EmployeeSummary> findAllRows();
+
+    // Non-deleted employee summaries, all at once (the typeahead index load)
+    @Query(ROW + "WHERE e.isDeleted = false")
+    List<EmployeeSummary> findLiveRows();
+
+    // Deleted employee summaries
+    @Query(ROW + "WHERE e.isDeleted = true")
+    List<EmployeeSummary> findDeletedRows();
     
     // Find by ID and not deleted
     Optional<Employee> findByIdAndIsDeletedFalse(String id);
 
+    // Find which of the given IDs belong to non-deleted employees
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids AND e.isDeleted = false")
+    Set<String> findIdsByIdInAndIsDeletedFalse(@Param("ids") Collection<String> ids);
+
+    // Department of one employee, deleted or not
+    @Query("SELECT e.departmentId FROM Employee e WHERE e.id = :id")
+    Optional<String> findDepartmentIdById(@Param("id") String id);
+
+    // [id, departmentId] of each of the given employees, deleted or not
+    @Query("SELECT e.id, e.departmentId FROM Employee e WHERE e.id IN :ids")
+    List<Object[]> findDepartmentIdsByIdIn(@Param("ids") Collection<String> ids);
+
     // Find employees by department ID (non-deleted)
-    List<Employee> findByDepartmentIdAndIsDeletedFalse(String departmentId);
+    List<EmployeeSummary> findByDepartmentIdAndIsDeletedFalse(String departmentId);
 
     // Find employees by position ID (non-deleted)
-    List<Employee> findByPositionIdAndIsDeletedFalse(String positionId);
+    List<EmployeeSummary> findByPositionIdAndIsDeletedFalse(String positionId);
 
     // Find employees by status (non-deleted)
     List<Employee> findByEmployeeStatusAndIsDeletedFalse(EmployeeStatus employeeStatus);
@@ -30,15 +86,29 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
     // Find employees by name (case insensitive, non-deleted)
     List<Employee> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseAndIsDeletedFalse(String firstName, String lastName);
 
-    // Search employees by name with soft delete
-    @Query("SELECT e FROM Employee e WHERE e.isDeleted = false AND " +
-           "(LOWER(e.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(e.lastName) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Employee> searchByNameAndIsDeleted(@Param("query") String query);
+    // The expression idx_employees_name_trgm indexes; SearchService lowercases the term to match
+    String NAME_SEARCH = "lower(coalesce(e.first_name, '') || ' ' || coalesce(e.last_name, ''))";
+
+    String RANKED = "SELECT e.id, word_similarity(:term, " + NAME_SEARCH + ") AS score FROM employees e " +
+                    "WHERE e.is_deleted = false AND ";
+
+    String BY_RANK = " ORDER BY score DESC, e.last_name, e.first_name, e.id LIMIT :limit";
+
+    // Best :limit non-deleted employees whose name matches LIKE :pattern or is word-similar to :term, as [id, score]
+    @Query(value = RANKED + "(" + NAME_SEARCH + " LIKE :pattern OR :term <% " + NAME_SEARCH + ")" + BY_RANK, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Same, by word similarity alone; for terms too short to have a trigram, where the LIKE could not use the index
+    @Query(value = RANKED + ":term <% " + NAME_SEARCH + BY_RANK, nativeQuery = true)
+    List<Object[]> searchRankedBySimilarity(@Param("term") String term, @Param("limit") int limit);
+
+    // Summaries of the given employees, in no particular order (non-deleted)
+    @Query(ROW + "WHERE e.id IN :ids AND e.isDeleted = false")
+    List<EmployeeSummary> findRowsByIdIn(@Param("ids") Collection<String> ids);
 
     // Find active employees only (non-deleted)
-    @Query("SELECT e FROM Employee e WHERE e.employeeStatus = 'ACTIVE' AND e.isDeleted = false")
-    List<Employee> findActiveEmployees();
+    @Query(ROW + "WHERE e.employeeStatus = 'ACTIVE' AND e.isDeleted = false")
+    List<EmployeeSummary> findActiveEmployees();
 
     // Find employees by department and status (non-deleted)
     List<Employee> findByDepartmentIdAndEmployeeStatusAndIsDeletedFalse(String departmentId, EmployeeStatus employeeStatus);
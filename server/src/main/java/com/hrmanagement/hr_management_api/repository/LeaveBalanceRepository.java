@@ -0,0 +1,101 @@
+package com.hrmanagement.hr_management_api.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hrmanagement.hr_management_api.model.entity.LeaveBalance;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
+
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, String> {
+
+    // Days a leave request counts for; requests without total_days count every calendar day they span
+    String DAYS = "COALESCE(lr.total_days, lr.end_date - lr.start_date + 1)";
+
+    String INSERT_COLUMNS =
+            "INSERT INTO leave_balances (id, employee_id, year, leave_request_type, approved_days, pending_days, updated_at) ";
+
+    // Adds the inserted row's days to an existing row for the same employee, year and type
+    String ADD_ON_CONFLICT =
+            "ON CONFLICT (employee_id, year, leave_request_type) DO UPDATE SET " +
+            "approved_days = leave_balances.approved_days + EXCLUDED.approved_days, " +
+            "pending_days = leave_balances.pending_days + EXCLUDED.pending_days, " +
+            "updated_at = EXCLUDED.updated_at ";
+
+    // Aggregated columns shared by the rebuild statements
+    String AGGREGATE_COLUMNS =
+            "COALESCE(SUM(" + DAYS + ") FILTER (WHERE lr.leave_request_status = 'APPROVED'), 0), " +
+            "COALESCE(SUM(" + DAYS + ") FILTER (WHERE lr.leave_request_status = 'PENDING'), 0), " +
+            "now() ";
+
+    // Live leave that counts against an allowance
+    String COUNTED = "lr.is_deleted = false AND lr.leave_request_status IN ('APPROVED', 'PENDING') " +
+                     "AND lr.leave_request_type IS NOT NULL ";
+
+    // One employee's balance for a type and year; a single unique-index lookup
+    Optional<LeaveBalance> findByEmployeeIdAndYearAndLeaveRequestType(String employeeId, int year, LeaveRequestType leaveRequestType);
+
+    // One employee's balances for a year, one row per type they have taken or requested
+    List<LeaveBalance> findByEmployeeIdAndYear(String employeeId, int year);
+
+    // Add signed deltas to an employee's year and type, creating the row on first use; returns approved + pending after
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "VALUES (:id, :employeeId, :year, :type, :approved, :pending, :updatedAt) " +
+                   ADD_ON_CONFLICT + "RETURNING approved_days + pending_days", nativeQuery = true)
+    int applyDelta(@Param("id") String id,
+                   @Param("employeeId") String employeeId,
+                   @Param("year") int year,
+                   @Param("type") String type,
+                   @Param("approved") int approved,
+                   @Param("pending") int pending,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Taken first by a rebuild, so no delta lands between its delete and insert: a delta's upsert runs in the
+    // transaction of its leave request write, so it either commits before the rebuild reads (and is counted) or
+    // waits and adds to the rebuilt rows. Plain reads are not blocked.
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "LOCK TABLE leave_balances IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Drop one year's balances ahead of a rebuild
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM leave_balances WHERE year = :year", nativeQuery = true)
+    int deleteYear(@Param("year") int year);
+
+    // Recompute one year from leave starting in [from, to)
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), lr.employee_id, :year, lr.leave_request_type, " + AGGREGATE_COLUMNS +
+                   "FROM leave_requests lr WHERE " + COUNTED + "AND lr.start_date >= :from AND lr.start_date < :to " +
+                   "GROUP BY lr.employee_id, lr.leave_request_type", nativeQuery = true)
+    int rebuildYear(@Param("year") int year, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Drop every balance ahead of a full rebuild
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM leave_balances", nativeQuery = true)
+    int deleteAllBalances();
+
+    // Recompute every year from leave requests
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), lr.employee_id, CAST(EXTRACT(YEAR FROM lr.start_date) AS integer), " +
+                   "lr.leave_request_type, " + AGGREGATE_COLUMNS +
+                   "FROM leave_requests lr WHERE " + COUNTED +
+                   "GROUP BY lr.employee_id, EXTRACT(YEAR FROM lr.start_date), lr.leave_request_type", nativeQuery = true)
+    int rebuildAll();
+
+}
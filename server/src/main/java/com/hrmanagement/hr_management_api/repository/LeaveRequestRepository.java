@@ -1,33 +1,76 @@
 package com.hrmanagement.hr_management_api.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.hrmanagement.hr_management_api.model.dto.LeaveRequestRow;
 import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
 import com.hrmanagement.hr_management_api.model.enums.LeaveRequestStatus;
 import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+
+import jakarta.persistence.QueryHint;
 
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, String> {
 
+    // Read-only rows for list endpoints: a constructor expression, so nothing is attached to the persistence context
+    String ROW = "SELECT new com.hrmanagement.hr_management_api.model.dto.LeaveRequestRow(" +
+                 "lr.id, lr.employeeId, lr.leaveRequestType, lr.startDate, lr.endDate, lr.totalDays, lr.reason, " +
+                 "lr.leaveRequestStatus, lr.approvedBy, lr.requestDate, lr.responseDate, lr.comments, lr.createdAt) " +
+                 "FROM LeaveRequest lr ";
+
     // Find all non-deleted leave requests
     List<LeaveRequest> findByIsDeletedFalse();
+
+    // First keyset page of non-deleted leave request rows, ordered by (createdAt, id)
+    @Query(ROW + "WHERE lr.isDeleted = false ORDER BY lr.createdAt, lr.id")
+    List<LeaveRequestRow> findFirstRows(Limit limit);
+
+    // Keyset page of non-deleted leave request rows after (createdAt, id)
+    @Query(ROW + "WHERE lr.isDeleted = false " +
+           "AND (lr.createdAt > :createdAt OR (lr.createdAt = :createdAt AND lr.id > :id)) " +
+           "ORDER BY lr.createdAt, lr.id")
+    List<LeaveRequestRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+    // Keyset page of non-deleted leave request rows, ordered by (createdAt, id)
+    default Window<LeaveRequestRow> findRows(ScrollPosition position, Limit limit) {
+        KeysetCursor.Key after = KeysetCursor.after(position);
+        Limit probe = Limit.of(limit.max() + 1);
+        List<LeaveRequestRow> rows = after == null ? findFirstRows(probe) : findRowsAfter(after.createdAt(), after.id(), probe);
+        return KeysetCursor.window(rows, limit, LeaveRequestRow::createdAt, LeaveRequestRow::id);
+    }
+
+    // All leave request rows, deleted ones included
+    @Query(ROW)
+    List<LeaveRequestRow> findAllRows();
+
+    // Deleted leave request rows
+    @Query(ROW + "WHERE lr.isDeleted = true")
+    List<LeaveRequestRow> findDeletedRows();
     
     // Find by ID and not deleted
     Optional<LeaveRequest> findByIdAndIsDeletedFalse(String id);
 
     // Find leave requests by employee ID (non-deleted)
-    List<LeaveRequest> findByEmployeeIdAndIsDeletedFalse(String employeeId);
+    List<LeaveRequestRow> findByEmployeeIdAndIsDeletedFalse(String employeeId);
 
     // Find leave requests by status (non-deleted)
-    List<LeaveRequest> findByLeaveRequestStatusAndIsDeletedFalse(LeaveRequestStatus status);
+    List<LeaveRequestRow> findByLeaveRequestStatusAndIsDeletedFalse(LeaveRequestStatus status);
 
     // Find leave requests by type (non-deleted)
-    List<LeaveRequest> findByLeaveRequestTypeAndIsDeletedFalse(LeaveRequestType type);
+    List<LeaveRequestRow> findByLeaveRequestTypeAndIsDeletedFalse(LeaveRequestType type);
 
     // Find leave requests by employee and status (non-deleted)
     List<LeaveRequest> findByEmployeeIdAndLeaveRequestStatusAndIsDeletedFalse(String employeeId, LeaveRequestStatus status);
@@ -36,29 +79,50 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Stri
     List<LeaveRequest> findByEmployeeIdAndLeaveRequestTypeAndIsDeletedFalse(String employeeId, LeaveRequestType type);
 
     // Find leave requests by date range (non-deleted)
-    List<LeaveRequest> findByStartDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
+    List<LeaveRequestRow> findByStartDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
+
+    // Stream leave requests by start date range (non-deleted) for NDJSON export; caller must hold a transaction
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LeaveRequest> streamByStartDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
 
     // Find leave requests by employee and date range (non-deleted)
-    List<LeaveRequest> findByEmployeeIdAndStartDateBetweenAndIsDeletedFalse(String employeeId, LocalDate startDate, LocalDate endDate);
+    List<LeaveRequestRow> findByEmployeeIdAndStartDateBetweenAndIsDeletedFalse(String employeeId, LocalDate startDate, LocalDate endDate);
 
     // Find leave requests by approver (non-deleted)
-    List<LeaveRequest> findByApprovedByAndIsDeletedFalse(String approverId);
+    List<LeaveRequestRow> findByApprovedByAndIsDeletedFalse(String approverId);
 
     // Find pending leave requests (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveRequestStatus = 'PENDING' AND lr.isDeleted = false")
-    List<LeaveRequest> findPendingRequests();
+    @Query(ROW + "WHERE lr.leaveRequestStatus = 'PENDING' AND lr.isDeleted = false")
+    List<LeaveRequestRow> findPendingRequests();
 
     // Find approved leave requests (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveRequestStatus = 'APPROVED' AND lr.isDeleted = false")
-    List<LeaveRequest> findApprovedRequests();
+    @Query(ROW + "WHERE lr.leaveRequestStatus = 'APPROVED' AND lr.isDeleted = false")
+    List<LeaveRequestRow> findApprovedRequests();
 
     // Find rejected leave requests (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveRequestStatus = 'REJECTED' AND lr.isDeleted = false")
-    List<LeaveRequest> findRejectedRequests();
+    @Query(ROW + "WHERE lr.leaveRequestStatus = 'REJECTED' AND lr.isDeleted = false")
+    List<LeaveRequestRow> findRejectedRequests();
 
     // Find cancelled leave requests (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveRequestStatus = 'CANCELLED' AND lr.isDeleted = false")
-    List<LeaveRequest> findCancelledRequests();
+    @Query(ROW + "WHERE lr.leaveRequestStatus = 'CANCELLED' AND lr.isDeleted = false")
+    List<LeaveRequestRow> findCancelledRequests();
+
+    // Approved and pending leave rows (non-deleted), the contents of LeaveCalendarIndex
+    @Query(ROW + "WHERE lr.leaveRequestStatus IN ('APPROVED', 'PENDING') AND lr.isDeleted = false")
+    List<LeaveRequestRow> findCalendarRows();
+
+    // An employee's approved and pending leave (non-deleted) sharing at least one day with [startDate, endDate]: the
+    // overlap guard on create and update. Served by idx_leave_requests_employee_dates_active, and usually empty
+    @Query(ROW + "WHERE lr.employeeId = :employeeId " +
+           "AND lr.leaveRequestStatus IN ('APPROVED', 'PENDING') " +
+           "AND lr.startDate <= :endDate AND lr.endDate >= :startDate " +
+           "AND lr.isDeleted = false")
+    List<LeaveRequestRow> findCalendarRowsOverlapping(@Param("employeeId") String employeeId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
 
     // Find overlapping leave requests for an employee (non-deleted)
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.employeeId = :employeeId " +
@@ -85,36 +149,37 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Stri
     @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.isDeleted = false")
     long countByIsDeletedFalse();
 
-    // Get total leave days taken by employee and type in a year (non-deleted, approved)
-    @Query("SELECT COALESCE(SUM(lr.totalDays), 0) FROM LeaveRequest lr " +
-           "WHERE lr.employeeId = :employeeId " +
-           "AND lr.leaveRequestType = :type " +
-           "AND lr.leaveRequestStatus = 'APPROVED' " +
-           "AND YEAR(lr.startDate) = :year " +
-           "AND lr.isDeleted = false")
-    int getTotalLeaveDaysByEmployeeTypeAndYear(@Param("employeeId") String employeeId,
-                                               @Param("type") LeaveRequestType type,
-                                               @Param("year") int year);
+    // Find leave requests starting in [from, to) (non-deleted); a plain range so the index can serve it
+    @Query(ROW + "WHERE lr.startDate >= :from AND lr.startDate < :to AND lr.isDeleted = false")
+    List<LeaveRequestRow> findByStartDateFromUntil(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Find an employee's leave requests starting in [from, to) (non-deleted)
+    @Query(ROW + "WHERE lr.employeeId = :employeeId " +
+           "AND lr.startDate >= :from AND lr.startDate < :to AND lr.isDeleted = false")
+    List<LeaveRequestRow> findByEmployeeIdAndStartDateFromUntil(@Param("employeeId") String employeeId,
+                                                                @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
 
     // Find leave requests by year (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE YEAR(lr.startDate) = :year AND lr.isDeleted = false")
-    List<LeaveRequest> findByYear(@Param("year") int year);
+    default List<LeaveRequestRow> findByYear(int year) {
+        return findByStartDateFromUntil(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
 
     // Find leave requests by employee and year (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.employeeId = :employeeId " +
-           "AND YEAR(lr.startDate) = :year AND lr.isDeleted = false")
-    List<LeaveRequest> findByEmployeeIdAndYear(@Param("employeeId") String employeeId, @Param("year") int year);
+    default List<LeaveRequestRow> findByEmployeeIdAndYear(String employeeId, int year) {
+        return findByEmployeeIdAndStartDateFromUntil(employeeId, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
 
     // Find upcoming approved leaves (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveRequestStatus = 'APPROVED' " +
+    @Query(ROW + "WHERE lr.leaveRequestStatus = 'APPROVED' " +
            "AND lr.startDate >= CURRENT_DATE AND lr.isDeleted = false " +
            "ORDER BY lr.startDate ASC")
-    List<LeaveRequest> findUpcomingApprovedLeaves();
+    List<LeaveRequestRow> findUpcomingApprovedLeaves();
 
     // Find current active leaves (non-deleted)
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveRequestStatus = 'APPROVED' " +
+    @Query(ROW + "WHERE lr.leaveRequestStatus = 'APPROVED' " +
            "AND lr.startDate <= CURRENT_DATE AND lr.endDate >= CURRENT_DATE " +
            "AND lr.isDeleted = false")
-    List<LeaveRequest> findCurrentActiveLeaves();
+    List<LeaveRequestRow> findCurrentActiveLeaves();
 
 }
@@ -0,0 +1,73 @@
+package com.hrmanagement.hr_management_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hrmanagement.hr_management_api.model.entity.PayrollJob;
+
+public interface PayrollJobRepository extends JpaRepository<PayrollJob, String> {
+
+    Optional<PayrollJob> findByPayrollId(String payrollId);
+
+    // Queue a payroll unless it already has a job
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO payroll_jobs (id, payroll_id, attempts, run_at, created_at, updated_at) " +
+                   "VALUES (:id, :payrollId, 0, :now, :now, :now) " +
+                   "ON CONFLICT (payroll_id) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("id") String id, @Param("payrollId") String payrollId, @Param("now") LocalDateTime now);
+
+    // Queue every processing payroll that has no job, e.g. ones moved to PROCESSING by a plain update
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO payroll_jobs (id, payroll_id, attempts, run_at, created_at, updated_at) " +
+                   "SELECT CAST(gen_random_uuid() AS text), p.id, 0, :now, :now, :now FROM payrolls p " +
+                   "WHERE p.payroll_status = 'PROCESSING' AND p.is_deleted = false " +
+                   "ON CONFLICT (payroll_id) DO NOTHING", nativeQuery = true)
+    int enqueueProcessing(@Param("now") LocalDateTime now);
+
+    // Lease up to :limit due jobs to :lockedBy, oldest first. Rows another worker is claiming at the same moment are
+    // skipped rather than waited on, and a lease that ran out (a worker that died) makes its job claimable again.
+    @Transactional
+    @Query(value = "UPDATE payroll_jobs SET locked_by = :lockedBy, locked_until = :lockedUntil, " +
+                   "attempts = attempts + 1, updated_at = :now " +
+                   "WHERE id IN (SELECT id FROM payroll_jobs " +
+                   "WHERE run_at <= :now AND (locked_until IS NULL OR locked_until < :now) " +
+                   "ORDER BY run_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *", nativeQuery = true)
+    List<PayrollJob> claim(@Param("lockedBy") String lockedBy,
+                           @Param("lockedUntil") LocalDateTime lockedUntil,
+                           @Param("now") LocalDateTime now,
+                           @Param("limit") int limit);
+
+    // Drop finished jobs, only while the claim that finished them still holds them
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM payroll_jobs WHERE id IN (:ids) AND locked_by = :lockedBy", nativeQuery = true)
+    int deleteClaimed(@Param("ids") Collection<String> ids, @Param("lockedBy") String lockedBy);
+
+    // Release a job to be claimed again at :runAt, or never again when :runAt is null
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE payroll_jobs SET run_at = :runAt, locked_by = NULL, locked_until = NULL, " +
+                   "last_error = :error, updated_at = :now " +
+                   "WHERE id = :id AND locked_by = :lockedBy", nativeQuery = true)
+    int release(@Param("id") String id,
+                @Param("lockedBy") String lockedBy,
+                @Param("runAt") LocalDateTime runAt,
+                @Param("error") String error,
+                @Param("now") LocalDateTime now);
+
+    // Jobs still to run and jobs that gave up
+    long countByRunAtIsNotNull();
+
+    long countByRunAtIsNull();
+}
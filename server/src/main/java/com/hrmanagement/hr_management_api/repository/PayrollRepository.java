@@ -1,39 +1,83 @@
 package com.hrmanagement.hr_management_api.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.hrmanagement.hr_management_api.model.dto.PayrollRow;
 import com.hrmanagement.hr_management_api.model.entity.Payroll;
 import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+
+import jakarta.persistence.QueryHint;
 
 public interface PayrollRepository extends JpaRepository<Payroll, String> {
 
+    // Read-only rows for list endpoints: a constructor expression, so nothing is attached to the persistence context
+    String ROW = "SELECT new com.hrmanagement.hr_management_api.model.dto.PayrollRow(" +
+                 "p.id, p.employeeId, p.payPeriodStart, p.payPeriodEnd, p.salary, p.bonus, " +
+                 "p.deductions, p.netPay, p.payrollStatus, p.processedDate, p.paidDate, p.createdAt) " +
+                 "FROM Payroll p ";
+
     // Find all non-deleted payroll records
     List<Payroll> findByIsDeletedFalse();
+
+    // First keyset page of non-deleted payroll rows, ordered by (createdAt, id)
+    @Query(ROW + "WHERE p.isDeleted = false ORDER BY p.createdAt, p.id")
+    List<PayrollRow> findFirstRows(Limit limit);
+
+    // Keyset page of non-deleted payroll rows after (createdAt, id)
+    @Query(ROW + "WHERE p.isDeleted = false " +
+           "AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) " +
+           "ORDER BY p.createdAt, p.id")
+    List<PayrollRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+    // Keyset page of non-deleted payroll rows, ordered by (createdAt, id)
+    default Window<PayrollRow> findRows(ScrollPosition position, Limit limit) {
+        KeysetCursor.Key after = KeysetCursor.after(position);
+        Limit probe = Limit.of(limit.max() + 1);
+        List<PayrollRow> rows = after == null ? findFirstRows(probe) : findRowsAfter(after.createdAt(), after.id(), probe);
+        return KeysetCursor.window(rows, limit, PayrollRow::createdAt, PayrollRow::id);
+    }
     
     // Find by ID and not deleted
     Optional<Payroll> findByIdAndIsDeletedFalse(String id);
 
     // Find payroll records by employee ID (non-deleted)
-    List<Payroll> findByEmployeeIdAndIsDeletedFalse(String employeeId);
+    List<PayrollRow> findByEmployeeIdAndIsDeletedFalse(String employeeId);
 
     // Find payroll records by status (non-deleted)
-    List<Payroll> findByPayrollStatusAndIsDeletedFalse(PayrollStatus status);
+    List<PayrollRow> findByPayrollStatusAndIsDeletedFalse(PayrollStatus status);
 
     // Find payroll records by employee and status (non-deleted)
     List<Payroll> findByEmployeeIdAndPayrollStatusAndIsDeletedFalse(String employeeId, PayrollStatus status);
 
     // Find payroll records by pay period date range (non-deleted)
-    List<Payroll> findByPayPeriodStartBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
+    List<PayrollRow> findByPayPeriodStartBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
+
+    // Stream payroll records by pay period start range (non-deleted) for NDJSON export; caller must hold a transaction
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Payroll> streamByPayPeriodStartBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
 
     // Find payroll records by employee and pay period date range (non-deleted)
-    List<Payroll> findByEmployeeIdAndPayPeriodStartBetweenAndIsDeletedFalse(String employeeId, LocalDate startDate, LocalDate endDate);
+    List<PayrollRow> findByEmployeeIdAndPayPeriodStartBetweenAndIsDeletedFalse(String employeeId, LocalDate startDate, LocalDate endDate);
 
     // Find payroll records by processed date (non-deleted)
     List<Payroll> findByProcessedDateAndIsDeletedFalse(LocalDate processedDate);
@@ -42,28 +86,28 @@ public interface PayrollRepository extends JpaRepository<Payroll, String> {
     List<Payroll> findByProcessedDateBetweenAndIsDeletedFalse(LocalDate startDate, LocalDate endDate);
 
     // Find pending payroll records (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'PENDING' AND p.isDeleted = false")
-    List<Payroll> findPendingPayrolls();
+    @Query(ROW + "WHERE p.payrollStatus = 'PENDING' AND p.isDeleted = false")
+    List<PayrollRow> findPendingPayrolls();
 
     // Find approved payroll records (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'APPROVED' AND p.isDeleted = false")
-    List<Payroll> findApprovedPayrolls();
+    @Query(ROW + "WHERE p.payrollStatus = 'APPROVED' AND p.isDeleted = false")
+    List<PayrollRow> findApprovedPayrolls();
 
     // Find completed payroll records (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'COMPLETED' AND p.isDeleted = false")
-    List<Payroll> findCompletedPayrolls();
+    @Query(ROW + "WHERE p.payrollStatus = 'COMPLETED' AND p.isDeleted = false")
+    List<PayrollRow> findCompletedPayrolls();
 
     // Find draft payroll records (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'DRAFT' AND p.isDeleted = false")
-    List<Payroll> findDraftPayrolls();
+    @Query(ROW + "WHERE p.payrollStatus = 'DRAFT' AND p.isDeleted = false")
+    List<PayrollRow> findDraftPayrolls();
 
     // Find processing payroll records (non-deleted)
     @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'PROCESSING' AND p.isDeleted = false")
     List<Payroll> findProcessingPayrolls();
 
     // Find failed payroll records (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'FAILED' AND p.isDeleted = false")
-    List<Payroll> findFailedPayrolls();
+    @Query(ROW + "WHERE p.payrollStatus = 'FAILED' AND p.isDeleted = false")
+    List<PayrollRow> findFailedPayrolls();
 
     // Count payroll records by employee (non-deleted)
     @Query("SELECT COUNT(p) FROM Payroll p WHERE p.employeeId = :employeeId AND p.isDeleted = false")
@@ -77,47 +121,38 @@ public interface PayrollRepository extends JpaRepository<Payroll, String> {
     @Query("SELECT COUNT(p) FROM Payroll p WHERE p.isDeleted = false")
     long countByIsDeletedFalse();
 
-    // Get total salary paid by employee (non-deleted, completed)
-    @Query("SELECT COALESCE(SUM(p.netPay), 0) FROM Payroll p " +
-           "WHERE p.employeeId = :employeeId " +
-           "AND p.payrollStatus = 'COMPLETED' " +
-           "AND p.isDeleted = false")
-    BigDecimal getTotalSalaryPaidByEmployee(@Param("employeeId") String employeeId);
-
-    // Get total salary paid by employee in a year (non-deleted, completed)
-    @Query("SELECT COALESCE(SUM(p.netPay), 0) FROM Payroll p " +
-           "WHERE p.employeeId = :employeeId " +
-           "AND p.payrollStatus = 'COMPLETED' " +
-           "AND YEAR(p.payPeriodStart) = :year " +
-           "AND p.isDeleted = false")
-    BigDecimal getTotalSalaryPaidByEmployeeAndYear(@Param("employeeId") String employeeId, @Param("year") int year);
+    // Find payroll records whose period starts in [from, to) (non-deleted); a plain range so the index can serve it
+    @Query(ROW + "WHERE p.payPeriodStart >= :from AND p.payPeriodStart < :to AND p.isDeleted = false")
+    List<PayrollRow> findByPayPeriodStartFromUntil(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    // Get total payroll amount by status (non-deleted)
-    @Query("SELECT COALESCE(SUM(p.netPay), 0) FROM Payroll p " +
-           "WHERE p.payrollStatus = :status AND p.isDeleted = false")
-    BigDecimal getTotalPayrollAmountByStatus(@Param("status") PayrollStatus status);
+    // Find an employee's payroll records whose period starts in [from, to) (non-deleted)
+    @Query(ROW + "WHERE p.employeeId = :employeeId " +
+           "AND p.payPeriodStart >= :from AND p.payPeriodStart < :to AND p.isDeleted = false")
+    List<PayrollRow> findByEmployeeIdAndPayPeriodStartFromUntil(@Param("employeeId") String employeeId,
+                                                                @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
 
     // Find payroll records by year (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE YEAR(p.payPeriodStart) = :year AND p.isDeleted = false")
-    List<Payroll> findByYear(@Param("year") int year);
+    default List<PayrollRow> findByYear(int year) {
+        return findByPayPeriodStartFromUntil(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
 
     // Find payroll records by employee and year (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.employeeId = :employeeId " +
-           "AND YEAR(p.payPeriodStart) = :year AND p.isDeleted = false")
-    List<Payroll> findByEmployeeIdAndYear(@Param("employeeId") String employeeId, @Param("year") int year);
+    default List<PayrollRow> findByEmployeeIdAndYear(String employeeId, int year) {
+        return findByEmployeeIdAndPayPeriodStartFromUntil(employeeId, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
 
     // Find payroll records by month and year (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE YEAR(p.payPeriodStart) = :year " +
-           "AND MONTH(p.payPeriodStart) = :month AND p.isDeleted = false")
-    List<Payroll> findByMonthAndYear(@Param("month") int month, @Param("year") int year);
+    default List<PayrollRow> findByMonthAndYear(int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        return findByPayPeriodStartFromUntil(period.atDay(1), period.plusMonths(1).atDay(1));
+    }
 
     // Find payroll records by employee, month and year (non-deleted)
-    @Query("SELECT p FROM Payroll p WHERE p.employeeId = :employeeId " +
-           "AND YEAR(p.payPeriodStart) = :year " +
-           "AND MONTH(p.payPeriodStart) = :month AND p.isDeleted = false")
-    List<Payroll> findByEmployeeIdMonthAndYear(@Param("employeeId") String employeeId, 
-                                               @Param("month") int month, 
-                                               @Param("year") int year);
+    default List<PayrollRow> findByEmployeeIdMonthAndYear(String employeeId, int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        return findByEmployeeIdAndPayPeriodStartFromUntil(employeeId, period.atDay(1), period.plusMonths(1).atDay(1));
+    }
 
     // Check if payroll exists for employee and pay period (non-deleted)
     @Query("SELECT COUNT(p) > 0 FROM Payroll p WHERE p.employeeId = :employeeId " +
@@ -127,9 +162,50 @@ public interface PayrollRepository extends JpaRepository<Payroll, String> {
                                            @Param("startDate") LocalDate startDate,
                                            @Param("endDate") LocalDate endDate);
 
+    // Pay periods already on file for the given employees, as [employeeId, payPeriodStart, payPeriodEnd] (non-deleted)
+    @Query("SELECT p.employeeId, p.payPeriodStart, p.payPeriodEnd FROM Payroll p " +
+           "WHERE p.employeeId IN :employeeIds AND p.payPeriodStart IN :startDates AND p.isDeleted = false")
+    List<Object[]> findPayPeriodsByEmployeeIdIn(@Param("employeeIds") Collection<String> employeeIds,
+                                                @Param("startDates") Collection<LocalDate> startDates);
+
+    // Move the given payrolls from one status to another in one statement; dates left null keep their value.
+    // Returns the rows that actually transitioned. Native so RETURNING can report them; keep ids within
+    // InClause.MAX_SIZE per call.
+    @Transactional
+    @Query(value = "UPDATE payrolls SET payroll_status = :to, " +
+                   "processed_date = COALESCE(CAST(:processedDate AS date), processed_date), " +
+                   "paid_date = COALESCE(CAST(:paidDate AS timestamp), paid_date), " +
+                   "updated_at = :updatedAt, version = version + 1 " +
+                   "WHERE id IN (:ids) AND payroll_status = :from AND is_deleted = false " +
+                   "RETURNING *", nativeQuery = true)
+    List<Payroll> transitionStatus(@Param("ids") Collection<String> ids,
+                                   @Param("from") String from,
+                                   @Param("to") String to,
+                                   @Param("processedDate") LocalDate processedDate,
+                                   @Param("paidDate") LocalDateTime paidDate,
+                                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Move one payroll to :to if it is still in :from (and at :version, when given), in a single statement.
+    // Dates left null keep their value. Returns the updated row, or empty when the payroll was not in a state to move.
+    @Transactional
+    @Query(value = "UPDATE payrolls SET payroll_status = :to, " +
+                   "processed_date = COALESCE(CAST(:processedDate AS date), processed_date), " +
+                   "paid_date = COALESCE(CAST(:paidDate AS timestamp), paid_date), " +
+                   "updated_at = :updatedAt, version = version + 1 " +
+                   "WHERE id = :id AND payroll_status = :from AND is_deleted = false " +
+                   "AND (CAST(:version AS bigint) IS NULL OR version = :version) " +
+                   "RETURNING *", nativeQuery = true)
+    Optional<Payroll> transition(@Param("id") String id,
+                                 @Param("from") String from,
+                                 @Param("to") String to,
+                                 @Param("version") Long version,
+                                 @Param("processedDate") LocalDate processedDate,
+                                 @Param("paidDate") LocalDateTime paidDate,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+
     // Find overdue payrolls (approved but not completed after 30 days)
-    @Query("SELECT p FROM Payroll p WHERE p.payrollStatus = 'APPROVED' " +
+    @Query(ROW + "WHERE p.payrollStatus = 'APPROVED' " +
            "AND p.processedDate < :cutoffDate AND p.isDeleted = false")
-    List<Payroll> findOverduePayrolls(@Param("cutoffDate") LocalDate cutoffDate);
+    List<PayrollRow> findOverduePayrolls(@Param("cutoffDate") LocalDate cutoffDate);
 
 }
@@ -0,0 +1,73 @@
+package com.hrmanagement.hr_management_api.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hrmanagement.hr_management_api.model.entity.PayrollTotal;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+
+public interface PayrollTotalRepository extends JpaRepository<PayrollTotal, String> {
+
+    // Live payrolls grouped by status, the raw form of the ledger
+    String RAW = "SELECT p.payroll_status, COUNT(*) AS record_count, COALESCE(SUM(p.net_pay), 0) AS total_net_pay " +
+                 "FROM payrolls p WHERE p.is_deleted = false AND p.payroll_status IS NOT NULL GROUP BY p.payroll_status";
+
+    String INSERT_COLUMNS = "INSERT INTO payroll_totals (id, payroll_status, record_count, total_net_pay, updated_at) ";
+
+    // Adds the inserted row's count and amount to an existing row for the same status
+    String ADD_ON_CONFLICT =
+            "ON CONFLICT (payroll_status) DO UPDATE SET " +
+            "record_count = payroll_totals.record_count + EXCLUDED.record_count, " +
+            "total_net_pay = payroll_totals.total_net_pay + EXCLUDED.total_net_pay, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    // One status's totals; a single unique-index lookup
+    Optional<PayrollTotal> findByPayrollStatus(PayrollStatus payrollStatus);
+
+    // Add signed deltas to a status, creating the row on first use
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS + "VALUES (:id, :status, :count, :amount, :updatedAt) " + ADD_ON_CONFLICT,
+           nativeQuery = true)
+    int applyDelta(@Param("id") String id,
+                   @Param("status") String status,
+                   @Param("count") long count,
+                   @Param("amount") BigDecimal amount,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Statuses whose ledger row disagrees with the raw sums, a missing row on either side included
+    @Query(value = "SELECT COUNT(*) FROM (" + RAW + ") r FULL JOIN payroll_totals t ON t.payroll_status = r.payroll_status " +
+                   "WHERE COALESCE(r.record_count, 0) <> COALESCE(t.record_count, 0) " +
+                   "OR COALESCE(r.total_net_pay, 0) <> COALESCE(t.total_net_pay, 0)", nativeQuery = true)
+    long countMismatches();
+
+    // Taken first by a rebuild, so its delete and insert run with no delta in between. Deltas write this table in
+    // the transaction of the payroll write they stand for, so a rebuild either counts that write or holds off its
+    // delta until the rebuilt rows are in. Plain reads are not blocked.
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "LOCK TABLE payroll_totals IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Drop every row ahead of a rebuild
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM payroll_totals", nativeQuery = true)
+    int deleteAllTotals();
+
+    // Recompute every status from the payroll table
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), r.payroll_status, r.record_count, r.total_net_pay, now() " +
+                   "FROM (" + RAW + ") r", nativeQuery = true)
+    int rebuildAll();
+}
@@ -0,0 +1,81 @@
+package com.hrmanagement.hr_management_api.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hrmanagement.hr_management_api.model.entity.PayrollYtd;
+
+public interface PayrollYtdRepository extends JpaRepository<PayrollYtd, String> {
+
+    // Live completed payrolls grouped by employee and year, the raw form of the ledger
+    String RAW = "SELECT p.employee_id, CAST(EXTRACT(YEAR FROM p.pay_period_start) AS integer) AS year, " +
+                 "COUNT(*) AS paid_count, COALESCE(SUM(p.net_pay), 0) AS paid_net_pay " +
+                 "FROM payrolls p WHERE p.is_deleted = false AND p.payroll_status = 'COMPLETED' " +
+                 "AND p.employee_id IS NOT NULL AND p.pay_period_start IS NOT NULL " +
+                 "GROUP BY p.employee_id, EXTRACT(YEAR FROM p.pay_period_start)";
+
+    String INSERT_COLUMNS = "INSERT INTO payroll_ytd (id, employee_id, year, paid_count, paid_net_pay, updated_at) ";
+
+    // Adds the inserted row's count and amount to an existing row for the same employee and year
+    String ADD_ON_CONFLICT =
+            "ON CONFLICT (employee_id, year) DO UPDATE SET " +
+            "paid_count = payroll_ytd.paid_count + EXCLUDED.paid_count, " +
+            "paid_net_pay = payroll_ytd.paid_net_pay + EXCLUDED.paid_net_pay, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    // One employee's year; a single unique-index lookup
+    Optional<PayrollYtd> findByEmployeeIdAndYear(String employeeId, int year);
+
+    // One employee's paid net pay over every year, from their handful of year rows
+    @Query("SELECT COALESCE(SUM(y.paidNetPay), 0) FROM PayrollYtd y WHERE y.employeeId = :employeeId")
+    BigDecimal sumPaidNetPayByEmployeeId(@Param("employeeId") String employeeId);
+
+    // Add signed deltas to an employee's year, creating the row on first use
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS + "VALUES (:id, :employeeId, :year, :count, :amount, :updatedAt) " + ADD_ON_CONFLICT,
+           nativeQuery = true)
+    int applyDelta(@Param("id") String id,
+                   @Param("employeeId") String employeeId,
+                   @Param("year") int year,
+                   @Param("count") long count,
+                   @Param("amount") BigDecimal amount,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Employee years whose ledger row disagrees with the raw sums, a missing row on either side included
+    @Query(value = "SELECT COUNT(*) FROM (" + RAW + ") r " +
+                   "FULL JOIN payroll_ytd y ON y.employee_id = r.employee_id AND y.year = r.year " +
+                   "WHERE COALESCE(r.paid_count, 0) <> COALESCE(y.paid_count, 0) " +
+                   "OR COALESCE(r.paid_net_pay, 0) <> COALESCE(y.paid_net_pay, 0)", nativeQuery = true)
+    long countMismatches();
+
+    // Taken first by a rebuild, so its delete and insert run with no delta in between. Deltas write this table in
+    // the transaction of the payroll write they stand for, so a rebuild either counts that write or holds off its
+    // delta until the rebuilt rows are in. Plain reads are not blocked.
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "LOCK TABLE payroll_ytd IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Drop every row ahead of a rebuild
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM payroll_ytd", nativeQuery = true)
+    int deleteAllYtd();
+
+    // Recompute every employee year from the payroll table
+    @Modifying
+    @Transactional
+    @Query(value = INSERT_COLUMNS +
+                   "SELECT CAST(gen_random_uuid() AS text), r.employee_id, r.year, r.paid_count, r.paid_net_pay, now() " +
+                   "FROM (" + RAW + ") r", nativeQuery = true)
+    int rebuildAll();
+}
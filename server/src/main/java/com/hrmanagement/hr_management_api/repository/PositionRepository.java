@@ -3,6 +3,10 @@ package com.hrmanagement.hr_management_api.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +17,9 @@ public interface PositionRepository extends JpaRepository<Position, String>{
     
     // Find all non-deleted positions
     List<Position> findByIsDeletedFalse();
+
+    // Keyset page of non-deleted positions, ordered by (createdAt, id)
+    Window<Position> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
     
     // Find by ID and not deleted
     Optional<Position> findByIdAndIsDeletedFalse(String id);
@@ -23,11 +30,22 @@ public interface PositionRepository extends JpaRepository<Position, String>{
     // Find by department ID
     List<Position> findByDepartmentIdAndIsDeletedFalse(String departmentId);
     
-    // Custom query to search positions by title or description
-    @Query("SELECT p FROM Position p WHERE p.isDeleted = false AND " +
-           "(LOWER(p.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Position> searchPositions(@Param("searchTerm") String searchTerm);
+    // The expression idx_positions_search_trgm indexes; SearchService lowercases the term to match
+    String SEARCH = "lower(coalesce(p.title, '') || ' ' || coalesce(p.description, ''))";
+
+    String RANKED = "SELECT p.id, word_similarity(:term, " + SEARCH + ") AS score FROM positions p " +
+                    "WHERE p.is_deleted = false AND ";
+
+    String BY_RANK = " ORDER BY score DESC, p.title, p.id LIMIT :limit";
+
+    // Best :limit non-deleted positions whose title or description matches LIKE :pattern or is word-similar to :term,
+    // as [id, score]
+    @Query(value = RANKED + "(" + SEARCH + " LIKE :pattern OR :term <% " + SEARCH + ")" + BY_RANK, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Same, by word similarity alone, for terms shorter than a trigram
+    @Query(value = RANKED + ":term <% " + SEARCH + BY_RANK, nativeQuery = true)
+    List<Object[]> searchRankedBySimilarity(@Param("term") String term, @Param("limit") int limit);
     
     // Count positions by department
     @Query("SELECT COUNT(p) FROM Position p WHERE p.departmentId = :departmentId AND p.isDeleted = false")
@@ -0,0 +1,8 @@
+package com.hrmanagement.hr_management_api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.hrmanagement.hr_management_api.model.entity.ShiftRule;
+
+public interface ShiftRuleRepository extends JpaRepository<ShiftRule, String> {
+}
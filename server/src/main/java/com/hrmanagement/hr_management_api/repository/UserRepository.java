@@ -3,6 +3,10 @@ package com.hrmanagement.hr_management_api.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +18,9 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     // Find all non-deleted users
     List<User> findByIsDeletedFalse();
+
+    // Keyset page of non-deleted users, ordered by (createdAt, id)
+    Window<User> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
     
     // Find by ID and not deleted
     Optional<User> findByIdAndIsDeletedFalse(String id);
@@ -0,0 +1,71 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Writes ABSENT attendance rows for active employees who neither clocked in nor were on approved leave on a working day,
+// so absence reports are a plain read of attendances instead of an anti-join against employees. Runs nightly for the
+// day before. Each run is one set-based INSERT ... SELECT per hash partition of the employees, the partitions in
+// parallel, each in its own transaction; repeating a day only fills in what is missing.
+@Service
+public class AbsenceMaterializationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AbsenceMaterializationService.class);
+
+    private final AttendanceRepository attendanceRepository;
+    private final HolidayCalendar holidayCalendar;
+    private final int partitions;
+    private final ExecutorService executor;
+
+    public AbsenceMaterializationService(AttendanceRepository attendanceRepository,
+                                         HolidayCalendar holidayCalendar,
+                                         @Value("${attendance.absence.partitions:4}") int partitions) {
+        this.attendanceRepository = attendanceRepository;
+        this.holidayCalendar = holidayCalendar;
+        this.partitions = partitions;
+        this.executor = Executors.newFixedThreadPool(partitions,
+                Thread.ofPlatform().name("absence-materializer-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Mark absences for a past day; returns the number of employees marked absent (none on weekends and holidays)
+    public int materialize(LocalDate date) {
+        if (!date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Absences can only be materialized for days that have ended");
+        }
+        if (!holidayCalendar.isWorkingDay(date)) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<CompletableFuture<Integer>> parts = IntStream.range(0, partitions)
+                .mapToObj(partition -> CompletableFuture.supplyAsync(() -> attendanceRepository.materializeAbsences(
+                        date, date.getYear(), date.getMonthValue(), partitions, partition, now), executor))
+                .toList();
+        return parts.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    @Scheduled(cron = "${attendance.absence.cron:0 15 0 * * *}")
+    void materializeYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        log.info("Marked {} employees absent on {}", materialize(yesterday), yesterday);
+    }
+}
@@ -0,0 +1,241 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.model.entity.AttendanceMonthlySummary;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.repository.AttendanceMonthlySummaryRepository;
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+
+// Keeps attendance_monthly_summary in step with attendances: every write applies its delta in the same transaction,
+// and a nightly rebuild repairs anything written around it (seed data, manual SQL). A rebuild locks the summary table
+// for its delete and insert, so deltas committed while it runs are neither lost nor counted twice.
+@Service
+public class AttendanceSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceSummaryService.class);
+
+    // What one attendance row adds to its month's summary; null stands for a soft-deleted (or absent) row
+    public record Contribution(String employeeId, LocalDate date, AttendanceStatus status, long workedMinutes) {
+
+        public static Contribution of(Attendance attendance) {
+            if (attendance == null || Boolean.TRUE.equals(attendance.isDeleted()) || attendance.getDate() == null) {
+                return null;
+            }
+            long workedMinutes = 0;
+            if (attendance.getClockIn() != null && attendance.getClockOut() != null
+                    && attendance.getClockOut().isAfter(attendance.getClockIn())) {
+                workedMinutes = Duration.between(attendance.getClockIn(), attendance.getClockOut()).toMinutes();
+            }
+            return new Contribution(attendance.getEmployeeId(), attendance.getDate(), attendance.getAttendanceStatus(), workedMinutes);
+        }
+    }
+
+    private record MonthKey(String employeeId, int year, int month) {}
+
+    private static final Comparator<MonthKey> MONTH_ORDER = Comparator.comparing(MonthKey::employeeId)
+            .thenComparingInt(MonthKey::year).thenComparingInt(MonthKey::month);
+
+    // Summed counts for one employee-month
+    private static final class MonthDelta {
+        int present;
+        int absent;
+        int late;
+        int halfDay;
+        int overtime;
+        int workFromHome;
+        long workedMinutes;
+
+        void add(Contribution contribution) {
+            AttendanceStatus status = contribution.status();
+            present += status == AttendanceStatus.PRESENT ? 1 : 0;
+            absent += status == AttendanceStatus.ABSENT ? 1 : 0;
+            late += status == AttendanceStatus.LATE ? 1 : 0;
+            halfDay += status == AttendanceStatus.HALF_DAY ? 1 : 0;
+            overtime += status == AttendanceStatus.OVERTIME ? 1 : 0;
+            workFromHome += status == AttendanceStatus.WORK_FROM_HOME ? 1 : 0;
+            workedMinutes += contribution.workedMinutes();
+        }
+    }
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceMonthlySummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public AttendanceSummaryService(AttendanceRepository attendanceRepository,
+                                    AttendanceMonthlySummaryRepository summaryRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.attendanceRepository = attendanceRepository;
+        this.summaryRepository = summaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Save an attendance record and move its contribution from the before-snapshot to its new state. The snapshot may
+    // be taken outside this transaction: Attendance's @Version fails the save (and rolls back the delta) when the row
+    // changed after it was read, so two writers never both withdraw the same old contribution.
+    public Attendance save(Attendance attendance, Contribution before) {
+        return transactionTemplate.execute(status -> {
+            Attendance saved = attendanceRepository.save(attendance);
+            replace(before, Contribution.of(saved));
+            return saved;
+        });
+    }
+
+    // Save several records at once; befores[i] is the snapshot taken for attendances[i] before it was changed
+    public List<Attendance> saveAll(List<Attendance> attendances, List<Contribution> befores) {
+        return transactionTemplate.execute(status -> {
+            List<Attendance> saved = attendanceRepository.saveAll(attendances);
+            for (int i = 0; i < saved.size(); i++) {
+                replace(befores.get(i), Contribution.of(saved.get(i)));
+            }
+            return saved;
+        });
+    }
+
+    // Permanently delete a record and withdraw whatever it contributed
+    public void delete(Attendance attendance) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Contribution before = Contribution.of(attendance);
+            attendanceRepository.delete(attendance);
+            replace(before, null);
+        });
+    }
+
+    // Withdraw one contribution and add another; joins the caller's transaction when there is one
+    public void replace(Contribution before, Contribution after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    // Add the contributions of newly inserted records with one upsert, summed per employee-month first (in key order,
+    // so concurrent batches lock shared rows in the same order); joins the caller's transaction
+    public void addAll(List<Attendance> attendances) {
+        Map<MonthKey, MonthDelta> deltas = new TreeMap<>(MONTH_ORDER);
+        for (Attendance attendance : attendances) {
+            Contribution contribution = Contribution.of(attendance);
+            if (contribution != null && contribution.employeeId() != null) {
+                deltas.computeIfAbsent(new MonthKey(contribution.employeeId(), contribution.date().getYear(),
+                        contribution.date().getMonthValue()), key -> new MonthDelta()).add(contribution);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        int size = deltas.size();
+        String[] employeeIds = new String[size];
+        Integer[] years = new Integer[size];
+        Integer[] months = new Integer[size];
+        Integer[] present = new Integer[size];
+        Integer[] absent = new Integer[size];
+        Integer[] late = new Integer[size];
+        Integer[] halfDay = new Integer[size];
+        Integer[] overtime = new Integer[size];
+        Integer[] workFromHome = new Integer[size];
+        Long[] workedMinutes = new Long[size];
+        int i = 0;
+        for (Map.Entry<MonthKey, MonthDelta> entry : deltas.entrySet()) {
+            MonthKey key = entry.getKey();
+            MonthDelta delta = entry.getValue();
+            employeeIds[i] = key.employeeId();
+            years[i] = key.year();
+            months[i] = key.month();
+            present[i] = delta.present;
+            absent[i] = delta.absent;
+            late[i] = delta.late;
+            halfDay[i] = delta.halfDay;
+            overtime[i] = delta.overtime;
+            workFromHome[i] = delta.workFromHome;
+            workedMinutes[i] = delta.workedMinutes;
+            i++;
+        }
+        summaryRepository.applyDeltas(employeeIds, years, months, present, absent, late, halfDay, overtime, workFromHome,
+                workedMinutes, LocalDateTime.now());
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution == null || contribution.employeeId() == null) {
+            return;
+        }
+        AttendanceStatus status = contribution.status();
+        summaryRepository.applyDelta(UUID.randomUUID().toString(), contribution.employeeId(),
+                contribution.date().getYear(), contribution.date().getMonthValue(),
+                status == AttendanceStatus.PRESENT ? sign : 0,
+                status == AttendanceStatus.ABSENT ? sign : 0,
+                status == AttendanceStatus.LATE ? sign : 0,
+                status == AttendanceStatus.HALF_DAY ? sign : 0,
+                status == AttendanceStatus.OVERTIME ? sign : 0,
+                status == AttendanceStatus.WORK_FROM_HOME ? sign : 0,
+                sign * contribution.workedMinutes(),
+                LocalDateTime.now());
+    }
+
+    // Every employee's totals for a month, one row per employee who has attendance that month
+    public List<AttendanceMonthlySummary> getMonth(int year, int month) {
+        return summaryRepository.findByYearAndMonthOrderByEmployeeId(year, month);
+    }
+
+    // One employee's totals for a month
+    public Optional<AttendanceMonthlySummary> getEmployeeMonth(String employeeId, int year, int month) {
+        return summaryRepository.findByEmployeeIdAndYearAndMonth(employeeId, year, month);
+    }
+
+    // Recompute one month from the attendance table; returns the number of summary rows written
+    public int rebuildMonth(int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        Integer rows = transactionTemplate.execute(status -> {
+            summaryRepository.lockForRebuild();
+            summaryRepository.deleteMonth(year, month);
+            return summaryRepository.rebuildMonth(year, month, period.atDay(1), period.plusMonths(1).atDay(1));
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Recompute every month from the attendance table; returns the number of summary rows written
+    public int rebuildAll() {
+        Integer rows = transactionTemplate.execute(status -> {
+            summaryRepository.lockForRebuild();
+            summaryRepository.deleteAllSummaries();
+            return summaryRepository.rebuildAll();
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Backfill on first start, after the data loader has seeded attendances without going through this service
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillIfEmpty() {
+        if (summaryRepository.count() == 0 && attendanceRepository.countByIsDeletedFalse() > 0) {
+            log.info("Attendance monthly summary is empty, rebuilt {} rows", rebuildAll());
+        }
+    }
+
+    // Nightly repair of the current and previous month, the only ones still being written to in normal use
+    @Scheduled(cron = "${attendance.summary.rebuild-cron:0 30 2 * * *}")
+    void rebuildRecentMonths() {
+        YearMonth current = YearMonth.now();
+        YearMonth previous = current.minusMonths(1);
+        rebuildMonth(previous.getYear(), previous.getMonthValue());
+        rebuildMonth(current.getYear(), current.getMonthValue());
+    }
+}
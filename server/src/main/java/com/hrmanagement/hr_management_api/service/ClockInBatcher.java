@@ -0,0 +1,208 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Coalesces concurrent clock-ins into micro-batches: one transaction and one pooled connection per batch
+@Service
+public class ClockInBatcher {
+
+    // Outcome handed back to each caller; attendance is null when the employee had already clocked in
+    public record ClockInResult(Attendance attendance) {
+        public boolean alreadyClockedIn() {
+            return attendance == null;
+        }
+    }
+
+    private record PendingClockIn(String employeeId, LocalDateTime clockIn, CompletableFuture<ClockInResult> result) {
+
+        // The attendance day is the one the clock-in was submitted on, not the one the batch happens to flush on
+        LocalDate date() {
+            return clockIn.toLocalDate();
+        }
+    }
+
+    private record Day(String employeeId, LocalDate date) {}
+
+    private final AttendanceRepository attendanceRepository;
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final ShiftRuleEngine shiftRuleEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingClockIn> queue;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ClockInBatcher(AttendanceRepository attendanceRepository,
+                          EmployeeRepository employeeRepository,
+                          AttendanceSummaryService attendanceSummaryService,
+                          ShiftRuleEngine shiftRuleEngine,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${attendance.clock-in.batch-size:200}") int maxBatchSize,
+                          @Value("${attendance.clock-in.max-wait-ms:10}") long maxWaitMillis,
+                          @Value("${attendance.clock-in.queue-capacity:10000}") int queueCapacity) {
+        this.attendanceRepository = attendanceRepository;
+        this.employeeRepository = employeeRepository;
+        this.attendanceSummaryService = attendanceSummaryService;
+        this.shiftRuleEngine = shiftRuleEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("clock-in-batcher").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        // Anything still queued is answered rather than left hanging
+        List<PendingClockIn> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(p -> p.result().completeExceptionally(new RejectedExecutionException("Clock-in service is shutting down")));
+    }
+
+    // Queue a clock-in for the next batch; fails fast when the queue is full instead of piling up waiters
+    public CompletableFuture<ClockInResult> submit(String employeeId) {
+        return submit(employeeId, LocalDateTime.now());
+    }
+
+    // Queue a clock-in taken at the given time
+    CompletableFuture<ClockInResult> submit(String employeeId, LocalDateTime clockIn) {
+        PendingClockIn pending = new PendingClockIn(employeeId, clockIn, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            pending.result().completeExceptionally(new RejectedExecutionException("Clock-in queue is full, please retry"));
+        }
+        return pending.result();
+    }
+
+    private void drainLoop() {
+        List<PendingClockIn> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                // Give concurrent callers a short window to join this batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingClockIn next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.forEach(p -> p.result().completeExceptionally(new RejectedExecutionException("Clock-in was not processed")));
+                batch.clear();
+            }
+        }
+    }
+
+    // Writes one batch in a single transaction and completes every caller's future: one multi-row
+    // INSERT ... ON CONFLICT DO NOTHING RETURNING *, so the unique index settles duplicates, including races with other
+    // replicas, without a read before the write, and one summary upsert over the rows it returned.
+    private void flush(List<PendingClockIn> batch) {
+        List<PendingClockIn> accepted = new ArrayList<>(batch.size());
+        List<Attendance> rows = new ArrayList<>(batch.size());
+        try {
+            // An unknown or deleted employee would fail the foreign key and abort the whole transaction, so those
+            // callers are turned away up front, with one query for the batch
+            Set<String> employeeIds = batch.stream().map(PendingClockIn::employeeId).filter(Objects::nonNull).collect(Collectors.toSet());
+            Set<String> known = employeeIds.isEmpty() ? Set.of() : employeeRepository.findIdsByIdInAndIsDeletedFalse(employeeIds);
+            batch.removeIf(pending -> {
+                if (known.contains(pending.employeeId())) {
+                    return false;
+                }
+                pending.result().completeExceptionally(new IllegalArgumentException("Employee not found"));
+                return true;
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // One lookup for the whole batch picks each employee's shift rule
+                Map<String, String> departments = shiftRuleEngine.departmentsOf(known);
+
+                // Repeats of an employee and day inside this batch would only bounce off the index, so only the first
+                // goes in the statement; a batch that spans midnight keeps one clock-in per employee for each day
+                Map<Day, PendingClockIn> firsts = new LinkedHashMap<>();
+                batch.forEach(pending -> firsts.putIfAbsent(new Day(pending.employeeId(), pending.date()), pending));
+                int size = firsts.size();
+                String[] ids = new String[size];
+                String[] employees = new String[size];
+                LocalDate[] dates = new LocalDate[size];
+                LocalDateTime[] clockIns = new LocalDateTime[size];
+                String[] statuses = new String[size];
+                int i = 0;
+                for (PendingClockIn pending : firsts.values()) {
+                    ids[i] = UUID.randomUUID().toString();
+                    employees[i] = pending.employeeId();
+                    dates[i] = pending.date();
+                    clockIns[i] = pending.clockIn();
+                    statuses[i] = shiftRuleEngine.atClockIn(departments.get(pending.employeeId()), pending.clockIn()).name();
+                    i++;
+                }
+
+                List<Attendance> inserted = attendanceRepository.insertClockInsIfAbsent(ids, employees, dates, clockIns, statuses);
+                attendanceSummaryService.addAll(inserted);
+                for (Attendance attendance : inserted) {
+                    accepted.add(firsts.get(new Day(attendance.getEmployeeId(), attendance.getDate())));
+                    rows.add(attendance);
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+            batch.clear();
+            return;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).result().complete(new ClockInResult(rows.get(i)));
+        }
+        // complete() is a no-op for the futures answered above, so this only reaches the duplicates
+        batch.forEach(p -> p.result().complete(new ClockInResult(null)));
+        batch.clear();
+    }
+}
@@ -0,0 +1,171 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+// Working-day calendar: weekends plus the public holidays listed in one file per country
+// (holiday-calendar.location + <COUNTRY>.txt). Each country-year is precomputed once into a bitset with one bit
+// per day of the year, so counting the working days in a range is a popcount over at most six words.
+@Service
+public class HolidayCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(HolidayCalendar.class);
+
+    // Working days of one year; bit i stands for day-of-year i + 1
+    private record YearBits(long[] words) {
+
+        static YearBits of(int year, Set<DayOfWeek> weekend, Set<LocalDate> holidays) {
+            LocalDate first = LocalDate.of(year, 1, 1);
+            long[] words = new long[(first.lengthOfYear() + 63) >>> 6];
+            for (int i = 0; i < first.lengthOfYear(); i++) {
+                LocalDate date = first.plusDays(i);
+                if (!weekend.contains(date.getDayOfWeek()) && !holidays.contains(date)) {
+                    words[i >>> 6] |= 1L << (i & 63);
+                }
+            }
+            return new YearBits(words);
+        }
+
+        boolean get(int index) {
+            return (words[index >>> 6] & (1L << (index & 63))) != 0;
+        }
+
+        // Set bits in [from, to)
+        int count(int from, int to) {
+            if (from >= to) {
+                return 0;
+            }
+            int first = from >>> 6;
+            int last = (to - 1) >>> 6;
+            long firstMask = -1L << (from & 63);
+            long lastMask = -1L >>> (63 - ((to - 1) & 63));
+            if (first == last) {
+                return Long.bitCount(words[first] & firstMask & lastMask);
+            }
+            int count = Long.bitCount(words[first] & firstMask);
+            for (int word = first + 1; word < last; word++) {
+                count += Long.bitCount(words[word]);
+            }
+            return count + Long.bitCount(words[last] & lastMask);
+        }
+    }
+
+    private record Key(String country, int year) {}
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final String defaultCountry;
+    private final Set<DayOfWeek> weekend;
+    private final Map<String, Set<LocalDate>> holidays = new ConcurrentHashMap<>();
+    private final Map<Key, YearBits> years = new ConcurrentHashMap<>();
+
+    public HolidayCalendar(ResourceLoader resourceLoader,
+                           @Value("${holiday-calendar.location:classpath:holidays/}") String location,
+                           @Value("${holiday-calendar.country:US}") String defaultCountry,
+                           @Value("${holiday-calendar.weekend:SATURDAY,SUNDAY}") List<DayOfWeek> weekend) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.defaultCountry = defaultCountry;
+        this.weekend = weekend.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekend);
+    }
+
+    // Working days in [from, to], both ends included, in the default country
+    public int workingDays(LocalDate from, LocalDate to) {
+        return workingDays(defaultCountry, from, to);
+    }
+
+    // Working days in [from, to], both ends included
+    public int workingDays(String country, LocalDate from, LocalDate to) {
+        int count = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            int start = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int end = year == to.getYear() ? to.getDayOfYear() : LocalDate.of(year, 12, 31).getDayOfYear();
+            count += bits(country, year).count(start, end);
+        }
+        return count;
+    }
+
+    // Working days in a month in the default country, e.g. the expected attendance days or a proration base
+    public int workingDays(YearMonth month) {
+        return workingDays(month.atDay(1), month.atEndOfMonth());
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return isWorkingDay(defaultCountry, date);
+    }
+
+    public boolean isWorkingDay(String country, LocalDate date) {
+        return bits(country, date.getYear()).get(date.getDayOfYear() - 1);
+    }
+
+    private YearBits bits(String country, int year) {
+        Key key = new Key(country.toUpperCase(Locale.ROOT), year);
+        YearBits bits = years.get(key);
+        if (bits == null) {
+            bits = YearBits.of(year, weekend, holidays(key.country()));
+            years.putIfAbsent(key, bits);
+        }
+        return bits;
+    }
+
+    // Read outside the maps' locks: the file is I/O and a virtual thread must not block while holding one
+    private Set<LocalDate> holidays(String country) {
+        Set<LocalDate> dates = holidays.get(country);
+        if (dates == null) {
+            dates = load(country);
+            holidays.putIfAbsent(country, dates);
+        }
+        return dates;
+    }
+
+    // One ISO date per line, optionally followed by a name; blank lines and # comments are skipped
+    private Set<LocalDate> load(String country) {
+        Resource resource = resourceLoader.getResource(location + country + ".txt");
+        if (!resource.exists()) {
+            log.warn("No holiday calendar for {} at {}, counting weekends only", country, resource.getDescription());
+            return Set.of();
+        }
+        Set<LocalDate> dates = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String date = line.split("\\s+", 2)[0];
+                try {
+                    dates.add(LocalDate.parse(date));
+                } catch (DateTimeParseException e) {
+                    throw new IllegalStateException("Invalid date '" + date + "' in " + resource.getDescription() + " line " + number, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + resource.getDescription(), e);
+        }
+        return Set.copyOf(dates);
+    }
+}
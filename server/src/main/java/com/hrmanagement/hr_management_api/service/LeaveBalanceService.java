@@ -0,0 +1,190 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.LeaveBalance;
+import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestStatus;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
+import com.hrmanagement.hr_management_api.repository.LeaveBalanceRepository;
+import com.hrmanagement.hr_management_api.repository.LeaveRequestRepository;
+
+// Keeps leave_balances in step with leave_requests: every write applies its delta in the same transaction and is
+// rolled back when it would take an employee past LeaveRequestType.getMaxDaysPerYear. The upsert locks the balance
+// row, so concurrent requests against the same allowance are checked one after the other. A rebuild locks the balance
+// table for its delete and insert, so deltas committed while it runs are neither lost nor counted twice.
+@Service
+public class LeaveBalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaveBalanceService.class);
+
+    // What one leave request counts against its year's allowance; null stands for one that counts for nothing
+    public record Usage(String employeeId, int year, LeaveRequestType type, LeaveRequestStatus status, int days) {
+
+        public static Usage of(LeaveRequest leaveRequest) {
+            if (leaveRequest == null || Boolean.TRUE.equals(leaveRequest.isDeleted())
+                    || leaveRequest.getLeaveRequestType() == null
+                    || leaveRequest.getStartDate() == null || leaveRequest.getEndDate() == null
+                    || (leaveRequest.getLeaveRequestStatus() != LeaveRequestStatus.APPROVED
+                        && leaveRequest.getLeaveRequestStatus() != LeaveRequestStatus.PENDING)) {
+                return null;
+            }
+            // Same rule as LeaveBalanceRepository.DAYS
+            int days = leaveRequest.getTotalDays() != null
+                    ? leaveRequest.getTotalDays()
+                    : (int) ChronoUnit.DAYS.between(leaveRequest.getStartDate(), leaveRequest.getEndDate()) + 1;
+            return new Usage(leaveRequest.getEmployeeId(), leaveRequest.getStartDate().getYear(),
+                    leaveRequest.getLeaveRequestType(), leaveRequest.getLeaveRequestStatus(), days);
+        }
+
+        boolean sameBalance(Usage other) {
+            return other != null && employeeId.equals(other.employeeId) && year == other.year && type == other.type;
+        }
+    }
+
+    // Thrown inside the write's transaction, so the leave request and its delta are both rolled back
+    public static class AllowanceExceededException extends RuntimeException {
+        public AllowanceExceededException(String message) {
+            super(message);
+        }
+    }
+
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final LeaveBalanceRepository balanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public LeaveBalanceService(LeaveRequestRepository leaveRequestRepository,
+                               LeaveBalanceRepository balanceRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.balanceRepository = balanceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Save a leave request and move its usage from the before-snapshot to its new state. Callers take the snapshot
+    // when they load the request; if another write lands in between, LeaveRequest's @Version fails this save and the
+    // delta rolls back with it
+    public LeaveRequest save(LeaveRequest leaveRequest, Usage before) {
+        return transactionTemplate.execute(status -> {
+            LeaveRequest saved = leaveRequestRepository.save(leaveRequest);
+            replace(before, Usage.of(saved));
+            return saved;
+        });
+    }
+
+    // Save several requests at once; befores[i] is the snapshot taken for leaveRequests[i] before it was changed
+    public List<LeaveRequest> saveAll(List<LeaveRequest> leaveRequests, List<Usage> befores) {
+        return transactionTemplate.execute(status -> {
+            List<LeaveRequest> saved = leaveRequestRepository.saveAll(leaveRequests);
+            for (int i = 0; i < saved.size(); i++) {
+                replace(befores.get(i), Usage.of(saved.get(i)));
+            }
+            return saved;
+        });
+    }
+
+    // Permanently delete a leave request and release whatever it counted for
+    public void delete(LeaveRequest leaveRequest) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Usage before = Usage.of(leaveRequest);
+            leaveRequestRepository.delete(leaveRequest);
+            replace(before, null);
+        });
+    }
+
+    // Withdraw one usage and add another; joins the caller's transaction when there is one.
+    // Only a change that adds days to a balance is checked against the allowance.
+    public void replace(Usage before, Usage after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        apply(before, -1);
+        int total = apply(after, 1);
+        if (after == null) {
+            return;
+        }
+        int added = after.days() - (after.sameBalance(before) ? before.days() : 0);
+        int allowance = after.type().getMaxDaysPerYear();
+        if (added > 0 && total > allowance) {
+            throw new AllowanceExceededException(String.format(
+                    "%s allowance exceeded: %d days requested, %d of %d days left in %d",
+                    after.type().getDisplayName(), after.days(), Math.max(0, allowance - (total - added)), allowance, after.year()));
+        }
+    }
+
+    private int apply(Usage usage, int sign) {
+        if (usage == null || usage.employeeId() == null) {
+            return 0;
+        }
+        return balanceRepository.applyDelta(UUID.randomUUID().toString(), usage.employeeId(), usage.year(), usage.type().name(),
+                usage.status() == LeaveRequestStatus.APPROVED ? sign * usage.days() : 0,
+                usage.status() == LeaveRequestStatus.PENDING ? sign * usage.days() : 0,
+                LocalDateTime.now());
+    }
+
+    // One employee's balance for a type and year
+    public LeaveBalance getBalance(String employeeId, int year, LeaveRequestType type) {
+        return balanceRepository.findByEmployeeIdAndYearAndLeaveRequestType(employeeId, year, type)
+                .orElseGet(() -> LeaveBalance.empty(employeeId, year, type));
+    }
+
+    // One employee's balances for a year, every type included
+    public List<LeaveBalance> getBalances(String employeeId, int year) {
+        Map<LeaveRequestType, LeaveBalance> stored = balanceRepository.findByEmployeeIdAndYear(employeeId, year).stream()
+                .collect(Collectors.toMap(LeaveBalance::getLeaveRequestType, Function.identity()));
+        return Arrays.stream(LeaveRequestType.values())
+                .map(type -> stored.getOrDefault(type, LeaveBalance.empty(employeeId, year, type)))
+                .toList();
+    }
+
+    // Recompute one year from the leave request table; returns the number of balance rows written
+    public int rebuildYear(int year) {
+        Integer rows = transactionTemplate.execute(status -> {
+            balanceRepository.lockForRebuild();
+            balanceRepository.deleteYear(year);
+            return balanceRepository.rebuildYear(year, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Recompute every year from the leave request table; returns the number of balance rows written
+    public int rebuildAll() {
+        Integer rows = transactionTemplate.execute(status -> {
+            balanceRepository.lockForRebuild();
+            balanceRepository.deleteAllBalances();
+            return balanceRepository.rebuildAll();
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Backfill on first start, after the data loader has seeded leave requests without going through this service
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillIfEmpty() {
+        if (balanceRepository.count() == 0 && leaveRequestRepository.countByIsDeletedFalse() > 0) {
+            log.info("Leave balances are empty, rebuilt {} rows", rebuildAll());
+        }
+    }
+
+    // Nightly repair of the current year, the only one still being written to in normal use
+    @Scheduled(cron = "${leave.balance.rebuild-cron:0 45 2 * * *}")
+    void rebuildCurrentYear() {
+        rebuildYear(LocalDate.now().getYear());
+    }
+}
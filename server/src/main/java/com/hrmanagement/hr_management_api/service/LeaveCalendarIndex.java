@@ -0,0 +1,165 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hrmanagement.hr_management_api.model.dto.LeaveRequestRow;
+import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestStatus;
+import com.hrmanagement.hr_management_api.repository.LeaveRequestRepository;
+import com.hrmanagement.hr_management_api.util.IntervalTree;
+
+// In-memory calendar of approved and pending leave: one interval tree across everyone for "who is off" queries.
+// Loaded after startup, kept in step by the leave request write paths (call update/remove after the write has
+// committed), and reloaded on a schedule to pick up writes made elsewhere (other nodes, manual SQL). It can lag the
+// database, so the overlap guard on submissions asks the database instead
+// (LeaveRequestRepository.findCalendarRowsOverlapping).
+@Service
+public class LeaveCalendarIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaveCalendarIndex.class);
+
+    private static final Set<LeaveRequestStatus> INDEXED = EnumSet.of(LeaveRequestStatus.APPROVED, LeaveRequestStatus.PENDING);
+
+    private final LeaveRequestRepository leaveRequestRepository;
+
+    // Writers take the lock and only mark the tree stale; the next read rebuilds it once under the lock, so a burst
+    // of writes costs one sort instead of one per write. Readers of a current tree never lock.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, LeaveRequestRow> byId = new HashMap<>();
+    private volatile IntervalTree<LeaveRequestRow> everyone = tree(List.of());
+    private volatile boolean stale;
+    private volatile boolean loaded;
+
+    public LeaveCalendarIndex(LeaveRequestRepository leaveRequestRepository) {
+        this.leaveRequestRepository = leaveRequestRepository;
+    }
+
+    // Everyone on approved leave (and pending, when asked) on any day of [startDate, endDate], by start date
+    public List<LeaveRequestRow> off(LocalDate startDate, LocalDate endDate, boolean includePending) {
+        ensureLoaded();
+        List<LeaveRequestRow> rows = current().overlapping(startDate, endDate);
+        if (!includePending) {
+            rows.removeIf(row -> row.leaveRequestStatus() != LeaveRequestStatus.APPROVED);
+        }
+        return rows;
+    }
+
+    // Index a saved leave request, or drop it when it is deleted or no longer approved or pending
+    public void update(LeaveRequest leaveRequest) {
+        updateAll(List.of(leaveRequest));
+    }
+
+    public void updateAll(Collection<LeaveRequest> leaveRequests) {
+        lock.lock();
+        try {
+            boolean changed = false;
+            for (LeaveRequest leaveRequest : leaveRequests) {
+                changed |= byId.remove(leaveRequest.getId()) != null;
+                if (indexed(leaveRequest)) {
+                    byId.put(leaveRequest.getId(), LeaveRequestRow.of(leaveRequest));
+                    changed = true;
+                }
+            }
+            if (changed) {
+                stale = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drop a permanently deleted leave request
+    public void remove(String id) {
+        lock.lock();
+        try {
+            if (byId.remove(id) != null) {
+                stale = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reload everything from the database. Holding the lock across the query means an update that waited
+    // for it is applied on top of the reloaded state, never overwritten by it.
+    public int rebuild() {
+        lock.lock();
+        try {
+            List<LeaveRequestRow> rows = leaveRequestRepository.findCalendarRows();
+            byId.clear();
+            rows.forEach(row -> byId.put(row.id(), row));
+            everyone = tree(rows);
+            stale = false;
+            loaded = true;
+            return rows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // After the data loader has seeded leave requests without going through this index
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        log.info("Leave calendar index loaded with {} approved and pending leave requests", rebuild());
+    }
+
+    @Scheduled(cron = "${leave.calendar.rebuild-cron:0 */10 * * * *}")
+    void reload() {
+        rebuild();
+    }
+
+    // A request can arrive before the ready event
+    private void ensureLoaded() {
+        if (!loaded) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // The tree with every write so far, rebuilt here when a write has marked it stale
+    private IntervalTree<LeaveRequestRow> current() {
+        if (stale) {
+            lock.lock();
+            try {
+                if (stale) {
+                    everyone = tree(byId.values());
+                    stale = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return everyone;
+    }
+
+    private static boolean indexed(LeaveRequest leaveRequest) {
+        return !Boolean.TRUE.equals(leaveRequest.isDeleted())
+                && INDEXED.contains(leaveRequest.getLeaveRequestStatus())
+                && leaveRequest.getStartDate() != null
+                && leaveRequest.getEndDate() != null;
+    }
+
+    private static IntervalTree<LeaveRequestRow> tree(Collection<LeaveRequestRow> rows) {
+        return IntervalTree.of(rows, LeaveRequestRow::startDate, LeaveRequestRow::endDate);
+    }
+}
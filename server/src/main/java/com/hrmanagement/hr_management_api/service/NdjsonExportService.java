@@ -0,0 +1,65 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Writes repository streams as newline-delimited JSON without materializing the result list
+@Service
+public class NdjsonExportService {
+
+    // Detach everything loaded so far after this many rows so heap stays flat
+    static final int CLEAR_INTERVAL = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter writer;
+
+    public NdjsonExportService(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writer = objectMapper.writer();
+    }
+
+    // The query runs on the async response thread, inside its own read-only transaction
+    // (PostgreSQL only honours the JDBC fetch size when autocommit is off)
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> query) {
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                writeRows(rows.iterator(), new BufferedOutputStream(outputStream));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error writing export", e);
+            }
+        });
+    }
+
+    private <T> void writeRows(Iterator<T> rows, OutputStream out) throws IOException {
+        int written = 0;
+        while (rows.hasNext()) {
+            out.write(writer.writeValueAsBytes(rows.next()));
+            out.write('\n');
+            if (++written % CLEAR_INTERVAL == 0) {
+                out.flush();
+                entityManager.clear();
+            }
+        }
+        out.flush();
+    }
+}
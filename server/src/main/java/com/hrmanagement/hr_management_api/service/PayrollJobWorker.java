@@ -0,0 +1,262 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.entity.PayrollJob;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollJobRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Drains payroll_jobs: each worker thread leases a batch with FOR UPDATE SKIP LOCKED, checks the batch's payrolls and
+// moves them to COMPLETED (with paidDate) or FAILED in one transaction. Any number of threads and replicas can drain
+// the queue side by side, since a claimed job is invisible to other claims until its lease runs out, and the
+// PROCESSING -> COMPLETED/FAILED update is conditional, so a payroll is finished at most once even then.
+// A batch that throws is released for retry with exponential backoff; after payroll.jobs.max-attempts its payrolls fail.
+// There is no payment integration: "processing" a payroll only validates it (see rejection) and records the outcome.
+// This is the place where a real payment call would go, between the checks and the COMPLETED update.
+@Service
+public class PayrollJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollJobWorker.class);
+
+    private final PayrollJobRepository payrollJobRepository;
+    private final PayrollRepository payrollRepository;
+    private final EmployeeRepository employeeRepository;
+    private final PayrollTransitionService payrollTransitionService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final ExecutorService executor;
+
+    private volatile boolean running;
+
+    public PayrollJobWorker(PayrollJobRepository payrollJobRepository,
+                            PayrollRepository payrollRepository,
+                            EmployeeRepository employeeRepository,
+                            PayrollTransitionService payrollTransitionService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${payroll.jobs.enabled:true}") boolean enabled,
+                            @Value("${payroll.jobs.workers:4}") int workers,
+                            @Value("${payroll.jobs.batch-size:100}") int batchSize,
+                            @Value("${payroll.jobs.poll-interval-ms:1000}") long pollIntervalMillis,
+                            @Value("${payroll.jobs.lease-seconds:300}") long leaseSeconds,
+                            @Value("${payroll.jobs.max-attempts:5}") int maxAttempts,
+                            @Value("${payroll.jobs.backoff-ms:5000}") long backoffMillis,
+                            @Value("${payroll.jobs.max-backoff-ms:600000}") long maxBackoffMillis) {
+        this.payrollJobRepository = payrollJobRepository;
+        this.payrollRepository = payrollRepository;
+        this.employeeRepository = employeeRepository;
+        this.payrollTransitionService = payrollTransitionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.executor = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("payroll-job-", 0).daemon().factory());
+    }
+
+    // Started once the application is up, after queueing payrolls left in PROCESSING without a job
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        sweep();
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::drainLoop);
+        }
+    }
+
+    // Claimed batches that are cut short stay leased and are picked up again once the lease runs out
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public Optional<PayrollJob> getJob(String payrollId) {
+        return payrollJobRepository.findByPayrollId(payrollId);
+    }
+
+    // Catches payrolls moved to PROCESSING by a plain update, or by a transaction that lost its enqueue
+    @Scheduled(cron = "${payroll.jobs.sweep-cron:0 */5 * * * *}")
+    void sweep() {
+        int queued = payrollJobRepository.enqueueProcessing(LocalDateTime.now());
+        if (queued > 0) {
+            log.info("Queued {} processing payrolls that had no job", queued);
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                // Keep going while there is work; wait a poll interval once the queue is empty
+                if (processBatch() < batchSize) {
+                    Thread.sleep(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The claim itself failed (e.g. the database is down); back off before the next one
+                log.warn("Payroll job claim failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Claim and process one batch; returns the number of jobs claimed
+    int processBatch() {
+        // A fresh token per claim, so a worker whose lease ran out can no longer touch the jobs it held
+        String lockedBy = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<PayrollJob> jobs = payrollJobRepository.claim(lockedBy, now.plusSeconds(leaseSeconds), now, batchSize);
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+        try {
+            finish(jobs, lockedBy);
+        } catch (RuntimeException e) {
+            log.warn("Payroll job batch of {} failed, retrying: {}", jobs.size(), e.getMessage());
+            retry(jobs, lockedBy, e);
+        }
+        return jobs.size();
+    }
+
+    // Checks every payroll in the batch with two queries, then moves and drops them all in one transaction. Nothing is
+    // paid out here; a payroll that passes the checks is simply marked COMPLETED, which stamps its paidDate
+    private void finish(List<PayrollJob> jobs, String lockedBy) {
+        Map<String, Payroll> payrolls = payrollRepository.findAllById(jobs.stream().map(PayrollJob::getPayrollId).toList())
+                .stream().collect(Collectors.toMap(Payroll::getId, Function.identity()));
+        Set<String> employeeIds = payrolls.values().stream()
+                .map(Payroll::getEmployeeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> activeEmployees = employeeIds.isEmpty() ? Set.of() : employeeRepository.findIdsByIdInAndIsDeletedFalse(employeeIds);
+
+        List<String> completed = new ArrayList<>();
+        Map<PayrollJob, String> rejected = new LinkedHashMap<>();
+        List<String> done = new ArrayList<>();
+        for (PayrollJob job : jobs) {
+            Payroll payroll = payrolls.get(job.getPayrollId());
+            if (payroll == null || Boolean.TRUE.equals(payroll.isDeleted())
+                    || payroll.getPayrollStatus() != PayrollStatus.PROCESSING) {
+                // Nothing left to do, e.g. completed by hand meanwhile
+                done.add(job.getId());
+                continue;
+            }
+            String rejection = rejection(payroll, activeEmployees);
+            if (rejection != null) {
+                rejected.put(job, rejection);
+            } else {
+                completed.add(payroll.getId());
+                done.add(job.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            payrollTransitionService.moveAll(completed, PayrollStatus.COMPLETED);
+            payrollTransitionService.moveAll(rejected.keySet().stream().map(PayrollJob::getPayrollId).toList(), PayrollStatus.FAILED);
+            if (!done.isEmpty()) {
+                payrollJobRepository.deleteClaimed(done, lockedBy);
+            }
+            // Failed jobs are kept, without a run time, so the reason can be looked up
+            LocalDateTime now = LocalDateTime.now();
+            rejected.forEach((job, reason) -> payrollJobRepository.release(job.getId(), lockedBy, null, reason, now));
+        });
+        log.debug("Payroll job batch: {} completed, {} failed, {} already settled",
+                completed.size(), rejected.size(), done.size() - completed.size());
+    }
+
+    // Why a payroll cannot be paid, or null when it can
+    private static String rejection(Payroll payroll, Set<String> activeEmployees) {
+        if (payroll.getEmployeeId() == null || !activeEmployees.contains(payroll.getEmployeeId())) {
+            return "Employee not found";
+        }
+        if (payroll.getPayPeriodStart() == null || payroll.getPayPeriodEnd() == null
+                || payroll.getPayPeriodEnd().isBefore(payroll.getPayPeriodStart())) {
+            return "Invalid pay period";
+        }
+        if (payroll.getNetPay() == null || payroll.getNetPay().compareTo(BigDecimal.ZERO) < 0) {
+            return "Net pay must not be negative";
+        }
+        return null;
+    }
+
+    // Release every job of a failed batch for a later attempt, or fail its payroll once attempts are used up
+    private void retry(List<PayrollJob> jobs, String lockedBy, RuntimeException error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<String> exhausted = new ArrayList<>();
+                for (PayrollJob job : jobs) {
+                    if (job.getAttempts() >= maxAttempts) {
+                        exhausted.add(job.getPayrollId());
+                        payrollJobRepository.release(job.getId(), lockedBy, null, message, now);
+                    } else {
+                        payrollJobRepository.release(job.getId(), lockedBy, now.plusNanos(
+                                TimeUnit.MILLISECONDS.toNanos(backoff(job.getAttempts()))), message, now);
+                    }
+                }
+                payrollTransitionService.moveAll(exhausted, PayrollStatus.FAILED);
+            });
+        } catch (RuntimeException e) {
+            // The leases run out and the jobs are claimed again, counting this attempt
+            log.warn("Could not release payroll jobs for retry: {}", e.getMessage());
+        }
+    }
+
+    // Doubles per attempt up to the cap, with jitter so jobs that failed together do not retry together
+    private long backoff(int attempts) {
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempts - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
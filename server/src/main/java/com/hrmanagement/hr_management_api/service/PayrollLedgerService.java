@@ -0,0 +1,225 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.entity.PayrollTotal;
+import com.hrmanagement.hr_management_api.model.entity.PayrollYtd;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollTotalRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollYtdRepository;
+
+// Keeps payroll_totals (per status) and payroll_ytd (completed pay per employee and year) in step with payrolls:
+// every create, update, soft delete and status transition applies its deltas in the same transaction. Deltas are
+// summed per ledger row first and applied in key order, so a bulk write touches each hot row once and two bulk
+// writes lock the rows they share in the same order. A rebuild locks both tables, totals first like the deltas, for
+// its delete and insert, so deltas committed while it runs are neither lost nor counted twice.
+@Service
+public class PayrollLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollLedgerService.class);
+
+    // What one payroll counts for in the ledgers; null stands for one that counts for nothing
+    public record Entry(String employeeId, Integer year, PayrollStatus status, BigDecimal netPay) {
+
+        public static Entry of(Payroll payroll) {
+            if (payroll == null || Boolean.TRUE.equals(payroll.isDeleted()) || payroll.getPayrollStatus() == null) {
+                return null;
+            }
+            return new Entry(payroll.getEmployeeId(),
+                    payroll.getPayPeriodStart() != null ? payroll.getPayPeriodStart().getYear() : null,
+                    payroll.getPayrollStatus(),
+                    payroll.getNetPay() != null ? payroll.getNetPay() : BigDecimal.ZERO);
+        }
+
+        // The same payroll in another status, e.g. the state a transition started from
+        public Entry withStatus(PayrollStatus status) {
+            return new Entry(employeeId, year, status, netPay);
+        }
+
+        // Same rule as PayrollYtdRepository.RAW
+        boolean paid() {
+            return status == PayrollStatus.COMPLETED && employeeId != null && year != null;
+        }
+    }
+
+    private record YtdKey(String employeeId, int year) {}
+
+    private static final Comparator<YtdKey> YTD_ORDER =
+            Comparator.comparing(YtdKey::employeeId).thenComparingInt(YtdKey::year);
+
+    // Signed change to one ledger row
+    private static final class Delta {
+        long count;
+        BigDecimal amount = BigDecimal.ZERO;
+
+        void add(int sign, BigDecimal netPay) {
+            count += sign;
+            amount = sign > 0 ? amount.add(netPay) : amount.subtract(netPay);
+        }
+
+        boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+
+    // The deltas of one write, keyed in lock order
+    private static final class Deltas {
+        final Map<PayrollStatus, Delta> totals = new EnumMap<>(PayrollStatus.class);
+        final Map<YtdKey, Delta> ytd = new TreeMap<>(YTD_ORDER);
+
+        void add(Entry entry, int sign) {
+            if (entry == null) {
+                return;
+            }
+            totals.computeIfAbsent(entry.status(), status -> new Delta()).add(sign, entry.netPay());
+            if (entry.paid()) {
+                ytd.computeIfAbsent(new YtdKey(entry.employeeId(), entry.year()), key -> new Delta()).add(sign, entry.netPay());
+            }
+        }
+    }
+
+    private final PayrollRepository payrollRepository;
+    private final PayrollTotalRepository totalRepository;
+    private final PayrollYtdRepository ytdRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PayrollLedgerService(PayrollRepository payrollRepository,
+                                PayrollTotalRepository totalRepository,
+                                PayrollYtdRepository ytdRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.payrollRepository = payrollRepository;
+        this.totalRepository = totalRepository;
+        this.ytdRepository = ytdRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Save a payroll and move its ledger entry from the before-snapshot (null for a new payroll) to its new state
+    public Payroll save(Payroll payroll, Entry before) {
+        return transactionTemplate.execute(status -> {
+            Payroll saved = payrollRepository.save(payroll);
+            replace(before, Entry.of(saved));
+            return saved;
+        });
+    }
+
+    // Save new payrolls at once, with one delta per ledger row they touch
+    public List<Payroll> saveAll(List<Payroll> payrolls) {
+        return transactionTemplate.execute(status -> {
+            List<Payroll> saved = payrollRepository.saveAll(payrolls);
+            Deltas deltas = new Deltas();
+            saved.forEach(payroll -> deltas.add(Entry.of(payroll), 1));
+            apply(deltas);
+            return saved;
+        });
+    }
+
+    // Withdraw one entry and add another; joins the caller's transaction when there is one
+    public void replace(Entry before, Entry after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        deltas.add(before, -1);
+        deltas.add(after, 1);
+        apply(deltas);
+    }
+
+    // Move payrolls that all left the same status, e.g. the rows a bulk transition returned
+    public void moved(PayrollStatus from, List<Payroll> payrolls) {
+        Deltas deltas = new Deltas();
+        for (Payroll payroll : payrolls) {
+            Entry after = Entry.of(payroll);
+            if (after != null) {
+                deltas.add(after.withStatus(from), -1);
+                deltas.add(after, 1);
+            }
+        }
+        apply(deltas);
+    }
+
+    private void apply(Deltas deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas.totals.forEach((status, delta) -> {
+            if (!delta.isZero()) {
+                totalRepository.applyDelta(UUID.randomUUID().toString(), status.name(), delta.count, delta.amount, now);
+            }
+        });
+        deltas.ytd.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                ytdRepository.applyDelta(UUID.randomUUID().toString(), key.employeeId(), key.year(), delta.count, delta.amount, now);
+            }
+        });
+    }
+
+    // Live payrolls in a status and their net pay; a single-row read
+    public PayrollTotal getTotal(PayrollStatus status) {
+        return totalRepository.findByPayrollStatus(status).orElseGet(() -> {
+            PayrollTotal empty = new PayrollTotal();
+            empty.setPayrollStatus(status);
+            return empty;
+        });
+    }
+
+    // Net pay of an employee's completed payrolls in a year; a single-row read
+    public BigDecimal getPaid(String employeeId, int year) {
+        return ytdRepository.findByEmployeeIdAndYear(employeeId, year).map(PayrollYtd::getPaidNetPay).orElse(BigDecimal.ZERO);
+    }
+
+    // Net pay of an employee's completed payrolls over every year
+    public BigDecimal getPaid(String employeeId) {
+        return ytdRepository.sumPaidNetPayByEmployeeId(employeeId);
+    }
+
+    // Recompute both ledgers from the payroll table; returns the number of ledger rows written
+    public int rebuildAll() {
+        Integer rows = transactionTemplate.execute(status -> {
+            totalRepository.lockForRebuild();
+            ytdRepository.lockForRebuild();
+            totalRepository.deleteAllTotals();
+            ytdRepository.deleteAllYtd();
+            return totalRepository.rebuildAll() + ytdRepository.rebuildAll();
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Compare both ledgers with the raw sums and rebuild them if any row is off; returns the number of rows that were
+    public long reconcile() {
+        long mismatches = totalRepository.countMismatches() + ytdRepository.countMismatches();
+        if (mismatches > 0) {
+            log.warn("Payroll ledgers disagree with payrolls on {} rows, rebuilt {} rows", mismatches, rebuildAll());
+        }
+        return mismatches;
+    }
+
+    // Backfill on first start, after the data loader has seeded payrolls without going through this service
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillIfEmpty() {
+        if (totalRepository.count() == 0 && payrollRepository.countByIsDeletedFalse() > 0) {
+            log.info("Payroll ledgers are empty, rebuilt {} rows", rebuildAll());
+        }
+    }
+
+    // Nightly check against the raw sums, catching writes that went around this service
+    @Scheduled(cron = "${payroll.ledger.reconcile-cron:0 0 3 * * *}")
+    void reconcileNightly() {
+        reconcile();
+    }
+}
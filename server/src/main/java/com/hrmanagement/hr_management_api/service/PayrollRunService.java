@@ -0,0 +1,205 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.util.InClause;
+
+import jakarta.annotation.PreDestroy;
+
+// Bulk payroll creation: set-based validation up front, then JDBC-batched inserts in chunks on a bounded worker pool.
+// Each chunk goes through PayrollLedgerService, so its totals land in the chunk's transaction. Chunks only ever run on
+// the pool; once payroll.run.max-concurrent runs are in flight, further runs are turned away rather than queued.
+@Service
+public class PayrollRunService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollRunService.class);
+
+    // A rejected input row; index is its position in the submitted list
+    public record RowError(int index, String employeeId, String message) {}
+
+    // Outcome of one chunk, in submission order
+    public record ChunkReport(int chunk, int rows, int saved, int failed, long elapsedMillis) {}
+
+    // Ids of the created payrolls rather than the payrolls, which a monthly run has tens of thousands of
+    public record PayrollRunReport(int requested, int created, int failed,
+                                   List<ChunkReport> chunks, List<RowError> errors, List<String> ids) {}
+
+    private record Row(int index, Payroll payroll) {}
+
+    private record PayPeriod(String employeeId, LocalDate start, LocalDate end) {}
+
+    private record ChunkOutcome(ChunkReport report, List<String> saved, List<RowError> errors) {}
+
+    private final PayrollRepository payrollRepository;
+    private final EmployeeRepository employeeRepository;
+    private final PayrollLedgerService payrollLedgerService;
+    private final int chunkSize;
+    private final Semaphore runs;
+    private final ExecutorService executor;
+
+    public PayrollRunService(PayrollRepository payrollRepository,
+                             EmployeeRepository employeeRepository,
+                             PayrollLedgerService payrollLedgerService,
+                             @Value("${payroll.run.chunk-size:500}") int chunkSize,
+                             @Value("${payroll.run.parallelism:4}") int parallelism,
+                             @Value("${payroll.run.max-concurrent:2}") int maxConcurrentRuns) {
+        this.payrollRepository = payrollRepository;
+        this.employeeRepository = employeeRepository;
+        this.payrollLedgerService = payrollLedgerService;
+        this.chunkSize = chunkSize;
+        this.runs = new Semaphore(maxConcurrentRuns);
+        // The queue is bounded by the runs admitted, whose rows are already in memory
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("payroll-run-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Validates the whole run with two set-based queries, then saves the accepted rows chunk by chunk in parallel.
+    // Fails with RejectedExecutionException, before anything is saved, when too many runs are in flight.
+    public CompletableFuture<PayrollRunReport> run(List<Payroll> payrolls) {
+        if (!runs.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many payroll runs in progress, please retry"));
+        }
+        List<RowError> errors = new ArrayList<>();
+        List<List<Row>> chunks = new ArrayList<>();
+        try {
+            List<Row> accepted = validate(payrolls, errors);
+            for (int from = 0; from < accepted.size(); from += chunkSize) {
+                chunks.add(accepted.subList(from, Math.min(from + chunkSize, accepted.size())));
+            }
+        } catch (RuntimeException e) {
+            runs.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        List<CompletableFuture<ChunkOutcome>> outcomes = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            int chunk = i;
+            outcomes.add(CompletableFuture.supplyAsync(() -> saveChunk(chunk, chunks.size(), chunks.get(chunk)), executor));
+        }
+
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<ChunkReport> reports = new ArrayList<>(outcomes.size());
+            List<String> saved = new ArrayList<>();
+            for (CompletableFuture<ChunkOutcome> outcome : outcomes) {
+                reports.add(outcome.join().report());
+                saved.addAll(outcome.join().saved());
+                errors.addAll(outcome.join().errors());
+            }
+            errors.sort(Comparator.comparingInt(RowError::index));
+            return new PayrollRunReport(payrolls.size(), saved.size(), errors.size(), reports, errors, saved);
+        }).whenComplete((report, e) -> runs.release());
+    }
+
+    // Checks employees and existing pay periods for the whole run at once, then fills in defaults in memory
+    private List<Row> validate(List<Payroll> payrolls, List<RowError> errors) {
+        Set<String> employeeIds = payrolls.stream()
+                .filter(Objects::nonNull)
+                .map(Payroll::getEmployeeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<LocalDate> startDates = payrolls.stream()
+                .filter(Objects::nonNull)
+                .map(Payroll::getPayPeriodStart)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Set<String> activeEmployees = new HashSet<>();
+        Set<PayPeriod> taken = new HashSet<>();
+        for (List<String> slice : InClause.partition(employeeIds)) {
+            activeEmployees.addAll(employeeRepository.findIdsByIdInAndIsDeletedFalse(slice));
+            if (!startDates.isEmpty()) {
+                for (Object[] period : payrollRepository.findPayPeriodsByEmployeeIdIn(slice, startDates)) {
+                    taken.add(new PayPeriod((String) period[0], (LocalDate) period[1], (LocalDate) period[2]));
+                }
+            }
+        }
+
+        List<Row> accepted = new ArrayList<>(payrolls.size());
+        for (int i = 0; i < payrolls.size(); i++) {
+            Payroll payroll = payrolls.get(i);
+            String employeeId = payroll != null ? payroll.getEmployeeId() : null;
+            if (employeeId == null || !activeEmployees.contains(employeeId)) {
+                errors.add(new RowError(i, employeeId, "Employee not found"));
+            } else if (payroll.getPayPeriodStart() == null) {
+                errors.add(new RowError(i, employeeId, "Pay period start is required"));
+            } else if (!taken.add(new PayPeriod(employeeId, payroll.getPayPeriodStart(), payroll.getPayPeriodEnd()))) {
+                // Covers both rows already on file and repeats earlier in this run
+                errors.add(new RowError(i, employeeId, "Payroll already exists for this employee and pay period"));
+            } else {
+                applyDefaults(payroll);
+                accepted.add(new Row(i, payroll));
+            }
+        }
+        return accepted;
+    }
+
+    private void applyDefaults(Payroll payroll) {
+        // Don't set ID manually - let Hibernate generate it
+        if (payroll.getPayrollStatus() == null) {
+            payroll.setPayrollStatus(PayrollStatus.DRAFT);
+        }
+        if (payroll.getNetPay() == null) {
+            // Calculate net pay: salary + bonus - deductions
+            BigDecimal salary = payroll.getSalary() != null ? payroll.getSalary() : BigDecimal.ZERO;
+            BigDecimal bonus = payroll.getBonus() != null ? payroll.getBonus() : BigDecimal.ZERO;
+            BigDecimal deductions = payroll.getDeductions() != null ? payroll.getDeductions() : BigDecimal.ZERO;
+            payroll.setNetPay(salary.add(bonus).subtract(deductions));
+        }
+        payroll.setDeleted(false);
+    }
+
+    // Saves one chunk in one transaction; if anything in it fails, retries row by row so only the bad rows are reported
+    private ChunkOutcome saveChunk(int chunk, int chunkCount, List<Row> rows) {
+        long started = System.nanoTime();
+        List<String> saved = new ArrayList<>(rows.size());
+        List<RowError> errors = new ArrayList<>();
+        try {
+            payrollLedgerService.saveAll(rows.stream().map(Row::payroll).toList()).forEach(payroll -> saved.add(payroll.getId()));
+        } catch (RuntimeException chunkError) {
+            for (Row row : rows) {
+                // The rolled-back attempt already assigned an id and seeded the version; clear both so the entity
+                // counts as new again and the retry inserts instead of merging
+                row.payroll().setId(null);
+                row.payroll().setVersion(null);
+                try {
+                    saved.add(payrollLedgerService.save(row.payroll(), null).getId());
+                } catch (RuntimeException rowError) {
+                    errors.add(new RowError(row.index(), row.payroll().getEmployeeId(), rowError.getMessage()));
+                }
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Payroll run chunk {}/{}: {} saved, {} failed in {} ms",
+                chunk + 1, chunkCount, saved.size(), errors.size(), elapsedMillis);
+        return new ChunkOutcome(new ChunkReport(chunk, rows.size(), saved.size(), errors.size(), elapsedMillis), saved, errors);
+    }
+}
@@ -0,0 +1,146 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.PayrollJobRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.util.InClause;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Moves payrolls along PayrollStatus's transition table. The success path is a single conditional UPDATE ... RETURNING,
+// so two callers racing on the same payroll cannot both win; the loser gets a TransitionConflictException.
+// PayrollLedgerService moves the payroll's totals in the same transaction, and a payroll moved to PROCESSING is
+// queued for PayrollJobWorker in it too.
+@Service
+public class PayrollTransitionService {
+
+    // The payroll was not in a status it can move from (or not at the expected version) when the update ran
+    public static class TransitionConflictException extends RuntimeException {
+        public TransitionConflictException(String message) {
+            super(message);
+        }
+    }
+
+    private final PayrollRepository payrollRepository;
+    private final PayrollLedgerService payrollLedgerService;
+    private final PayrollJobRepository payrollJobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PayrollTransitionService(PayrollRepository payrollRepository,
+                                    PayrollLedgerService payrollLedgerService,
+                                    PayrollJobRepository payrollJobRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.payrollRepository = payrollRepository;
+        this.payrollLedgerService = payrollLedgerService;
+        this.payrollJobRepository = payrollJobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Move a payroll to a status, optionally only from the version the caller has seen; empty when there is no such payroll
+    public Optional<Payroll> transition(String id, PayrollStatus to, Long version) {
+        if (to.sources().isEmpty()) {
+            throw new IllegalArgumentException("No payroll can move to " + to);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // One statement per source status, so the ledger knows which status the payroll left
+        for (PayrollStatus from : to.sources()) {
+            Optional<Payroll> moved = transactionTemplate.execute(status -> {
+                forget(List.of(id));
+                Optional<Payroll> after = payrollRepository.transition(id, from.name(), to.name(), version,
+                        processedDate(to, now), paidDate(to, now), now);
+                after.ifPresent(payroll -> afterMove(from, to, List.of(payroll), now));
+                return after;
+            });
+            if (moved.isPresent()) {
+                return moved;
+            }
+        }
+
+        // Only the losing path pays for a read, to tell a missing payroll from a conflict
+        Optional<Payroll> current = payrollRepository.findByIdAndIsDeletedFalse(id);
+        if (current.isEmpty()) {
+            return current;
+        }
+        Payroll payroll = current.get();
+        if (version != null && !version.equals(payroll.getVersion())) {
+            throw new TransitionConflictException(String.format(
+                    "Payroll record was changed by someone else (version %d, expected %d)", payroll.getVersion(), version));
+        }
+        throw new TransitionConflictException(String.format(
+                "Payroll record is %s; only %s records can move to %s", payroll.getPayrollStatus(), describe(to), to));
+    }
+
+    // Approve every pending payroll among the ids; returns the payrolls that moved
+    public List<Payroll> approveAll(Collection<String> ids) {
+        return moveAll(ids, PayrollStatus.APPROVED);
+    }
+
+    // Move every payroll among the ids that is in the target's only source status, one UPDATE per slice, each slice
+    // in its own transaction unless the caller has one; returns the payrolls that moved
+    public List<Payroll> moveAll(Collection<String> ids, PayrollStatus to) {
+        if (to.sources().size() != 1) {
+            throw new IllegalArgumentException("Payrolls can only be moved to " + to + " one at a time");
+        }
+        PayrollStatus from = to.sources().iterator().next();
+        LocalDateTime now = LocalDateTime.now();
+        List<Payroll> movedAll = new ArrayList<>();
+        for (List<String> slice : InClause.partition(new LinkedHashSet<>(ids))) {
+            movedAll.addAll(transactionTemplate.execute(status -> {
+                forget(slice);
+                List<Payroll> moved = payrollRepository.transitionStatus(
+                        slice, from.name(), to.name(), processedDate(to, now), paidDate(to, now), now);
+                afterMove(from, to, moved, now);
+                return moved;
+            }));
+        }
+        return movedAll;
+    }
+
+    // The UPDATE ... RETURNING rows are mapped onto Payroll, and Hibernate hands back an instance it already manages
+    // as it is, with the old status and version. With the session open for the whole request (open-in-view) the
+    // caller may have loaded these payrolls earlier, so pending changes are flushed and the instances detached first;
+    // getReference finds a managed instance without a query and otherwise only makes a proxy, which is dropped too.
+    private void forget(Collection<String> ids) {
+        entityManager.flush();
+        ids.forEach(id -> entityManager.detach(entityManager.getReference(Payroll.class, id)));
+    }
+
+    // Ledger deltas, and a processing job for payrolls that just entered PROCESSING
+    private void afterMove(PayrollStatus from, PayrollStatus to, List<Payroll> payrolls, LocalDateTime now) {
+        payrollLedgerService.moved(from, payrolls);
+        if (to == PayrollStatus.PROCESSING) {
+            payrolls.forEach(payroll -> payrollJobRepository.enqueue(UUID.randomUUID().toString(), payroll.getId(), now));
+        }
+    }
+
+    private static LocalDate processedDate(PayrollStatus to, LocalDateTime now) {
+        return to == PayrollStatus.APPROVED ? now.toLocalDate() : null;
+    }
+
+    private static LocalDateTime paidDate(PayrollStatus to, LocalDateTime now) {
+        return to == PayrollStatus.COMPLETED ? now : null;
+    }
+
+    private static String describe(PayrollStatus to) {
+        return String.join(" or ", to.sources().stream().map(status -> status.name().toLowerCase(Locale.ROOT)).toList());
+    }
+}
@@ -0,0 +1,152 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hrmanagement.hr_management_api.model.entity.BaseEntity;
+import com.hrmanagement.hr_management_api.model.entity.Department;
+import com.hrmanagement.hr_management_api.model.entity.Position;
+import com.hrmanagement.hr_management_api.repository.DepartmentRepository;
+import com.hrmanagement.hr_management_api.repository.PositionRepository;
+import com.hrmanagement.hr_management_api.util.KeysetCursor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Read-through cache for departments and positions. Both tables are small and change a few times a month,
+// so each is held as one snapshot of every row, loaded on first read and dropped by every write.
+// Cached entities are shared between requests: read them, never modify them; writes go through the repository.
+@Service
+public class ReferenceDataCache {
+
+    private static final String ALL = "all";
+
+    // Loads run on their own virtual thread: a synchronous Caffeine load holds a map lock for the whole query,
+    // which pins a virtual request thread to its carrier; waiting on the async load's future does not
+    private static final Executor LOADER = task -> Thread.ofVirtual().name("reference-data-load").start(task);
+
+    // Every row of a table in keyset order, the non-deleted subset, and every row by id
+    private record Snapshot<T extends BaseEntity>(List<T> rows, List<T> active, Map<String, T> byId) {
+
+        static <T extends BaseEntity> Snapshot<T> of(List<T> rows, Function<T, String> id) {
+            List<T> sorted = rows.stream().sorted(KeysetCursor.comparator(id)).toList();
+            return new Snapshot<>(sorted,
+                    sorted.stream().filter(row -> !row.isDeleted()).toList(),
+                    sorted.stream().collect(Collectors.toUnmodifiableMap(id, Function.identity())));
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncLoadingCache<String, Snapshot<Department>> departments;
+    private final AsyncLoadingCache<String, Snapshot<Position>> positions;
+
+    public ReferenceDataCache(DepartmentRepository departmentRepository,
+                              PositionRepository positionRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${reference-data.cache.expire-minutes:10}") long expireMinutes) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Expiry only covers writes made outside this instance (other nodes, manual SQL); local writes invalidate
+        this.departments = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .executor(LOADER)
+                .buildAsync(key -> Snapshot.of(detached(departmentRepository::findAll), Department::getId));
+        this.positions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .executor(LOADER)
+                .buildAsync(key -> Snapshot.of(detached(positionRepository::findAll), Position::getId));
+        CaffeineCacheMetrics.monitor(meterRegistry, departments.synchronous(), "departments");
+        CaffeineCacheMetrics.monitor(meterRegistry, positions.synchronous(), "positions");
+    }
+
+    // Runs the query in its own read-only transaction and detaches every row before it is published. Should the load
+    // ever share a persistence context (a caller's open session in view), the cached rows must not stay attached to it:
+    // that session would flush changes made to them and lazy loads would run on whichever request touched them next
+    private <T> List<T> detached(Supplier<List<T>> query) {
+        return readOnlyTransaction.execute(status -> {
+            List<T> rows = query.get();
+            rows.forEach(entityManager::detach);
+            return rows;
+        });
+    }
+
+    // All departments, deleted ones included
+    public List<Department> allDepartments() {
+        return departments.get(ALL).join().rows();
+    }
+
+    // Non-deleted departments
+    public List<Department> activeDepartments() {
+        return departments.get(ALL).join().active();
+    }
+
+    // Keyset page of non-deleted departments, ordered by (createdAt, id)
+    public Window<Department> activeDepartments(ScrollPosition position, Limit limit) {
+        return KeysetCursor.page(activeDepartments(), Department::getId, position, limit);
+    }
+
+    // Non-deleted department by id
+    public Optional<Department> department(String id) {
+        return Optional.ofNullable(departments.get(ALL).join().byId().get(id)).filter(department -> !department.isDeleted());
+    }
+
+    // All positions, deleted ones included
+    public List<Position> allPositions() {
+        return positions.get(ALL).join().rows();
+    }
+
+    // Non-deleted positions
+    public List<Position> activePositions() {
+        return positions.get(ALL).join().active();
+    }
+
+    // Keyset page of non-deleted positions, ordered by (createdAt, id)
+    public Window<Position> activePositions(ScrollPosition position, Limit limit) {
+        return KeysetCursor.page(activePositions(), Position::getId, position, limit);
+    }
+
+    // Non-deleted position by id
+    public Optional<Position> position(String id) {
+        return Optional.ofNullable(positions.get(ALL).join().byId().get(id)).filter(position -> !position.isDeleted());
+    }
+
+    // In-memory equivalent of LOWER(value) LIKE LOWER('%term%'), for searches over cached rows
+    public static boolean containsIgnoreCase(String value, String term) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(term.toLowerCase(Locale.ROOT));
+    }
+
+    // Call after any committed write to departments
+    public void invalidateDepartments() {
+        departments.synchronous().invalidateAll();
+    }
+
+    // Call after any committed write to positions
+    public void invalidatePositions() {
+        positions.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,135 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hrmanagement.hr_management_api.model.dto.EmployeeSummary;
+import com.hrmanagement.hr_management_api.model.entity.Department;
+import com.hrmanagement.hr_management_api.model.entity.Position;
+import com.hrmanagement.hr_management_api.repository.DepartmentRepository;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.PositionRepository;
+
+// Ranked search over employee names and department/position names and descriptions, served by the pg_trgm GIN
+// indexes from V9. A row matches when it contains the term or is word-similar to it (pg_trgm.word_similarity_threshold,
+// 0.6 by default), and results come back best match first. A single character is too short to be word-similar to
+// anything at that threshold, so it matches as a prefix instead ("j" finds "john smith", not "mary jones"). The ranked
+// queries return ids only: employees are then read by primary key, departments and positions come from
+// ReferenceDataCache.
+@Service
+public class SearchService {
+
+    // Shorter terms have no trigram of their own, so only the similarity operator can use the index
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+
+    // Shorter terms are never word-similar enough to match, so they are searched as a prefix
+    private static final int MIN_SIMILARITY_LENGTH = 2;
+
+    public record SearchResults(List<EmployeeSummary> employees, List<Department> departments, List<Position> positions) {}
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final PositionRepository positionRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public SearchService(EmployeeRepository employeeRepository,
+                         DepartmentRepository departmentRepository,
+                         PositionRepository positionRepository,
+                         ReferenceDataCache referenceDataCache,
+                         @Value("${search.default-limit:10}") int defaultLimit,
+                         @Value("${search.max-limit:50}") int maxLimit) {
+        this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.positionRepository = positionRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // Best matches of every kind, up to limit (null for search.default-limit) of each
+    public SearchResults search(String query, Integer limit) {
+        String term = normalize(query);
+        int max = limit(limit);
+        return new SearchResults(employees(term, max), departments(term, max), positions(term, max));
+    }
+
+    public List<EmployeeSummary> searchEmployees(String query, Integer limit) {
+        return employees(normalize(query), limit(limit));
+    }
+
+    private List<EmployeeSummary> employees(String term, int limit) {
+        List<String> ids = ids(bySimilarity(term)
+                ? employeeRepository.searchRankedBySimilarity(term, limit)
+                : employeeRepository.searchRanked(term, pattern(term), limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inOrder(ids, employeeRepository.findRowsByIdIn(ids), EmployeeSummary::id);
+    }
+
+    private List<Department> departments(String term, int limit) {
+        List<String> ids = ids(bySimilarity(term)
+                ? departmentRepository.searchRankedBySimilarity(term, limit)
+                : departmentRepository.searchRanked(term, pattern(term), limit));
+        return ids.stream().map(referenceDataCache::department).flatMap(Optional::stream).toList();
+    }
+
+    private List<Position> positions(String term, int limit) {
+        List<String> ids = ids(bySimilarity(term)
+                ? positionRepository.searchRankedBySimilarity(term, limit)
+                : positionRepository.searchRanked(term, pattern(term), limit));
+        return ids.stream().map(referenceDataCache::position).flatMap(Optional::stream).toList();
+    }
+
+    // Lowercased like the indexed expressions, with runs of whitespace collapsed to the single space they contain
+    static String normalize(String query) {
+        String term = query == null ? "" : query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        return term;
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Search limit must be positive");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private static boolean bySimilarity(String term) {
+        return term.length() >= MIN_SIMILARITY_LENGTH && term.length() < MIN_SUBSTRING_LENGTH;
+    }
+
+    // Substring pattern, or a prefix one for a single character, with the term's own LIKE wildcards escaped
+    private static String pattern(String term) {
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return term.length() < MIN_SIMILARITY_LENGTH ? escaped + "%" : "%" + escaped + "%";
+    }
+
+    private static List<String> ids(List<Object[]> ranked) {
+        return ranked.stream().map(row -> (String) row[0]).toList();
+    }
+
+    // Rows read by id, put back in rank order; ids whose row has gone meanwhile are dropped
+    private static <T> List<T> inOrder(List<String> ids, List<T> rows, Function<T, String> id) {
+        Map<String, Integer> rank = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return rows.stream().sorted(Comparator.comparingInt(row -> rank.get(id.apply(row)))).toList();
+    }
+}
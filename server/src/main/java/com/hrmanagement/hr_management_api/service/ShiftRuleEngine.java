@@ -0,0 +1,300 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.model.entity.ShiftRule;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.ShiftRuleRepository;
+
+// Classifies attendance by the employee's department shift: PRESENT or LATE at clock-in, then HALF_DAY or OVERTIME
+// at clock-out when the day was short or long. Rules are compiled once into minute-of-day thresholds, so classifying
+// is a map lookup and a few int comparisons. Departments without a shift_rules row use attendance.rules.default.*.
+// ABSENT and WORK_FROM_HOME are never decided by the rules and never overwritten. Thresholds are minutes of the
+// clock-in's own day, so a shift must end (its overtime mark included) by midnight; night shifts are refused.
+@Service
+public class ShiftRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ShiftRuleEngine.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final Set<AttendanceStatus> RULE_MANAGED = EnumSet.of(
+            AttendanceStatus.PRESENT, AttendanceStatus.LATE, AttendanceStatus.HALF_DAY, AttendanceStatus.OVERTIME);
+
+    // A shift rule reduced to the numbers the decision needs; AttendanceRepository.CLASSIFIED_STATUS is the SQL twin
+    private record Compiled(int lateAfterMinute, int halfDayMinutes, int overtimeMinutes) {
+
+        static Compiled of(ShiftRule rule) {
+            return new Compiled(rule.getShiftStart().getHour() * 60 + rule.getShiftStart().getMinute() + rule.getLateGraceMinutes(),
+                    rule.getHalfDayMinutes(), rule.getOvertimeMinutes());
+        }
+
+        AttendanceStatus classify(LocalDateTime clockIn, LocalDateTime clockOut) {
+            if (clockOut != null) {
+                long workedMinutes = workedMinutes(clockIn, clockOut);
+                if (workedMinutes >= overtimeMinutes) {
+                    return AttendanceStatus.OVERTIME;
+                }
+                if (workedMinutes < halfDayMinutes) {
+                    return AttendanceStatus.HALF_DAY;
+                }
+            }
+            // Seconds are ignored: a clock-in within the last minute of the grace period is on time
+            return clockIn.getHour() * 60 + clockIn.getMinute() > lateAfterMinute ? AttendanceStatus.LATE : AttendanceStatus.PRESENT;
+        }
+
+        // Rounded down like the SQL, without allocating a Duration
+        private static long workedMinutes(LocalDateTime clockIn, LocalDateTime clockOut) {
+            long seconds = clockOut.toEpochSecond(ZoneOffset.UTC) - clockIn.toEpochSecond(ZoneOffset.UTC);
+            if (clockOut.getNano() < clockIn.getNano()) {
+                seconds--;
+            }
+            return Math.floorDiv(seconds, 60);
+        }
+    }
+
+    private final ShiftRuleRepository shiftRuleRepository;
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ShiftRule defaultRule;
+    private final Compiled defaultCompiled;
+
+    // Replaced as a whole on every reload; readers never lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Map<String, Compiled> compiled;
+
+    public ShiftRuleEngine(ShiftRuleRepository shiftRuleRepository,
+                           EmployeeRepository employeeRepository,
+                           AttendanceRepository attendanceRepository,
+                           AttendanceSummaryService attendanceSummaryService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${attendance.rules.default.shift-start:09:00}") String shiftStart,
+                           @Value("${attendance.rules.default.late-grace-minutes:0}") int lateGraceMinutes,
+                           @Value("${attendance.rules.default.half-day-minutes:240}") int halfDayMinutes,
+                           @Value("${attendance.rules.default.overtime-minutes:600}") int overtimeMinutes) {
+        this.shiftRuleRepository = shiftRuleRepository;
+        this.employeeRepository = employeeRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.attendanceSummaryService = attendanceSummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultRule = validate(new ShiftRule(null, LocalTime.parse(shiftStart), lateGraceMinutes, halfDayMinutes, overtimeMinutes));
+        this.defaultCompiled = Compiled.of(defaultRule);
+    }
+
+    // Whether the rules decide this status; the others are set by hand or by the absence job
+    public static boolean isRuleManaged(AttendanceStatus status) {
+        return status == null || RULE_MANAGED.contains(status);
+    }
+
+    // PRESENT or LATE for a clock-in by an employee of the department (null for none)
+    public AttendanceStatus atClockIn(String departmentId, LocalDateTime clockIn) {
+        return rule(departmentId).classify(clockIn, null);
+    }
+
+    // Status of a record after clock-out; statuses the rules do not manage are kept
+    public AttendanceStatus atClockOut(String departmentId, Attendance attendance) {
+        if (!isRuleManaged(attendance.getAttendanceStatus()) || attendance.getClockIn() == null) {
+            return attendance.getAttendanceStatus();
+        }
+        return rule(departmentId).classify(attendance.getClockIn(), attendance.getClockOut());
+    }
+
+    // Status of a record from its clock-in and clock-out alone; ABSENT when there is no clock-in
+    public AttendanceStatus classify(String departmentId, LocalDateTime clockIn, LocalDateTime clockOut) {
+        return clockIn != null ? rule(departmentId).classify(clockIn, clockOut) : AttendanceStatus.ABSENT;
+    }
+
+    // Department of one employee, or null
+    public String departmentOf(String employeeId) {
+        return employeeRepository.findDepartmentIdById(employeeId).orElse(null);
+    }
+
+    // Departments of several employees in one query; employees without a department are left out
+    public Map<String, String> departmentsOf(Collection<String> employeeIds) {
+        Map<String, String> departments = new HashMap<>();
+        if (!employeeIds.isEmpty()) {
+            for (Object[] row : employeeRepository.findDepartmentIdsByIdIn(employeeIds)) {
+                if (row[1] != null) {
+                    departments.put((String) row[0], (String) row[1]);
+                }
+            }
+        }
+        return departments;
+    }
+
+    public List<ShiftRule> getRules() {
+        return shiftRuleRepository.findAll();
+    }
+
+    // The rule a department is classified by: its own, or the default under its id
+    public ShiftRule getRule(String departmentId) {
+        return shiftRuleRepository.findById(departmentId)
+                .filter(rule -> problem(rule) == null)
+                .orElseGet(() -> new ShiftRule(departmentId, defaultRule.getShiftStart(), defaultRule.getLateGraceMinutes(),
+                        defaultRule.getHalfDayMinutes(), defaultRule.getOvertimeMinutes()));
+    }
+
+    // Store a department's rule; it applies to clock-ins and clock-outs from now on, and to the department's
+    // attendance from reclassifyFrom on when that is given. Returns the saved rule.
+    public ShiftRule saveRule(ShiftRule rule, LocalDate reclassifyFrom) {
+        validate(rule);
+        ShiftRule saved = shiftRuleRepository.save(rule);
+        reload();
+        if (reclassifyFrom != null) {
+            reclassify(saved.getDepartmentId(), reclassifyFrom);
+        }
+        return saved;
+    }
+
+    // Drop a department's rule so it falls back to the default; false when it had none
+    public boolean deleteRule(String departmentId, LocalDate reclassifyFrom) {
+        if (!shiftRuleRepository.existsById(departmentId)) {
+            return false;
+        }
+        shiftRuleRepository.deleteById(departmentId);
+        reload();
+        if (reclassifyFrom != null) {
+            reclassify(departmentId, reclassifyFrom);
+        }
+        return true;
+    }
+
+    // Re-apply a department's current rule to the attendance, from a date on, of the employees in the department now,
+    // and rebuild the monthly summaries of the months touched; returns the number of records whose status changed.
+    // There is no department history: a record made before an employee moved here is reclassified under this rule,
+    // and records of employees who have since moved out are left to their new department's rule.
+    public int reclassify(String departmentId, LocalDate from) {
+        Compiled rule = rule(departmentId);
+        return inSummaryRebuild(from, () -> attendanceRepository.reclassifyDepartment(departmentId, from,
+                rule.lateAfterMinute(), rule.halfDayMinutes(), rule.overtimeMinutes(), LocalDateTime.now()));
+    }
+
+    // Re-apply every department's rule, and the default, e.g. after attendance.rules.default.* has changed
+    public int reclassifyAll(LocalDate from) {
+        Map<String, Compiled> rules = rules();
+        return inSummaryRebuild(from, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            int changed = attendanceRepository.reclassifyDefault(from,
+                    defaultCompiled.lateAfterMinute(), defaultCompiled.halfDayMinutes(), defaultCompiled.overtimeMinutes(), now);
+            for (Map.Entry<String, Compiled> entry : rules.entrySet()) {
+                Compiled rule = entry.getValue();
+                changed += attendanceRepository.reclassifyDepartment(entry.getKey(), from,
+                        rule.lateAfterMinute(), rule.halfDayMinutes(), rule.overtimeMinutes(), now);
+            }
+            return changed;
+        });
+    }
+
+    // The status counts move with the statuses, so the months from :from to now are rebuilt in the same transaction
+    private int inSummaryRebuild(LocalDate from, IntSupplier update) {
+        if (from.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Reclassification must start today or earlier");
+        }
+        Integer changed = transactionTemplate.execute(status -> {
+            int rows = update.getAsInt();
+            if (rows > 0) {
+                for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+                    attendanceSummaryService.rebuildMonth(month.getYear(), month.getMonthValue());
+                }
+            }
+            return rows;
+        });
+        return changed != null ? changed : 0;
+    }
+
+    // Reload the compiled rules, picking up changes made on other instances
+    @Scheduled(cron = "${attendance.rules.reload-cron:0 */5 * * * *}")
+    public void reload() {
+        lock.lock();
+        try {
+            Map<String, Compiled> rules = new HashMap<>();
+            for (ShiftRule rule : shiftRuleRepository.findAll()) {
+                // Rows saved before the rules were checked this strictly fall back to the default until fixed
+                String problem = problem(rule);
+                if (problem != null) {
+                    log.warn("Ignoring the shift rule of department {}, the default applies: {}", rule.getDepartmentId(), problem);
+                } else {
+                    rules.put(rule.getDepartmentId(), Compiled.of(rule));
+                }
+            }
+            compiled = Map.copyOf(rules);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Loaded {} shift rules", compiled.size());
+    }
+
+    private Compiled rule(String departmentId) {
+        return departmentId != null ? rules().getOrDefault(departmentId, defaultCompiled) : defaultCompiled;
+    }
+
+    // Loaded on first use, the same way whether that is a clock-in or the startup of a scheduled job
+    private Map<String, Compiled> rules() {
+        Map<String, Compiled> rules = compiled;
+        if (rules == null) {
+            lock.lock();
+            try {
+                if (compiled == null) {
+                    reload();
+                }
+                rules = compiled;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return rules;
+    }
+
+    private static ShiftRule validate(ShiftRule rule) {
+        String problem = problem(rule);
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+        return rule;
+    }
+
+    // Why a rule cannot be applied, or null when it can
+    private static String problem(ShiftRule rule) {
+        if (rule.getShiftStart() == null) {
+            return "Shift start is required";
+        }
+        if (rule.getLateGraceMinutes() < 0 || rule.getHalfDayMinutes() < 0 || rule.getOvertimeMinutes() < 0) {
+            return "Shift rule minutes cannot be negative";
+        }
+        if (rule.getHalfDayMinutes() >= rule.getOvertimeMinutes()) {
+            return "Half-day minutes must be less than overtime minutes";
+        }
+        // Minute-of-day thresholds cannot tell that a 00:30 clock-in is late for a shift that started at 23:00
+        int startMinute = rule.getShiftStart().getHour() * 60 + rule.getShiftStart().getMinute();
+        if (startMinute + Math.max(rule.getLateGraceMinutes(), rule.getOvertimeMinutes()) > MINUTES_PER_DAY) {
+            return "Shifts that run past midnight are not supported: " + rule.getShiftStart() + " plus "
+                    + Math.max(rule.getLateGraceMinutes(), rule.getOvertimeMinutes()) + " minutes";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,383 @@
+package com.hrmanagement.hr_management_api.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hrmanagement.hr_management_api.model.dto.EmployeeSummary;
+import com.hrmanagement.hr_management_api.model.dto.UserRow;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.User;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.UserRepository;
+import com.hrmanagement.hr_management_api.util.PrefixIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+// In-memory typeahead for the employee and user pickers: a PrefixIndex over accent-folded, lowercased name, email and
+// username keys, so a lookup matches items with a word (or the whole name or email) starting with what was typed.
+// Loaded after startup, kept in step by TypeaheadListener after every committed Employee/User write, and reloaded on a
+// schedule to pick up writes made elsewhere (other nodes, manual SQL). Writes collect in a small overlay on top of the
+// immutable index and are folded in by a background rebuild once there are typeahead.max-pending of them.
+// An index that would go over typeahead.max-keys is dropped, and lookups return empty so callers fall back to the
+// database; the typeahead.index.* gauges report its size.
+@Service
+public class TypeaheadIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadIndex.class);
+
+    // Longer keys and queries are cut to this, so one long email cannot inflate the index
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern USERNAME_SEPARATORS = Pattern.compile("[._@-]+");
+
+    // Overlay rebuilds run on their own thread, off the request that committed the write
+    private static final Executor COMPACTOR = task -> Thread.ofVirtual().name("typeahead-compact").start(task);
+
+    // The latest state of one written item, null once deleted, with its keys worked out once
+    private record Change<T>(T item, Set<String> keys) {}
+
+    // What readers see: the index (null before the first load and while over max-keys) and the writes since it was
+    // built, by id. Recording is off until the first load starts and while the index is dropped.
+    private record State<T>(PrefixIndex<T> base, Map<String, Change<T>> pending, boolean recording) {}
+
+    // One index. Readers never lock; writers take the lock and publish a new State. Rebuilds are serialized by
+    // rebuildLock and run without the lock, keeping the writes that arrived while they ran.
+    private final class Index<T> {
+
+        final String name;
+        final Function<T, String> id;
+        final Function<T, Set<String>> keysOf;
+        final Supplier<List<T>> loader;
+        final ReentrantLock lock = new ReentrantLock();
+        final ReentrantLock rebuildLock = new ReentrantLock();
+        final AtomicBoolean compacting = new AtomicBoolean();
+        volatile State<T> state = new State<>(null, Map.of(), false);
+        volatile boolean loaded;
+
+        Index(String name, Function<T, String> id, Function<T, Set<String>> keysOf, Supplier<List<T>> loader) {
+            this.name = name;
+            this.id = id;
+            this.keysOf = keysOf;
+            this.loader = loader;
+        }
+
+        // Overlay matches first, then the index's in key order; empty when there is no index to ask
+        Optional<List<T>> lookup(String prefix, int limit) {
+            ensureLoaded();
+            State<T> current = state;
+            if (current.base() == null) {
+                return Optional.empty();
+            }
+            List<T> matches = new ArrayList<>();
+            for (Change<T> change : current.pending().values()) {
+                if (matches.size() == limit) {
+                    break;
+                }
+                if (change.item() != null && change.keys().stream().anyMatch(key -> key.startsWith(prefix))) {
+                    matches.add(change.item());
+                }
+            }
+            matches.addAll(current.base().startingWith(prefix, limit - matches.size(),
+                    item -> current.pending().containsKey(id.apply(item))));
+            return Optional.of(matches);
+        }
+
+        // Record the committed state of an item; null drops it
+        void put(String itemId, T item) {
+            Change<T> change = new Change<>(item, item != null ? keysOf.apply(item) : Set.of());
+            boolean compact;
+            lock.lock();
+            try {
+                State<T> current = state;
+                if (!current.recording()) {
+                    return;
+                }
+                Map<String, Change<T>> pending = new HashMap<>(current.pending());
+                pending.put(itemId, change);
+                state = new State<>(current.base(), Collections.unmodifiableMap(pending), true);
+                compact = current.base() != null && pending.size() > maxPending;
+            } finally {
+                lock.unlock();
+            }
+            if (compact && compacting.compareAndSet(false, true)) {
+                COMPACTOR.execute(() -> {
+                    try {
+                        rebuild(this::merged);
+                    } catch (RuntimeException e) {
+                        log.warn("Typeahead {} index compaction failed: {}", name, e.getMessage());
+                    } finally {
+                        compacting.set(false);
+                    }
+                });
+            }
+        }
+
+        // Build a new index from the items source gives for the state at the start, and publish it with the writes
+        // that came in meanwhile. Those are told apart by identity: a Change in the start state is already in source.
+        int rebuild(Function<State<T>, List<T>> source) {
+            rebuildLock.lock();
+            try {
+                State<T> start;
+                lock.lock();
+                try {
+                    start = state;
+                    if (!start.recording()) {
+                        start = new State<>(start.base(), Map.of(), true);
+                        state = start;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                List<T> items = source.apply(start);
+                PrefixIndex<T> base;
+                try {
+                    base = PrefixIndex.of(items, keysOf, maxKeys);
+                } catch (IllegalStateException e) {
+                    log.warn("Typeahead {} index dropped, searches go to the database: {}", name, e.getMessage());
+                    base = null;
+                }
+
+                lock.lock();
+                try {
+                    Map<String, Change<T>> pending = new HashMap<>();
+                    if (base != null) {
+                        Map<String, Change<T>> folded = start.pending();
+                        state.pending().forEach((itemId, change) -> {
+                            if (folded.get(itemId) != change) {
+                                pending.put(itemId, change);
+                            }
+                        });
+                    }
+                    state = new State<>(base, Collections.unmodifiableMap(pending), base != null);
+                } finally {
+                    lock.unlock();
+                }
+                loaded = true;
+                return items.size();
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+
+        int reload() {
+            return rebuild(start -> loader.get());
+        }
+
+        // The current index with the start state's writes applied; a reload when there is no index yet
+        private List<T> merged(State<T> start) {
+            if (start.base() == null) {
+                return loader.get();
+            }
+            List<T> items = new ArrayList<>(start.base().items().stream()
+                    .filter(item -> !start.pending().containsKey(id.apply(item)))
+                    .toList());
+            start.pending().values().stream().map(Change::item).filter(Objects::nonNull).forEach(items::add);
+            return items;
+        }
+
+        // A lookup can arrive before the ready event; one that cannot load falls back to the database
+        private void ensureLoaded() {
+            if (!loaded) {
+                rebuildLock.lock();
+                try {
+                    if (!loaded) {
+                        reload();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Typeahead {} index could not be loaded: {}", name, e.getMessage());
+                } finally {
+                    rebuildLock.unlock();
+                }
+            }
+        }
+
+        void registerGauges(MeterRegistry meterRegistry) {
+            Gauge.builder("typeahead.index.entries", this, index -> index.size(PrefixIndex::size))
+                    .description("Items in the typeahead index")
+                    .tag("index", name)
+                    .register(meterRegistry);
+            Gauge.builder("typeahead.index.keys", this, index -> index.size(PrefixIndex::keyCount))
+                    .description("Prefix keys in the typeahead index")
+                    .tag("index", name)
+                    .register(meterRegistry);
+            Gauge.builder("typeahead.index.memory", this, index -> index.size(PrefixIndex::estimatedBytes))
+                    .description("Estimated heap taken by the typeahead index keys")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("index", name)
+                    .register(meterRegistry);
+            Gauge.builder("typeahead.index.pending", this, index -> index.state.pending().size())
+                    .description("Writes waiting to be folded into the typeahead index")
+                    .tag("index", name)
+                    .register(meterRegistry);
+        }
+
+        private double size(Function<PrefixIndex<T>, Number> measure) {
+            PrefixIndex<T> base = state.base();
+            return base != null ? measure.apply(base).doubleValue() : 0;
+        }
+    }
+
+    private final Index<EmployeeSummary> employees;
+    private final Index<UserRow> users;
+    private final int maxKeys;
+    private final int maxPending;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public TypeaheadIndex(EmployeeRepository employeeRepository,
+                          UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${typeahead.max-keys:4000000}") int maxKeys,
+                          @Value("${typeahead.max-pending:256}") int maxPending,
+                          @Value("${search.default-limit:10}") int defaultLimit,
+                          @Value("${search.max-limit:50}") int maxLimit) {
+        this.maxKeys = maxKeys;
+        this.maxPending = maxPending;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.employees = new Index<>("employees", EmployeeSummary::id, TypeaheadIndex::employeeKeys,
+                employeeRepository::findLiveRows);
+        this.users = new Index<>("users", UserRow::id, TypeaheadIndex::userKeys,
+                () -> userRepository.findByIsDeletedFalse().stream().map(UserRow::of).toList());
+        employees.registerGauges(meterRegistry);
+        users.registerGauges(meterRegistry);
+    }
+
+    // Non-deleted employees with a name word, full name or email starting with the query, up to limit (null for
+    // search.default-limit); empty when the index is not available
+    public Optional<List<EmployeeSummary>> employees(String query, Integer limit) {
+        return employees.lookup(normalizeQuery(query), limit(limit));
+    }
+
+    // Non-deleted users with a username, or a part of one between dots, dashes and underscores, starting with the query
+    public Optional<List<UserRow>> users(String query, Integer limit) {
+        return users.lookup(normalizeQuery(query), limit(limit));
+    }
+
+    // Called by TypeaheadListener once a write has committed
+    public void saved(Object entity) {
+        if (entity instanceof Employee employee) {
+            employees.put(employee.getId(), Boolean.TRUE.equals(employee.isDeleted()) ? null : EmployeeSummary.of(employee));
+        } else if (entity instanceof User user) {
+            users.put(user.getId(), Boolean.TRUE.equals(user.isDeleted()) ? null : UserRow.of(user));
+        }
+    }
+
+    public void removed(Object entity) {
+        if (entity instanceof Employee employee) {
+            employees.put(employee.getId(), null);
+        } else if (entity instanceof User user) {
+            users.put(user.getId(), null);
+        }
+    }
+
+    // Reload both indexes from the database; returns the number of items loaded
+    public int rebuild() {
+        return employees.reload() + users.reload();
+    }
+
+    // After the data loader has seeded employees and users
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        log.info("Typeahead index loaded with {} employees and {} users", employees.reload(), users.reload());
+    }
+
+    @Scheduled(cron = "${typeahead.rebuild-cron:0 */10 * * * *}")
+    void reload() {
+        rebuild();
+    }
+
+    // First name, last name and each of their words, both name orders, and the email
+    static Set<String> employeeKeys(EmployeeSummary employee) {
+        Set<String> keys = new LinkedHashSet<>();
+        String first = normalize(employee.firstName());
+        String last = normalize(employee.lastName());
+        words(first, keys);
+        words(last, keys);
+        addKey(first + " " + last, keys);
+        addKey(last + " " + first, keys);
+        addKey(normalize(employee.email()), keys);
+        return keys;
+    }
+
+    // The username and its parts
+    static Set<String> userKeys(UserRow user) {
+        Set<String> keys = new LinkedHashSet<>();
+        String username = normalize(user.username());
+        addKey(username, keys);
+        for (String part : USERNAME_SEPARATORS.split(username)) {
+            addKey(part, keys);
+        }
+        return keys;
+    }
+
+    // Accents folded, lowercased, whitespace collapsed, cut to MAX_KEY_LENGTH; the same for keys and queries
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String key = WHITESPACE.matcher(folded.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static String normalizeQuery(String query) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        return prefix;
+    }
+
+    private static void words(String text, Set<String> keys) {
+        for (String word : text.split(" ")) {
+            addKey(word, keys);
+        }
+    }
+
+    // Joined keys can run past MAX_KEY_LENGTH again, and lose a word when a name is blank
+    private static void addKey(String key, Set<String> keys) {
+        String trimmed = key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH).strip() : key.strip();
+        if (!trimmed.isEmpty()) {
+            keys.add(trimmed);
+        }
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Search limit must be positive");
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
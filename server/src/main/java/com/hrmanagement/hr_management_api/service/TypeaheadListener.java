@@ -0,0 +1,47 @@
+package com.hrmanagement.hr_management_api.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// JPA listener on Employee and User that passes their writes to TypeaheadIndex once the transaction has committed,
+// so a rolled-back write never shows up in the pickers. Hibernate gets it from the Spring context; the index is
+// looked up per call because the repositories it loads from need the entity manager this listener is part of.
+@Component
+public class TypeaheadListener {
+
+    private final ObjectProvider<TypeaheadIndex> typeaheadIndex;
+
+    public TypeaheadListener(ObjectProvider<TypeaheadIndex> typeaheadIndex) {
+        this.typeaheadIndex = typeaheadIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void saved(Object entity) {
+        afterCommit(() -> typeaheadIndex.getObject().saved(entity));
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        afterCommit(() -> typeaheadIndex.getObject().removed(entity));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
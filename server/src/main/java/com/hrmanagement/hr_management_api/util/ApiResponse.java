@@ -1,9 +1,12 @@
 package com.hrmanagement.hr_management_api.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class ApiResponse {
     private Boolean status;
     private String message;
     private Object data;
+    private String nextCursor;
 
     public ApiResponse(Boolean status, String message, Object data) {
         this.status = status;
@@ -11,6 +14,11 @@ public class ApiResponse {
         this.data = data;
     }
 
+    public ApiResponse(Boolean status, String message, Object data, String nextCursor) {
+        this(status, message, data);
+        this.nextCursor = nextCursor;
+    }
+
     public Boolean getStatus() {
         return status;
     }
@@ -35,6 +43,16 @@ public class ApiResponse {
         this.data = data;
     }
 
+    // Continuation token for paginated lists (omitted on the last page and on non-list responses)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     
 
 }
@@ -0,0 +1,23 @@
+package com.hrmanagement.hr_management_api.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Splits large ID sets for IN (...) queries so each statement stays well under PostgreSQL's 32767 bind parameters
+public final class InClause {
+
+    public static final int MAX_SIZE = 10_000;
+
+    private InClause() {}
+
+    // Consecutive slices of at most MAX_SIZE values (empty input gives no slices)
+    public static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> list = values instanceof List<T> l ? l : new ArrayList<>(values);
+        List<List<T>> slices = new ArrayList<>((list.size() + MAX_SIZE - 1) / MAX_SIZE);
+        for (int from = 0; from < list.size(); from += MAX_SIZE) {
+            slices.add(list.subList(from, Math.min(from + MAX_SIZE, list.size())));
+        }
+        return slices;
+    }
+}
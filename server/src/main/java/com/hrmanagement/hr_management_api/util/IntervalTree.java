@@ -0,0 +1,89 @@
+package com.hrmanagement.hr_management_api.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+// Immutable interval tree over closed date ranges. Items sorted by start form an implicit balanced tree
+// (the middle of each index range is its root) and every node records the latest end in its subtree,
+// so an overlap query visits O(log n + k) nodes.
+public final class IntervalTree<T> {
+
+    private final List<T> items;
+    private final LocalDate[] starts;
+    private final LocalDate[] ends;
+    private final LocalDate[] maxEnds;
+
+    private IntervalTree(List<T> sorted, Function<T, LocalDate> start, Function<T, LocalDate> end) {
+        int size = sorted.size();
+        this.items = sorted;
+        this.starts = new LocalDate[size];
+        this.ends = new LocalDate[size];
+        this.maxEnds = new LocalDate[size];
+        for (int i = 0; i < size; i++) {
+            starts[i] = start.apply(sorted.get(i));
+            ends[i] = end.apply(sorted.get(i));
+        }
+        build(0, size - 1);
+    }
+
+    public static <T> IntervalTree<T> of(Collection<T> items, Function<T, LocalDate> start, Function<T, LocalDate> end) {
+        return new IntervalTree<>(items.stream().sorted(Comparator.comparing(start)).toList(), start, end);
+    }
+
+    // Every item, in start order
+    public List<T> items() {
+        return items;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    // Items sharing at least one day with [from, to], in start order
+    public List<T> overlapping(LocalDate from, LocalDate to) {
+        List<T> result = new ArrayList<>();
+        collect(0, items.size() - 1, from, to, result);
+        return result;
+    }
+
+    private LocalDate build(int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        LocalDate max = ends[mid];
+        LocalDate left = build(lo, mid - 1);
+        LocalDate right = build(mid + 1, hi);
+        if (left != null && left.isAfter(max)) {
+            max = left;
+        }
+        if (right != null && right.isAfter(max)) {
+            max = right;
+        }
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private void collect(int lo, int hi, LocalDate from, LocalDate to, List<T> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this subtree ends on or after from
+        if (maxEnds[mid].isBefore(from)) {
+            return;
+        }
+        collect(lo, mid - 1, from, to, result);
+        // Everything right of mid starts no earlier than mid, so past to the whole right side is out
+        if (!starts[mid].isAfter(to)) {
+            if (!ends[mid].isBefore(from)) {
+                result.add(items.get(mid));
+            }
+            collect(mid + 1, hi, from, to, result);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.hrmanagement.hr_management_api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import com.hrmanagement.hr_management_api.model.entity.BaseEntity;
+
+// Opaque continuation tokens for keyset pagination on (created_at, id)
+public final class KeysetCursor {
+
+    // Stable order for every paginated list: creation time, then id as tie-breaker
+    public static final Sort SORT = Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id"));
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final char SEPARATOR = '|';
+
+    private KeysetCursor() {}
+
+    // Clamp the requested page size to [1, MAX_PAGE_SIZE]
+    public static Limit limit(Integer size) {
+        if (size == null) {
+            return Limit.of(DEFAULT_PAGE_SIZE);
+        }
+        return Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    // In-memory equivalent of SORT, for rows that are paged without a query
+    public static <T extends BaseEntity> Comparator<T> comparator(Function<T, String> id) {
+        return Comparator.comparing((T row) -> row.getCreatedAt()).thenComparing(id);
+    }
+
+    // Position of the last row already returned
+    public record Key(LocalDateTime createdAt, String id) {}
+
+    // Key to continue after, or null on the first page
+    public static Key after(ScrollPosition position) {
+        if (position instanceof KeysetScrollPosition keyset && !keyset.getKeys().isEmpty()) {
+            return new Key((LocalDateTime) keyset.getKeys().get("createdAt"), (String) keyset.getKeys().get("id"));
+        }
+        return null;
+    }
+
+    // Window over rows fetched with a limit one above the page size; the extra row only signals a next page
+    public static <T> Window<T> window(List<T> rows, Limit limit, Function<T, LocalDateTime> createdAt, Function<T, String> id) {
+        List<T> content = rows.size() > limit.max() ? rows.subList(0, limit.max()) : rows;
+        return Window.from(content, i -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", createdAt.apply(content.get(i)));
+            keys.put("id", id.apply(content.get(i)));
+            return ScrollPosition.forward(keys);
+        }, rows.size() > limit.max());
+    }
+
+    // Keyset page over rows already ordered by comparator(id), with the same positions a repository Window carries
+    public static <T extends BaseEntity> Window<T> page(List<T> sorted, Function<T, String> id,
+                                                       ScrollPosition position, Limit limit) {
+        int from = 0;
+        Key after = after(position);
+        if (after != null) {
+            while (from < sorted.size()) {
+                T row = sorted.get(from);
+                int order = row.getCreatedAt().compareTo(after.createdAt());
+                if (order > 0 || (order == 0 && id.apply(row).compareTo(after.id()) > 0)) {
+                    break;
+                }
+                from++;
+            }
+        }
+        List<T> rows = sorted.subList(from, Math.min(sorted.size(), from + limit.max() + 1));
+        return window(rows, limit, BaseEntity::getCreatedAt, id);
+    }
+
+    // Decode a continuation token into a scroll position (first page when absent)
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", LocalDateTime.parse(raw.substring(0, separator)));
+            keys.put("id", raw.substring(separator + 1));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Token for the page after this window, or null when this is the last page
+    public static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        if (!(window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position)) {
+            return null;
+        }
+        String raw = position.getKeys().get("createdAt") + String.valueOf(SEPARATOR) + position.getKeys().get("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+package com.hrmanagement.hr_management_api.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Immutable prefix index over string keys. Every key of every item sits in one sorted array next to the position of
+// its item, so the keys starting with a prefix are one binary search for the first of them plus a scan over the rest.
+// Keys that occur more than once (common first names, say) share one String.
+public final class PrefixIndex<T> {
+
+    private record Key(String key, int owner) {}
+
+    private final List<T> items;
+    private final String[] keys;
+    private final int[] owners;
+    private final long bytes;
+
+    private PrefixIndex(List<T> items, List<Key> sorted, long keyBytes) {
+        this.items = items;
+        this.keys = new String[sorted.size()];
+        this.owners = new int[sorted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sorted.get(i).key();
+            owners[i] = sorted.get(i).owner();
+        }
+        // Two arrays of 4-byte slots (compressed references and ints) and the item list, plus the distinct key strings
+        this.bytes = 2 * (16 + 4L * keys.length) + 16 + 4L * items.size() + keyBytes;
+    }
+
+    // Throws IllegalStateException when the items have more than maxKeys keys between them
+    public static <T> PrefixIndex<T> of(Collection<T> items, Function<T, ? extends Collection<String>> keysOf, int maxKeys) {
+        List<T> list = List.copyOf(items);
+        Map<String, String> distinct = new HashMap<>();
+        List<Key> entries = new ArrayList<>();
+        long keyBytes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            for (String key : keysOf.apply(list.get(i))) {
+                if (entries.size() == maxKeys) {
+                    throw new IllegalStateException("More than " + maxKeys + " prefix index keys");
+                }
+                String shared = distinct.putIfAbsent(key, key);
+                if (shared == null) {
+                    shared = key;
+                    keyBytes += stringBytes(key);
+                }
+                entries.add(new Key(shared, i));
+            }
+        }
+        entries.sort(Comparator.comparing(Key::key));
+        return new PrefixIndex<>(list, entries, keyBytes);
+    }
+
+    // Items with a key starting with the prefix, in key order and each once, skipping excluded ones; at most limit
+    public List<T> startingWith(String prefix, int limit, Predicate<T> excluded) {
+        List<T> matches = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (int i = firstAtLeast(prefix); i < keys.length && matches.size() < limit && keys[i].startsWith(prefix); i++) {
+            T item = items.get(owners[i]);
+            if (seen.add(owners[i]) && !excluded.test(item)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    // Every item, in the order given to of
+    public List<T> items() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public int keyCount() {
+        return keys.length;
+    }
+
+    // Heap taken by the index structure itself (64-bit JVM, compressed references), the items not included
+    public long estimatedBytes() {
+        return bytes;
+    }
+
+    // Position of the first key not before the prefix; every key starting with it follows from there
+    private int firstAtLeast(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // String header and value array, one byte per char when every char fits in Latin-1 (compact strings)
+    private static long stringBytes(String key) {
+        boolean latin1 = key.chars().allMatch(c -> c < 256);
+        long array = 16 + (latin1 ? key.length() : 2L * key.length());
+        return 24 + (array + 7) / 8 * 8;
+    }
+}
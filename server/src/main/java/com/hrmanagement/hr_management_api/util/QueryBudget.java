@@ -0,0 +1,17 @@
+package com.hrmanagement.hr_management_api.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most SQL statements an endpoint may run per request. Going over is counted and logged; with
+// metrics.queries.budget.enforce=true (integration tests) the request fails instead.
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,85 @@
+package com.hrmanagement.hr_management_api.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Tally of the SQL statements Hibernate prepares on the current thread while a request is being handled, with the
+// rows they returned and the time spent executing them (the last two from QueryTimingDataSource).
+// Statements run on other threads (clock-in batches, async exports, scheduled jobs) are not counted.
+public final class QueryCounter implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    // Statements are parameterized, so the same text means the same query run again
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int total;
+    private long rows;
+    private long executionNanos;
+    private String mostRepeated;
+    private int mostRepeatedCount;
+
+    private QueryCounter() {}
+
+    // Start counting on this thread; close() stops
+    public static QueryCounter start() {
+        QueryCounter counter = new QueryCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    // The current request's counter, or null outside one
+    public static QueryCounter current() {
+        return CURRENT.get();
+    }
+
+    // Count a statement against the current request, if there is one
+    public static void record(String sql) {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.add(sql);
+        }
+    }
+
+    private void add(String sql) {
+        total++;
+        int count = executions.merge(sql, 1, Integer::sum);
+        if (count > mostRepeatedCount) {
+            mostRepeated = sql;
+            mostRepeatedCount = count;
+        }
+    }
+
+    public void addExecution(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public void addRow() {
+        rows++;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long executionNanos() {
+        return executionNanos;
+    }
+
+    // The statement run most often, or null when none ran
+    public String mostRepeated() {
+        return mostRepeated;
+    }
+
+    public int mostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,3 @@
+-- Optimistic locking for attendances: a save only lands on the row version its summary delta was computed from.
+-- JPA saves check and bump it, and so do the reclassification updates in AttendanceRepository.
+ALTER TABLE attendances ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
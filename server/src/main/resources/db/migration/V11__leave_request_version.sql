@@ -0,0 +1,3 @@
+-- Optimistic locking for leave requests: a save only lands on the row version its balance delta was computed from.
+-- JPA saves and deletes check and bump it.
+ALTER TABLE leave_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- A payroll's job goes with it: permanently deleting an employee removes their payrolls (JPA cascade), which the
+-- plain foreign key from V8 refused as soon as one of them had a job row.
+ALTER TABLE payroll_jobs DROP CONSTRAINT fk_payroll_jobs_payroll;
+ALTER TABLE payroll_jobs ADD CONSTRAINT fk_payroll_jobs_payroll
+    FOREIGN KEY (payroll_id) REFERENCES payrolls (id) ON DELETE CASCADE;
@@ -0,0 +1,115 @@
+-- Baseline: the schema exactly as Hibernate's ddl-auto=update built it from the entities before Flyway, with no
+-- further indexes. Databases created before Flyway are baselined at this version and skip it
+-- (spring.flyway.baseline-on-migrate), so anything added since belongs in V2 and later.
+
+CREATE TABLE departments (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    manager_id VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_departments_name UNIQUE (name)
+);
+
+CREATE TABLE positions (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    department_id VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE employees (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255),
+    email VARCHAR(255),
+    phone_number VARCHAR(255),
+    address VARCHAR(255),
+    department_id VARCHAR(255) NOT NULL,
+    position_id VARCHAR(255) NOT NULL,
+    hire_date DATE NOT NULL,
+    salary NUMERIC(38, 2),
+    employee_status VARCHAR(255),
+    profile_image VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
+
+CREATE TABLE users (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    employee_id VARCHAR(255) NOT NULL,
+    user_role VARCHAR(255) NOT NULL,
+    is_active BOOLEAN,
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_employee_id UNIQUE (employee_id)
+);
+
+CREATE TABLE attendances (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    clock_in TIMESTAMP(6) NOT NULL,
+    clock_out TIMESTAMP(6),
+    attendance_status VARCHAR(255) NOT NULL,
+    notes VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE leave_requests (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    leave_request_type VARCHAR(255),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    total_days INTEGER,
+    reason VARCHAR(255),
+    leave_request_status VARCHAR(255),
+    approved_by VARCHAR(255),
+    request_date DATE,
+    response_date DATE,
+    comments VARCHAR(500),
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE payrolls (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    pay_period_start DATE NOT NULL,
+    pay_period_end DATE,
+    salary NUMERIC(19, 2),
+    bonus NUMERIC(19, 2),
+    deductions NUMERIC(19, 2),
+    net_pay NUMERIC(19, 2),
+    payroll_status VARCHAR(255),
+    processed_date DATE,
+    paid_date TIMESTAMP(6),
+    is_deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+-- Relationships (departments and employees reference each other, so these come after both tables)
+ALTER TABLE departments ADD CONSTRAINT fk_departments_manager FOREIGN KEY (manager_id) REFERENCES employees (id);
+ALTER TABLE positions ADD CONSTRAINT fk_positions_department FOREIGN KEY (department_id) REFERENCES departments (id);
+ALTER TABLE employees ADD CONSTRAINT fk_employees_department FOREIGN KEY (department_id) REFERENCES departments (id);
+ALTER TABLE employees ADD CONSTRAINT fk_employees_position FOREIGN KEY (position_id) REFERENCES positions (id);
+ALTER TABLE users ADD CONSTRAINT fk_users_employee FOREIGN KEY (employee_id) REFERENCES employees (id);
+ALTER TABLE attendances ADD CONSTRAINT fk_attendances_employee FOREIGN KEY (employee_id) REFERENCES employees (id);
+ALTER TABLE leave_requests ADD CONSTRAINT fk_leave_requests_employee FOREIGN KEY (employee_id) REFERENCES employees (id);
+ALTER TABLE leave_requests ADD CONSTRAINT fk_leave_requests_approver FOREIGN KEY (approved_by) REFERENCES employees (id);
+ALTER TABLE payrolls ADD CONSTRAINT fk_payrolls_employee FOREIGN KEY (employee_id) REFERENCES employees (id);
@@ -0,0 +1,12 @@
+-- Per-employee, per-year, per-type leave ledger; kept in step with leave_requests by LeaveBalanceService.
+-- Days are counted against the year the leave starts in.
+CREATE TABLE leave_balances (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    year INTEGER NOT NULL,
+    leave_request_type VARCHAR(255) NOT NULL,
+    approved_days INTEGER NOT NULL,
+    pending_days INTEGER NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uq_leave_balances_employee_year_type UNIQUE (employee_id, year, leave_request_type)
+);
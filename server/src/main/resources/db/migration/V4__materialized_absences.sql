@@ -0,0 +1,7 @@
+-- Absences are written as ABSENT attendance rows by AbsenceMaterializationService; they have no clock-in.
+ALTER TABLE attendances ALTER COLUMN clock_in DROP NOT NULL;
+
+-- Absence reports read only these rows
+CREATE INDEX idx_attendances_absent_date_active
+    ON attendances (date)
+    WHERE attendance_status = 'ABSENT' AND is_deleted = false;
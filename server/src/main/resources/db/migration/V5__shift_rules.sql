@@ -0,0 +1,10 @@
+-- Per-department attendance rules, read by ShiftRuleEngine; departments without a row use attendance.rules.default.*
+CREATE TABLE shift_rules (
+    department_id VARCHAR(255) NOT NULL PRIMARY KEY,
+    shift_start TIME NOT NULL,
+    late_grace_minutes INTEGER NOT NULL,
+    half_day_minutes INTEGER NOT NULL,
+    overtime_minutes INTEGER NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT fk_shift_rules_department FOREIGN KEY (department_id) REFERENCES departments (id)
+);
@@ -0,0 +1,2 @@
+-- Optimistic locking for payrolls: JPA saves check and bump it, and so do the status transitions in PayrollRepository
+ALTER TABLE payrolls ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+-- Running payroll totals kept in step with payrolls by PayrollLedgerService; PayrollLedgerService.reconcile checks
+-- them against the raw sums nightly.
+
+-- Live payrolls and their net pay per status
+CREATE TABLE payroll_totals (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    payroll_status VARCHAR(255) NOT NULL,
+    record_count BIGINT NOT NULL,
+    total_net_pay NUMERIC(19, 2) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uq_payroll_totals_status UNIQUE (payroll_status)
+);
+
+-- Completed payrolls and their net pay per employee and year of the pay period start
+CREATE TABLE payroll_ytd (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    employee_id VARCHAR(255) NOT NULL,
+    year INTEGER NOT NULL,
+    paid_count BIGINT NOT NULL,
+    paid_net_pay NUMERIC(19, 2) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uq_payroll_ytd_employee_year UNIQUE (employee_id, year)
+);
@@ -0,0 +1,20 @@
+-- Queue of payrolls waiting to be processed, drained by PayrollJobWorker with FOR UPDATE SKIP LOCKED.
+-- run_at is when a job may next be claimed (NULL once it has given up); locked_by/locked_until are the claim's lease.
+CREATE TABLE payroll_jobs (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    payroll_id VARCHAR(255) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    run_at TIMESTAMP(6),
+    locked_by VARCHAR(255),
+    locked_until TIMESTAMP(6),
+    last_error TEXT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uq_payroll_jobs_payroll UNIQUE (payroll_id),
+    CONSTRAINT fk_payroll_jobs_payroll FOREIGN KEY (payroll_id) REFERENCES payrolls (id)
+);
+
+-- Only live jobs are ever claimed
+CREATE INDEX idx_payroll_jobs_run_at
+    ON payroll_jobs (run_at)
+    WHERE run_at IS NOT NULL;
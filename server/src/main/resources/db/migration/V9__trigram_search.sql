@@ -0,0 +1,15 @@
+-- Trigram indexes for SearchService. Each indexes exactly the expression its repository's ranked search filters on
+-- (e.g. EmployeeRepository.NAME_SEARCH), so both substring LIKE and word-similarity (<%) lookups are index scans.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_employees_name_trgm
+    ON employees USING gin ((lower(coalesce(first_name, '') || ' ' || coalesce(last_name, ''))) gin_trgm_ops)
+    WHERE is_deleted = false;
+
+CREATE INDEX idx_departments_search_trgm
+    ON departments USING gin ((lower(coalesce(name, '') || ' ' || coalesce(description, ''))) gin_trgm_ops)
+    WHERE is_deleted = false;
+
+CREATE INDEX idx_positions_search_trgm
+    ON positions USING gin ((lower(coalesce(title, '') || ' ' || coalesce(description, ''))) gin_trgm_ops)
+    WHERE is_deleted = false;
@@ -0,0 +1,61 @@
+package com.hrmanagement.hr_management_api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.Position;
+import com.hrmanagement.hr_management_api.model.enums.EmployeeStatus;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.PositionRepository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// Base for service tests against the real schema: one embedded PostgreSQL for the JVM, migrated by Flyway and seeded
+// by the data loader, and one application context shared by every subclass. The payroll job workers are left off so
+// tests drive them by hand. Each test makes its own employees, so tests do not see each other's rows.
+@SpringBootTest(properties = {
+        "spring.main.banner-mode=off",
+        "payroll.jobs.enabled=false"})
+public abstract class PostgresIntegrationTests {
+
+    // Started once for the JVM; the embedded server stops itself on shutdown, after the cached context
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected EmployeeRepository employeeRepository;
+
+    @Autowired
+    protected PositionRepository positionRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres") + "&prepareThreshold=0");
+    }
+
+    // A new active employee in one of the seeded positions
+    protected Employee newEmployee(String firstName, String lastName) {
+        Position position = positionRepository.findAll().get(0);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Employee employee = new Employee(firstName, lastName, firstName.toLowerCase() + "." + suffix + "@example.com",
+                null, null, position.getDepartmentId(), position.getId(), LocalDate.of(2024, 1, 15),
+                new BigDecimal("5000.00"), EmployeeStatus.ACTIVE, null);
+        return employeeRepository.save(employee);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
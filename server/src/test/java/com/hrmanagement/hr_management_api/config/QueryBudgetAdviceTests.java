@@ -0,0 +1,189 @@
+package com.hrmanagement.hr_management_api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.repository.DepartmentRepository;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.service.PayrollLedgerService;
+import com.hrmanagement.hr_management_api.util.ApiResponse;
+import com.hrmanagement.hr_management_api.util.QueryBudget;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// The whole application on an embedded PostgreSQL (migrated by Flyway, seeded by the data loader) with budgets
+// enforced: every budgeted endpoint has to stay within its @QueryBudget, and one that does not
+// has to fail the request
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "metrics.queries.budget.enforce=true",
+                "metrics.queries.headers=true",
+                "spring.main.banner-mode=off",
+                "spring.jpa.show-sql=false"})
+@Import(QueryBudgetAdviceTests.OverBudgetController.class)
+class QueryBudgetAdviceTests {
+
+    // Started once for the class; the embedded server stops itself on JVM shutdown, after the cached context
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    // Runs two statements under a budget of one
+    @RestController
+    static class OverBudgetController {
+
+        private final EmployeeRepository employeeRepository;
+        private final DepartmentRepository departmentRepository;
+
+        OverBudgetController(EmployeeRepository employeeRepository, DepartmentRepository departmentRepository) {
+            this.employeeRepository = employeeRepository;
+            this.departmentRepository = departmentRepository;
+        }
+
+        @GetMapping("/test/over-budget")
+        @QueryBudget(1)
+        public ResponseEntity<ApiResponse> overBudget() {
+            long count = employeeRepository.count() + departmentRepository.count();
+            return ResponseEntity.ok(new ApiResponse(true, "Counted", count));
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PayrollLedgerService payrollLedgerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres") + "&prepareThreshold=0");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/employees/?size=5",
+            "/api/attendance/?size=5",
+            "/api/leave-requests/?size=5",
+            "/api/employees/search?query=jo",
+            "/api/employees/search?query=jhon",
+            "/api/search?q=john",
+            "/api/search?q=j",
+            "/api/search?q=it"})
+    void budgetedEndpointsStayWithinTheirBudget(String url) {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(url, JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("status").asBoolean()).isTrue();
+        assertThat(response.getHeaders().getFirst("X-Query-Count")).isNotNull();
+    }
+
+    @Test
+    void employeesByDepartmentStaysWithinItsBudget() {
+        String departmentId = employeeRepository.findAll().stream()
+                .map(Employee::getDepartmentId)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow();
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity("/api/employees/department/" + departmentId, JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("data").size()).isPositive();
+    }
+
+    @Test
+    void keysetPagesStayWithinTheirBudget() {
+        JsonNode first = restTemplate.getForEntity("/api/employees/?size=2", JsonNode.class).getBody();
+        String cursor = first.get("nextCursor").asText();
+
+        ResponseEntity<JsonNode> second = restTemplate.getForEntity("/api/employees/?size=2&cursor=" + cursor, JsonNode.class);
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getHeaders().getFirst("X-Query-Count")).isEqualTo("1");
+    }
+
+    @Test
+    void searchFindsSeededEmployees() {
+        JsonNode prefix = restTemplate.getForEntity("/api/search?q=j", JsonNode.class).getBody();
+        JsonNode substring = restTemplate.getForEntity("/api/search?q=doe", JsonNode.class).getBody();
+
+        assertThat(prefix.get("data").get("employees").findValuesAsText("firstName")).contains("John");
+        assertThat(substring.get("data").get("employees").findValuesAsText("email")).contains("john.doe@example.com");
+    }
+
+    @Test
+    void bulkApproveStaysWithinItsBudget() {
+        String employeeId = employeeRepository.findAll().get(0).getId();
+        List<String> ids = new ArrayList<>();
+        for (int month = 1; month <= 3; month++) {
+            LocalDate start = LocalDate.of(2022, month, 1);
+            ids.add(payrollLedgerService.save(new Payroll(employeeId, start, start.plusDays(27),
+                    new BigDecimal("5000.00"), BigDecimal.ZERO, BigDecimal.ZERO), null).getId());
+        }
+
+        ResponseEntity<JsonNode> response = restTemplate.exchange("/api/payroll/bulk-approve", HttpMethod.PUT,
+                new HttpEntity<>(ids), JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("data").size()).isEqualTo(3);
+        assertThat(response.getHeaders().getFirst("X-Query-Count")).isEqualTo("3");
+    }
+
+    @Test
+    void asyncRequestsAreNotRecorded() {
+        String employeeId = employeeRepository.findAll().get(0).getId();
+
+        restTemplate.postForEntity("/api/attendance/clock-in", Map.of("employeeId", employeeId), JsonNode.class);
+
+        assertThat(meterRegistry.find("http.server.requests.queries").tag("uri", "/api/attendance/clock-in").summary())
+                .isNull();
+    }
+
+    @Test
+    void goingOverTheBudgetFailsTheRequest() {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity("/test/over-budget", JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().get("message").asText()).contains("ran 2 SQL statements, over its budget of 1");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hrmanagement.hr_management_api.model.enums;
+
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.APPROVED;
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.COMPLETED;
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.DRAFT;
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.FAILED;
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.PENDING;
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.PROCESSING;
+import static com.hrmanagement.hr_management_api.model.enums.PayrollStatus.REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PayrollStatusTests {
+
+    private static final Map<PayrollStatus, Set<PayrollStatus>> ALLOWED = Map.of(
+            DRAFT, EnumSet.of(PENDING),
+            PENDING, EnumSet.of(APPROVED, REJECTED),
+            APPROVED, EnumSet.of(PROCESSING),
+            PROCESSING, EnumSet.of(COMPLETED, FAILED),
+            REJECTED, EnumSet.noneOf(PayrollStatus.class),
+            COMPLETED, EnumSet.noneOf(PayrollStatus.class),
+            FAILED, EnumSet.noneOf(PayrollStatus.class));
+
+    @Test
+    void allowsOnlyTheListedTransitions() {
+        for (PayrollStatus from : PayrollStatus.values()) {
+            for (PayrollStatus to : PayrollStatus.values()) {
+                assertThat(from.canMoveTo(to))
+                        .as("%s to %s", from, to)
+                        .isEqualTo(ALLOWED.get(from).contains(to));
+            }
+        }
+    }
+
+    @Test
+    void sourcesAreTheStatusesThatMayMoveToIt() {
+        for (PayrollStatus to : PayrollStatus.values()) {
+            Set<PayrollStatus> expected = EnumSet.noneOf(PayrollStatus.class);
+            for (PayrollStatus from : PayrollStatus.values()) {
+                if (from.canMoveTo(to)) {
+                    expected.add(from);
+                }
+            }
+            assertThat(to.sources()).as("sources of %s", to).isEqualTo(expected);
+        }
+        assertThat(DRAFT.sources()).isEmpty();
+        assertThat(PROCESSING.sources()).containsExactly(APPROVED);
+    }
+}
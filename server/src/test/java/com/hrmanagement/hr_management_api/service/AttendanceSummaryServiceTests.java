@@ -0,0 +1,118 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.model.entity.AttendanceMonthlySummary;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.service.AttendanceSummaryService.Contribution;
+
+class AttendanceSummaryServiceTests extends PostgresIntegrationTests {
+
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void movesContributionsAsRecordsChange() {
+        Employee employee = newEmployee("Rosa", "Summary");
+        LocalDate day = LocalDate.of(2024, 5, 6);
+
+        Attendance attendance = attendanceSummaryService.save(attendance(employee, day, 8, 17), null);
+        attendanceSummaryService.save(attendance(employee, day.plusDays(1), 10, 12), null);
+        assertThat(summary(employee, 2024, 5))
+                .extracting(AttendanceMonthlySummary::getPresentCount, AttendanceMonthlySummary::getHalfDayCount,
+                        AttendanceMonthlySummary::getWorkedMinutes)
+                .containsExactly(1, 1, 11 * 60L);
+
+        Contribution before = Contribution.of(attendance);
+        attendance.setAttendanceStatus(AttendanceStatus.OVERTIME);
+        attendance = attendanceSummaryService.save(attendance, before);
+        assertThat(summary(employee, 2024, 5))
+                .extracting(AttendanceMonthlySummary::getPresentCount, AttendanceMonthlySummary::getOvertimeCount)
+                .containsExactly(0, 1);
+
+        attendanceSummaryService.delete(attendance);
+        assertThat(summary(employee, 2024, 5))
+                .extracting(AttendanceMonthlySummary::getOvertimeCount, AttendanceMonthlySummary::getHalfDayCount,
+                        AttendanceMonthlySummary::getWorkedMinutes)
+                .containsExactly(0, 1, 2 * 60L);
+    }
+
+    @Test
+    void rebuildsTheSameRowsTheDeltasWrote() {
+        Employee employee = newEmployee("Sam", "Rebuild");
+        for (int day = 1; day <= 10; day++) {
+            attendanceSummaryService.save(attendance(employee, LocalDate.of(2024, 6, day), 8, 8 + day), null);
+        }
+        AttendanceMonthlySummary incremental = summary(employee, 2024, 6);
+
+        attendanceSummaryService.rebuildMonth(2024, 6);
+
+        assertThat(summary(employee, 2024, 6))
+                .usingRecursiveComparison()
+                .comparingOnlyFields("presentCount", "absentCount", "lateCount", "halfDayCount", "overtimeCount",
+                        "workFromHomeCount", "workedMinutes")
+                .isEqualTo(incremental);
+    }
+
+    @Test
+    void rebuildWaitsForADeltaInFlightAndCountsItOnce() throws Exception {
+        Employee employee = newEmployee("Tess", "Race");
+        LocalDate day = LocalDate.of(2024, 7, 1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // A write that has applied its delta but not committed yet
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            attendanceSummaryService.save(attendance(employee, day, 8, 17), null);
+            written.countDown();
+            await(commit);
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(() -> attendanceSummaryService.rebuildMonth(2024, 7));
+        Thread.sleep(300);
+        assertThat(rebuild).isNotDone();
+
+        commit.countDown();
+        write.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+
+        assertThat(summary(employee, 2024, 7).getPresentCount()).isEqualTo(1);
+    }
+
+    private AttendanceMonthlySummary summary(Employee employee, int year, int month) {
+        return attendanceSummaryService.getEmployeeMonth(employee.getId(), year, month).orElseThrow();
+    }
+
+    private static Attendance attendance(Employee employee, LocalDate day, int clockInHour, int clockOutHour) {
+        Attendance attendance = new Attendance(employee.getId(), day, day.atTime(clockInHour, 0));
+        attendance.setClockOut(day.atTime(clockOutHour, 0));
+        attendance.setAttendanceStatus(clockOutHour - clockInHour < 4 ? AttendanceStatus.HALF_DAY : AttendanceStatus.PRESENT);
+        return attendance;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
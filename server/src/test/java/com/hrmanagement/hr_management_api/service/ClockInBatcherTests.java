@@ -0,0 +1,102 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.model.entity.AttendanceMonthlySummary;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+import com.hrmanagement.hr_management_api.service.ClockInBatcher.ClockInResult;
+
+class ClockInBatcherTests extends PostgresIntegrationTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 9);
+
+    @Autowired
+    private ClockInBatcher clockInBatcher;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
+    @Test
+    void storesAClockInUnderTheDayItWasTaken() throws Exception {
+        Employee employee = newEmployee("Nina", "Late");
+
+        Attendance attendance = await(clockInBatcher.submit(employee.getId(), DAY.atTime(23, 59, 59, 995_000_000))).attendance();
+
+        assertThat(attendance.getDate()).isEqualTo(DAY);
+        assertThat(attendance.getAttendanceStatus()).isEqualTo(AttendanceStatus.LATE);
+        assertThat(attendanceRepository.findByEmployeeIdAndDateAndIsDeletedFalse(employee.getId(), DAY)).isPresent();
+    }
+
+    @Test
+    void keepsOneClockInPerDayWhenABatchSpansMidnight() throws Exception {
+        Employee employee = newEmployee("Otto", "Midnight");
+
+        CompletableFuture<ClockInResult> before = clockInBatcher.submit(employee.getId(), DAY.atTime(23, 59, 59, 995_000_000));
+        CompletableFuture<ClockInResult> after = clockInBatcher.submit(employee.getId(), DAY.plusDays(1).atTime(0, 0, 0, 10_000_000));
+
+        assertThat(await(before).attendance().getDate()).isEqualTo(DAY);
+        assertThat(await(after).attendance().getDate()).isEqualTo(DAY.plusDays(1));
+        AttendanceMonthlySummary summary = attendanceSummaryService.getEmployeeMonth(employee.getId(), 2025, 3).orElseThrow();
+        assertThat(summary.getLateCount()).isEqualTo(1);
+        assertThat(summary.getPresentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void answersRepeatedClockInsAsAlreadyClockedIn() throws Exception {
+        Employee employee = newEmployee("Pia", "Twice");
+        LocalDateTime morning = DAY.atTime(8, 55);
+
+        List<CompletableFuture<ClockInResult>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(clockInBatcher.submit(employee.getId(), morning.plusSeconds(i)));
+        }
+        ClockInResult later = await(clockInBatcher.submit(employee.getId(), DAY.atTime(9, 30)));
+
+        long inserted = 0;
+        for (CompletableFuture<ClockInResult> result : results) {
+            inserted += await(result).alreadyClockedIn() ? 0 : 1;
+        }
+        assertThat(inserted).isEqualTo(1);
+        assertThat(later.alreadyClockedIn()).isTrue();
+        AttendanceMonthlySummary summary = attendanceSummaryService.getEmployeeMonth(employee.getId(), 2025, 3).orElseThrow();
+        assertThat(summary.getPresentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void turnsAwayUnknownEmployeesWithoutFailingTheBatch() throws Exception {
+        Employee employee = newEmployee("Quinn", "Known");
+
+        CompletableFuture<ClockInResult> unknown = clockInBatcher.submit(UUID.randomUUID().toString(), DAY.atTime(8, 0));
+        CompletableFuture<ClockInResult> known = clockInBatcher.submit(employee.getId(), DAY.atTime(8, 0));
+
+        assertThat(await(known).alreadyClockedIn()).isFalse();
+        assertThatThrownBy(() -> await(unknown))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Employee not found");
+    }
+
+    private static ClockInResult await(CompletableFuture<ClockInResult> result) throws Exception {
+        return result.get(10, TimeUnit.SECONDS);
+    }
+}
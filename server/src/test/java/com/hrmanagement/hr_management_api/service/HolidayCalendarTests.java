@@ -0,0 +1,93 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+// Working days are popcounts over one 64-bit word per 64 days of a year, so ranges that start or end on either side
+// of a word boundary (days 64/65, 128/129, ...) or cross into the next year are where a mask can go wrong
+class HolidayCalendarTests {
+
+    // Every day a working day: the count over a range is its length, so the masks are checked on their own
+    private final HolidayCalendar everyDay = new HolidayCalendar(new DefaultResourceLoader(), "classpath:holidays/", "XX", List.of());
+
+    private final HolidayCalendar us = new HolidayCalendar(new DefaultResourceLoader(), "classpath:holidays/", "US",
+            List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+
+    @Test
+    void countsEveryDayOfRangesAroundWordBoundaries() {
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        int[] boundaries = {0, 63, 64, 127, 128, 191, 192, 255, 256, 319, 320, 365};
+        for (int start : boundaries) {
+            for (int end : boundaries) {
+                for (int from = start - 1; from <= start + 1; from++) {
+                    for (int to = end - 1; to <= end + 1; to++) {
+                        if (from < 0 || to < from || to > 365) {
+                            continue;
+                        }
+                        LocalDate fromDate = first.plusDays(from);
+                        LocalDate toDate = first.plusDays(to);
+                        assertThat(everyDay.workingDays(fromDate, toDate))
+                                .as("%s to %s", fromDate, toDate)
+                                .isEqualTo(to - from + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void countsRangesAcrossYears() {
+        assertThat(everyDay.workingDays(LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 1))).isEqualTo(2);
+        assertThat(everyDay.workingDays(LocalDate.of(2023, 1, 1), LocalDate.of(2025, 12, 31)))
+                .isEqualTo(365 + 366 + 365);
+        assertThat(everyDay.workingDays(LocalDate.of(2024, 12, 31), LocalDate.of(2024, 12, 31))).isEqualTo(1);
+        assertThat(everyDay.workingDays(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 2, 28))).isZero();
+    }
+
+    @Test
+    void matchesDayByDayCountsWithWeekendsAndHolidays() {
+        LocalDate start = LocalDate.of(2024, 12, 1);
+        LocalDate end = LocalDate.of(2026, 2, 1);
+        for (LocalDate from = start; from.isBefore(end); from = from.plusDays(17)) {
+            for (LocalDate to = from; to.isBefore(end); to = to.plusDays(23)) {
+                int expected = 0;
+                for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                    if (us.isWorkingDay(day)) {
+                        expected++;
+                    }
+                }
+                assertThat(us.workingDays(from, to)).as("%s to %s", from, to).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void skipsWeekendsAndListedHolidays() {
+        // 2025 has 261 weekdays and 11 federal holidays, none of them observed on a weekend
+        assertThat(us.workingDays(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).isEqualTo(250);
+        // 23 weekdays, Christmas Day among them
+        assertThat(us.workingDays(YearMonth.of(2025, 12))).isEqualTo(22);
+        // Monday to Friday around New Year's Day
+        assertThat(us.workingDays(LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 2))).isEqualTo(4);
+        assertThat(us.isWorkingDay(LocalDate.of(2025, 7, 4))).isFalse();
+        assertThat(us.isWorkingDay(LocalDate.of(2025, 7, 5))).isFalse();
+        assertThat(us.isWorkingDay(LocalDate.of(2025, 7, 7))).isTrue();
+    }
+
+    @Test
+    void countsWeekendsOnlyForACountryWithoutAFile() {
+        HolidayCalendar weekendsOnly = new HolidayCalendar(new DefaultResourceLoader(), "classpath:holidays/", "XX",
+                List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+
+        assertThat(weekendsOnly.workingDays(monday, monday.plusWeeks(52).minusDays(1))).isEqualTo(52 * 5);
+        assertThat(weekendsOnly.isWorkingDay(LocalDate.of(2025, 12, 25))).isTrue();
+    }
+}
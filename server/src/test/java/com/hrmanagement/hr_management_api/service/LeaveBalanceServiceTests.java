@@ -0,0 +1,143 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.LeaveBalance;
+import com.hrmanagement.hr_management_api.model.entity.LeaveRequest;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestStatus;
+import com.hrmanagement.hr_management_api.model.enums.LeaveRequestType;
+import com.hrmanagement.hr_management_api.repository.LeaveRequestRepository;
+import com.hrmanagement.hr_management_api.service.LeaveBalanceService.AllowanceExceededException;
+import com.hrmanagement.hr_management_api.service.LeaveBalanceService.Usage;
+
+class LeaveBalanceServiceTests extends PostgresIntegrationTests {
+
+    private static final int YEAR = 2023;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void movesDaysFromPendingToApproved() {
+        Employee employee = newEmployee("Uma", "Balance");
+
+        LeaveRequest request = leaveBalanceService.save(leave(employee, LeaveRequestType.ANNUAL, 3, 5), null);
+        assertThat(balance(employee, LeaveRequestType.ANNUAL))
+                .extracting(LeaveBalance::getPendingDays, LeaveBalance::getApprovedDays, LeaveBalance::getRemainingDays)
+                .containsExactly(5, 0, 16);
+
+        Usage before = Usage.of(request);
+        request.setLeaveRequestStatus(LeaveRequestStatus.APPROVED);
+        request = leaveBalanceService.save(request, before);
+        assertThat(balance(employee, LeaveRequestType.ANNUAL))
+                .extracting(LeaveBalance::getPendingDays, LeaveBalance::getApprovedDays)
+                .containsExactly(0, 5);
+
+        before = Usage.of(request);
+        request.setLeaveRequestStatus(LeaveRequestStatus.REJECTED);
+        leaveBalanceService.save(request, before);
+        assertThat(balance(employee, LeaveRequestType.ANNUAL).getRemainingDays()).isEqualTo(21);
+    }
+
+    @Test
+    void refusesLeavePastTheAllowanceAndKeepsNothingOfIt() {
+        Employee employee = newEmployee("Vic", "Allowance");
+        leaveBalanceService.save(leave(employee, LeaveRequestType.EMERGENCY, 1, 2), null);
+
+        assertThatThrownBy(() -> leaveBalanceService.save(leave(employee, LeaveRequestType.EMERGENCY, 10, 2), null))
+                .isInstanceOf(AllowanceExceededException.class)
+                .hasMessageContaining("1 of 3 days left");
+
+        assertThat(balance(employee, LeaveRequestType.EMERGENCY).getPendingDays()).isEqualTo(2);
+        assertThat(leaveRequestRepository.findAll()).filteredOn(r -> employee.getId().equals(r.getEmployeeId())).hasSize(1);
+    }
+
+    @Test
+    void letsOnlyOneOfTwoConcurrentRequestsTakeTheLastDays() throws Exception {
+        Employee employee = newEmployee("Wes", "Race");
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            int startDay = 1 + 10 * i;
+            attempts.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    leaveBalanceService.save(leave(employee, LeaveRequestType.EMERGENCY, startDay, 2), null);
+                    return true;
+                } catch (AllowanceExceededException e) {
+                    return false;
+                }
+            }));
+        }
+
+        int succeeded = 0;
+        for (CompletableFuture<Boolean> attempt : attempts) {
+            succeeded += attempt.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(balance(employee, LeaveRequestType.EMERGENCY).getPendingDays()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildWaitsForADeltaInFlightAndCountsItOnce() throws Exception {
+        Employee employee = newEmployee("Xena", "Rebuild");
+        leaveBalanceService.save(leave(employee, LeaveRequestType.SICK, 1, 2), null);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            leaveBalanceService.save(leave(employee, LeaveRequestType.SICK, 10, 3), null);
+            written.countDown();
+            await(commit);
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(() -> leaveBalanceService.rebuildYear(YEAR));
+        Thread.sleep(300);
+        assertThat(rebuild).isNotDone();
+
+        commit.countDown();
+        write.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+
+        assertThat(balance(employee, LeaveRequestType.SICK).getPendingDays()).isEqualTo(5);
+    }
+
+    private LeaveBalance balance(Employee employee, LeaveRequestType type) {
+        return leaveBalanceService.getBalance(employee.getId(), YEAR, type);
+    }
+
+    // Leave of the given working days in March, starting on the given day
+    private static LeaveRequest leave(Employee employee, LeaveRequestType type, int startDay, int days) {
+        LocalDate start = LocalDate.of(YEAR, 3, startDay);
+        return new LeaveRequest(employee.getId(), type, start, start.plusDays(days - 1), days, "Test", start.minusDays(7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.entity.PayrollJob;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.PayrollJobRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+
+class PayrollJobWorkerTests extends PostgresIntegrationTests {
+
+    @Autowired
+    private PayrollJobWorker payrollJobWorker;
+
+    @Autowired
+    private PayrollTransitionService payrollTransitionService;
+
+    @Autowired
+    private PayrollLedgerService payrollLedgerService;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private PayrollJobRepository payrollJobRepository;
+
+    @Test
+    void completesAValidPayrollAndDropsItsJob() {
+        Employee employee = newEmployee("Ivy", "Worker");
+        Payroll payroll = processing(employee, LocalDate.of(2023, 6, 30));
+
+        drain();
+
+        Payroll stored = payrollRepository.findById(payroll.getId()).orElseThrow();
+        assertThat(stored.getPayrollStatus()).isEqualTo(PayrollStatus.COMPLETED);
+        assertThat(stored.getPaidDate()).isNotNull();
+        assertThat(payrollJobRepository.findByPayrollId(payroll.getId())).isEmpty();
+        assertThat(payrollLedgerService.getPaid(employee.getId(), 2023)).isEqualByComparingTo("5000.00");
+    }
+
+    @Test
+    void failsAnInvalidPayrollAndKeepsItsJobWithTheReason() {
+        Payroll payroll = processing(newEmployee("Jon", "Invalid"), LocalDate.of(2023, 5, 31));
+
+        drain();
+
+        assertThat(payrollRepository.findById(payroll.getId()).orElseThrow().getPayrollStatus())
+                .isEqualTo(PayrollStatus.FAILED);
+        PayrollJob job = payrollJobRepository.findByPayrollId(payroll.getId()).orElseThrow();
+        assertThat(job.getLastError()).isEqualTo("Invalid pay period");
+        assertThat(job.getRunAt()).isNull();
+        assertThat(job.getLockedBy()).isNull();
+    }
+
+    @Test
+    void permanentlyDeletingAnEmployeeTakesTheirPayrollJobsAlong() {
+        Employee employee = newEmployee("Kai", "Delete");
+        Payroll payroll = processing(employee, LocalDate.of(2023, 6, 30));
+        assertThat(payrollJobRepository.findByPayrollId(payroll.getId())).isPresent();
+
+        employeeRepository.deleteById(employee.getId());
+
+        assertThat(payrollRepository.findById(payroll.getId())).isEmpty();
+        assertThat(payrollJobRepository.findByPayrollId(payroll.getId())).isEmpty();
+    }
+
+    // A June payroll moved to PROCESSING through the workflow, which queues its job
+    private Payroll processing(Employee employee, LocalDate payPeriodEnd) {
+        Payroll payroll = new Payroll(employee.getId(), LocalDate.of(2023, 6, 1), payPeriodEnd,
+                new BigDecimal("5000.00"), BigDecimal.ZERO, BigDecimal.ZERO);
+        payroll.setPayrollStatus(PayrollStatus.APPROVED);
+        payroll = payrollLedgerService.save(payroll, null);
+        return payrollTransitionService.transition(payroll.getId(), PayrollStatus.PROCESSING, null).orElseThrow();
+    }
+
+    // Failed jobs are released without a run time, so this stops once every due job has been settled
+    private void drain() {
+        while (payrollJobWorker.processBatch() > 0) {
+            // keep claiming
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.service.PayrollLedgerService.Entry;
+
+class PayrollLedgerServiceTests extends PostgresIntegrationTests {
+
+    private static final int YEAR = 2023;
+
+    @Autowired
+    private PayrollLedgerService payrollLedgerService;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void movesEntriesAsPayrollsChange() {
+        Employee employee = newEmployee("Ada", "Ledger");
+        long pending = count(PayrollStatus.PENDING);
+        long completed = count(PayrollStatus.COMPLETED);
+
+        Payroll payroll = payrollLedgerService.save(payroll(employee, 1, PayrollStatus.PENDING), null);
+        assertThat(count(PayrollStatus.PENDING)).isEqualTo(pending + 1);
+        assertThat(payrollLedgerService.getPaid(employee.getId(), YEAR)).isEqualByComparingTo("0");
+
+        Entry before = Entry.of(payroll);
+        payroll.setPayrollStatus(PayrollStatus.COMPLETED);
+        payroll = payrollLedgerService.save(payroll, before);
+        assertThat(count(PayrollStatus.PENDING)).isEqualTo(pending);
+        assertThat(count(PayrollStatus.COMPLETED)).isEqualTo(completed + 1);
+        assertThat(payrollLedgerService.getPaid(employee.getId(), YEAR)).isEqualByComparingTo("5400.00");
+
+        before = Entry.of(payroll);
+        payroll.setDeleted(true);
+        payrollLedgerService.save(payroll, before);
+        assertThat(count(PayrollStatus.COMPLETED)).isEqualTo(completed);
+        assertThat(payrollLedgerService.getPaid(employee.getId())).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void reconcileRepairsAWriteThatWentAroundTheService() {
+        Employee employee = newEmployee("Bo", "Reconcile");
+        payrollRepository.save(payroll(employee, 1, PayrollStatus.COMPLETED));
+
+        assertThat(payrollLedgerService.reconcile()).isPositive();
+        assertThat(payrollLedgerService.getPaid(employee.getId(), YEAR)).isEqualByComparingTo("5400.00");
+        assertThat(payrollLedgerService.reconcile()).isZero();
+    }
+
+    @Test
+    void rebuildWaitsForADeltaInFlightAndCountsItOnce() throws Exception {
+        Employee employee = newEmployee("Cy", "Rebuild");
+        payrollLedgerService.save(payroll(employee, 1, PayrollStatus.COMPLETED), null);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            payrollLedgerService.save(payroll(employee, 2, PayrollStatus.COMPLETED), null);
+            written.countDown();
+            await(commit);
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(payrollLedgerService::rebuildAll);
+        Thread.sleep(300);
+        assertThat(rebuild).isNotDone();
+
+        commit.countDown();
+        write.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+
+        assertThat(payrollLedgerService.getPaid(employee.getId(), YEAR)).isEqualByComparingTo("10800.00");
+        assertThat(payrollLedgerService.reconcile()).isZero();
+    }
+
+    private long count(PayrollStatus status) {
+        return payrollLedgerService.getTotal(status).getRecordCount();
+    }
+
+    // A month's payroll of 5000 + 500 bonus - 100 deductions
+    private static Payroll payroll(Employee employee, int month, PayrollStatus status) {
+        LocalDate start = LocalDate.of(YEAR, month, 1);
+        Payroll payroll = new Payroll(employee.getId(), start, start.plusMonths(1).minusDays(1),
+                new BigDecimal("5000.00"), new BigDecimal("500.00"), new BigDecimal("100.00"));
+        payroll.setPayrollStatus(status);
+        return payroll;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.service.PayrollRunService.PayrollRunReport;
+import com.hrmanagement.hr_management_api.service.PayrollRunService.RowError;
+
+class PayrollRunServiceTests extends PostgresIntegrationTests {
+
+    @Autowired
+    private PayrollRunService payrollRunService;
+
+    @Autowired
+    private PayrollLedgerService payrollLedgerService;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Test
+    void savesValidRowsAndReportsTheRestByIndex() throws Exception {
+        Employee employee = newEmployee("Lea", "Run");
+        Employee other = newEmployee("Max", "Run");
+        payrollLedgerService.save(payroll(employee.getId(), 1), null);
+
+        PayrollRunReport report = payrollRunService.run(List.of(
+                payroll(employee.getId(), 2),
+                payroll("missing", 2),
+                payroll(employee.getId(), 1),
+                payroll(other.getId(), 2),
+                payroll(other.getId(), 2),
+                payroll(other.getId(), null))).get(10, TimeUnit.SECONDS);
+
+        assertThat(report.requested()).isEqualTo(6);
+        assertThat(report.created()).isEqualTo(2);
+        assertThat(report.errors()).extracting(RowError::index, RowError::message).containsExactly(
+                tuple(1, "Employee not found"),
+                tuple(2, "Payroll already exists for this employee and pay period"),
+                tuple(4, "Payroll already exists for this employee and pay period"),
+                tuple(5, "Pay period start is required"));
+        assertThat(payrollRepository.findAllById(report.ids())).hasSize(2).allSatisfy(payroll -> {
+            assertThat(payroll.getPayrollStatus()).isEqualTo(PayrollStatus.DRAFT);
+            assertThat(payroll.getNetPay()).isEqualByComparingTo("5400.00");
+        });
+    }
+
+    @Test
+    void retriesAFailedChunkRowByRowAndKeepsTheGoodRows() throws Exception {
+        Employee employee = newEmployee("Ned", "Retry");
+        Payroll overflow = payroll(employee.getId(), 3);
+        // Past NUMERIC(19, 2), so the insert fails in the database rather than in validation
+        overflow.setSalary(new BigDecimal("1000000000000000000.00"));
+
+        PayrollRunReport report = payrollRunService.run(List.of(
+                payroll(employee.getId(), 1), overflow, payroll(employee.getId(), 2))).get(10, TimeUnit.SECONDS);
+
+        assertThat(report.created()).isEqualTo(2);
+        assertThat(report.errors()).extracting(RowError::index).containsExactly(1);
+        assertThat(report.chunks()).singleElement().satisfies(chunk -> assertThat(chunk.failed()).isEqualTo(1));
+        assertThat(payrollRepository.findAllById(report.ids())).hasSize(2);
+    }
+
+    @Test
+    void turnsAwayRunsPastTheLimitAndSavesOnlyOnThePool() throws Exception {
+        Employee employee = newEmployee("Ola", "Limit");
+        PayrollLedgerService blockingLedger = mock(PayrollLedgerService.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(blockingLedger.saveAll(anyList())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        PayrollRunService limited = new PayrollRunService(payrollRepository, employeeRepository, blockingLedger, 500, 1, 1);
+        try {
+            CompletableFuture<PayrollRunReport> first = limited.run(List.of(payroll(employee.getId(), 1)));
+            assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> limited.run(List.of(payroll(employee.getId(), 2))).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RejectedExecutionException.class);
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).requested()).isEqualTo(1);
+            assertThat(limited.run(List.of(payroll(employee.getId(), 3))).get(10, TimeUnit.SECONDS).requested()).isEqualTo(1);
+            assertThat(threads).hasSize(2).allSatisfy(name -> assertThat(name).startsWith("payroll-run-"));
+        } finally {
+            release.countDown();
+            limited.stop();
+        }
+    }
+
+    // A 2023 payroll of 5000 + 500 bonus - 100 deductions for the given month, or without a start date
+    private static Payroll payroll(String employeeId, Integer month) {
+        LocalDate start = month != null ? LocalDate.of(2023, month, 1) : null;
+        return new Payroll(employeeId, start, start != null ? start.plusMonths(1).minusDays(1) : null,
+                new BigDecimal("5000.00"), new BigDecimal("500.00"), new BigDecimal("100.00"));
+    }
+}
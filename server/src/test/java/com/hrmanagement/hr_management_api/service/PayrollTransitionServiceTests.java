@@ -0,0 +1,119 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.controller.PayrollController;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.Payroll;
+import com.hrmanagement.hr_management_api.model.enums.PayrollStatus;
+import com.hrmanagement.hr_management_api.repository.PayrollJobRepository;
+import com.hrmanagement.hr_management_api.repository.PayrollRepository;
+import com.hrmanagement.hr_management_api.service.PayrollTransitionService.TransitionConflictException;
+import com.hrmanagement.hr_management_api.util.ApiResponse;
+
+class PayrollTransitionServiceTests extends PostgresIntegrationTests {
+
+    @Autowired
+    private PayrollTransitionService payrollTransitionService;
+
+    @Autowired
+    private PayrollLedgerService payrollLedgerService;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private PayrollJobRepository payrollJobRepository;
+
+    @Autowired
+    private PayrollController payrollController;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void returnsTheMovedStateOfAPayrollTheCallerAlreadyLoaded() {
+        Payroll payroll = payroll(newEmployee("Dee", "Approve"), PayrollStatus.PENDING);
+
+        Payroll moved = new TransactionTemplate(transactionManager).execute(status -> {
+            Payroll loaded = payrollRepository.findById(payroll.getId()).orElseThrow();
+            return payrollTransitionService.transition(loaded.getId(), PayrollStatus.APPROVED, loaded.getVersion())
+                    .orElseThrow();
+        });
+
+        assertThat(moved.getPayrollStatus()).isEqualTo(PayrollStatus.APPROVED);
+        assertThat(moved.getVersion()).isGreaterThan(payroll.getVersion());
+        assertThat(moved.getProcessedDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void stampsThePaidDateOfPayrollsMovedTogether() {
+        Payroll payroll = payroll(newEmployee("Eli", "Complete"), PayrollStatus.PROCESSING);
+
+        List<Payroll> moved = new TransactionTemplate(transactionManager).execute(status -> {
+            payrollRepository.findById(payroll.getId()).orElseThrow();
+            return payrollTransitionService.moveAll(List.of(payroll.getId()), PayrollStatus.COMPLETED);
+        });
+
+        assertThat(moved).singleElement().satisfies(completed -> {
+            assertThat(completed.getPayrollStatus()).isEqualTo(PayrollStatus.COMPLETED);
+            assertThat(completed.getPaidDate()).isNotNull();
+        });
+        assertThat(payrollRepository.findById(payroll.getId()).orElseThrow().getPaidDate()).isNotNull();
+    }
+
+    @Test
+    void queuesAJobForAPayrollThatStartsProcessing() {
+        Payroll payroll = payroll(newEmployee("Fay", "Process"), PayrollStatus.APPROVED);
+
+        payrollTransitionService.transition(payroll.getId(), PayrollStatus.PROCESSING, null);
+
+        assertThat(payrollJobRepository.findByPayrollId(payroll.getId())).isPresent();
+    }
+
+    @Test
+    void refusesAMoveFromTheWrongStatus() {
+        Payroll payroll = payroll(newEmployee("Gus", "Conflict"), PayrollStatus.PENDING);
+
+        assertThatThrownBy(() -> payrollTransitionService.transition(payroll.getId(), PayrollStatus.COMPLETED, null))
+                .isInstanceOf(TransitionConflictException.class)
+                .hasMessageContaining("only processing records");
+        assertThat(payrollRepository.findById(payroll.getId()).orElseThrow().getPayrollStatus())
+                .isEqualTo(PayrollStatus.PENDING);
+    }
+
+    @Test
+    void updateLeavesTheStatusToTheWorkflowEndpoints() {
+        Payroll payroll = payroll(newEmployee("Hal", "Update"), PayrollStatus.APPROVED);
+        Payroll details = new Payroll();
+        details.setPayrollStatus(PayrollStatus.COMPLETED);
+
+        ResponseEntity<ApiResponse> response = payrollController.updatePayroll(payroll.getId(), details);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        Payroll stored = payrollRepository.findById(payroll.getId()).orElseThrow();
+        assertThat(stored.getPayrollStatus()).isEqualTo(PayrollStatus.APPROVED);
+        assertThat(stored.getPaidDate()).isNull();
+        assertThat(payrollJobRepository.findByPayrollId(payroll.getId())).isEmpty();
+    }
+
+    private Payroll payroll(Employee employee, PayrollStatus status) {
+        Payroll payroll = new Payroll(employee.getId(), LocalDate.of(2023, 5, 1), LocalDate.of(2023, 5, 31),
+                new BigDecimal("5000.00"), BigDecimal.ZERO, BigDecimal.ZERO);
+        payroll.setPayrollStatus(status);
+        return payrollLedgerService.save(payroll, null);
+    }
+}
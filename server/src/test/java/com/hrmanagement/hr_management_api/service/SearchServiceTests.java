@@ -0,0 +1,67 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.dto.EmployeeSummary;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+
+class SearchServiceTests extends PostgresIntegrationTests {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Test
+    void matchesASingleCharacterAsANamePrefix() {
+        Employee quinlan = newEmployee("Quinlan", "Zephyr");
+        Employee maya = newEmployee("Maya", "Quist");
+
+        assertThat(ids("Q")).contains(quinlan.getId()).doesNotContain(maya.getId());
+    }
+
+    @Test
+    void matchesTwoCharactersByWordSimilarity() {
+        Employee zuleika = newEmployee("Zuleika", "Frost");
+        Employee mazurek = newEmployee("Anton", "Mazurek");
+
+        // The start of a word, not the middle of one
+        assertThat(ids("zu")).contains(zuleika.getId()).doesNotContain(mazurek.getId());
+    }
+
+    @Test
+    void matchesLongerTermsAsASubstringOrAWordSimilarToIt() {
+        Employee employee = newEmployee("Ottoline", "Brackwater");
+
+        assertThat(ids("ckwat")).contains(employee.getId());
+        assertThat(ids("  OTTOLINE   brack ")).contains(employee.getId());
+        // A doubled letter is not a substring, but still close enough
+        assertThat(ids("brackwatter")).contains(employee.getId());
+        assertThat(ids("blackwood")).doesNotContain(employee.getId());
+    }
+
+    @Test
+    void treatsLikeWildcardsInTheTermLiterally() {
+        newEmployee("Percival", "Underhay");
+
+        // Unescaped, each of these would match every name
+        assertThat(ids("%")).isEmpty();
+        assertThat(ids("_")).isEmpty();
+        assertThat(ids("%%%")).isEmpty();
+    }
+
+    @Test
+    void refusesABlankQueryAndANonPositiveLimit() {
+        assertThatIllegalArgumentException().isThrownBy(() -> searchService.searchEmployees("   ", null));
+        assertThatIllegalArgumentException().isThrownBy(() -> searchService.searchEmployees("ann", 0));
+    }
+
+    private List<String> ids(String query) {
+        return searchService.searchEmployees(query, 50).stream().map(EmployeeSummary::id).toList();
+    }
+}
@@ -0,0 +1,191 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.hrmanagement.hr_management_api.PostgresIntegrationTests;
+import com.hrmanagement.hr_management_api.model.entity.Attendance;
+import com.hrmanagement.hr_management_api.model.entity.Department;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.ShiftRule;
+import com.hrmanagement.hr_management_api.model.enums.AttendanceStatus;
+import com.hrmanagement.hr_management_api.repository.AttendanceRepository;
+import com.hrmanagement.hr_management_api.repository.DepartmentRepository;
+import com.hrmanagement.hr_management_api.repository.ShiftRuleRepository;
+
+// The in-memory classification has a SQL twin (AttendanceRepository.CLASSIFIED_STATUS) used by reclassification;
+// both must decide every clock-in and clock-out the same way, thresholds and sub-minute remainders included
+class ShiftRuleEngineTests extends PostgresIntegrationTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private ShiftRuleEngine shiftRuleEngine;
+
+    @Autowired
+    private ShiftRuleRepository shiftRuleRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
+    @Test
+    void classifiesAtTheDefaultThresholds() {
+        ShiftRuleEngine engine = engine("09:00", 0, 240, 600);
+
+        assertThat(engine.atClockIn(null, DAY.atTime(9, 0, 59))).isEqualTo(AttendanceStatus.PRESENT);
+        assertThat(engine.atClockIn(null, DAY.atTime(9, 1))).isEqualTo(AttendanceStatus.LATE);
+        assertThat(engine.classify(null, DAY.atTime(9, 0), DAY.atTime(12, 59, 59))).isEqualTo(AttendanceStatus.HALF_DAY);
+        assertThat(engine.classify(null, DAY.atTime(9, 0), DAY.atTime(13, 0))).isEqualTo(AttendanceStatus.PRESENT);
+        assertThat(engine.classify(null, DAY.atTime(9, 30), DAY.atTime(19, 29, 59))).isEqualTo(AttendanceStatus.LATE);
+        assertThat(engine.classify(null, DAY.atTime(9, 30), DAY.atTime(19, 30))).isEqualTo(AttendanceStatus.OVERTIME);
+        assertThat(engine.classify(null, null, null)).isEqualTo(AttendanceStatus.ABSENT);
+    }
+
+    @Test
+    void matchesTheSqlAtTheDefaultRule() {
+        assertMatchesSql(engine("09:00", 0, 240, 600), 9 * 60, 240, 600);
+    }
+
+    @Test
+    void matchesTheSqlWithAGracePeriod() {
+        assertMatchesSql(engine("08:30", 15, 300, 540), 8 * 60 + 45, 300, 540);
+    }
+
+    @Test
+    void refusesShiftsThatRunPastMidnight() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> engine("22:00", 0, 240, 600))
+                .withMessageContaining("past midnight");
+        // Overtime from exactly midnight on is still the same day
+        assertThat(engine("14:00", 0, 240, 600).atClockIn(null, DAY.atTime(23, 59))).isEqualTo(AttendanceStatus.LATE);
+
+        String departmentId = newDepartment();
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> shiftRuleEngine.saveRule(new ShiftRule(departmentId, LocalTime.of(16, 0), 0, 480, 600), null));
+        assertThat(shiftRuleRepository.existsById(departmentId)).isFalse();
+    }
+
+    @Test
+    void fallsBackToTheDefaultForAStoredRuleThatRunsPastMidnight() {
+        String departmentId = newDepartment();
+        // Written around saveRule, like a row from before the check
+        jdbc.update("INSERT INTO shift_rules (department_id, shift_start, late_grace_minutes, half_day_minutes, overtime_minutes) " +
+                    "VALUES (:departmentId, '20:00', 0, 240, 600)", Map.of("departmentId", departmentId));
+
+        shiftRuleEngine.reload();
+
+        // Late under the 09:00 default; under the stored 20:00 rule a 10:00 clock-in would have been on time
+        assertThat(shiftRuleEngine.atClockIn(departmentId, DAY.atTime(10, 0))).isEqualTo(AttendanceStatus.LATE);
+        assertThat(shiftRuleEngine.getRule(departmentId).getShiftStart()).isEqualTo(LocalTime.of(9, 0));
+    }
+
+    @Test
+    void reclassifiesTheRecordsOfTheDepartmentsCurrentEmployees() {
+        String before = newDepartment();
+        String after = newDepartment();
+        Employee employee = newEmployee("Rae", "Mover");
+        employee.setDepartmentId(before);
+        employee = employeeRepository.save(employee);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Attendance attendance = new Attendance(employee.getId(), yesterday, yesterday.atTime(9, 30));
+        attendance.setAttendanceStatus(AttendanceStatus.LATE);
+        String attendanceId = attendanceSummaryService.save(attendance, null).getId();
+
+        employee.setDepartmentId(after);
+        employeeRepository.save(employee);
+        // The record was made in the old department, but is reclassified by the department the employee is in now
+        shiftRuleEngine.saveRule(new ShiftRule(after, LocalTime.of(10, 0), 0, 240, 600), yesterday);
+        assertThat(status(attendanceId)).isEqualTo(AttendanceStatus.PRESENT);
+
+        // and the old department's rule no longer reaches it
+        shiftRuleEngine.saveRule(new ShiftRule(before, LocalTime.of(8, 0), 0, 240, 600), yesterday);
+        assertThat(status(attendanceId)).isEqualTo(AttendanceStatus.PRESENT);
+    }
+
+    private void assertMatchesSql(ShiftRuleEngine engine, int lateAfterMinute, int halfDayMinutes, int overtimeMinutes) {
+        String sql = "SELECT " + AttendanceRepository.CLASSIFIED_STATUS + " FROM " +
+                     "(SELECT CAST(:clockIn AS timestamp) AS clock_in, CAST(:clockOut AS timestamp) AS clock_out) a";
+        for (LocalDateTime clockIn : clockIns(lateAfterMinute)) {
+            for (LocalDateTime clockOut : clockOuts(clockIn, halfDayMinutes, overtimeMinutes)) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("clockIn", clockIn);
+                params.put("clockOut", clockOut);
+                params.put("lateAfterMinute", lateAfterMinute);
+                params.put("halfDayMinutes", halfDayMinutes);
+                params.put("overtimeMinutes", overtimeMinutes);
+                String expected = jdbc.queryForObject(sql, params, String.class);
+
+                assertThat(engine.classify(null, clockIn, clockOut).name())
+                        .as("clock-in %s, clock-out %s", clockIn, clockOut)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    // Around the late threshold, to the microsecond (the precision PostgreSQL keeps)
+    private static List<LocalDateTime> clockIns(int lateAfterMinute) {
+        LocalDateTime threshold = DAY.atStartOfDay().plusMinutes(lateAfterMinute);
+        return List.of(
+                DAY.atTime(0, 0),
+                threshold.minusMinutes(1),
+                threshold.minusNanos(1_000),
+                threshold,
+                threshold.plusSeconds(59).plusNanos(999_999_000),
+                threshold.plusMinutes(1),
+                threshold.plusMinutes(1).plusNanos(500_000_000),
+                DAY.atTime(23, 59, 59));
+    }
+
+    // No clock-out, and clock-outs around both worked-time thresholds, with and without sub-second remainders
+    private static List<LocalDateTime> clockOuts(LocalDateTime clockIn, int halfDayMinutes, int overtimeMinutes) {
+        List<LocalDateTime> clockOuts = new ArrayList<>();
+        clockOuts.add(null);
+        clockOuts.add(clockIn);
+        clockOuts.add(clockIn.minusSeconds(30));
+        for (int minutes : new int[] {halfDayMinutes, overtimeMinutes}) {
+            LocalDateTime at = clockIn.plusMinutes(minutes);
+            clockOuts.add(at.minusSeconds(1));
+            clockOuts.add(at.minusNanos(1_000));
+            clockOuts.add(at);
+            clockOuts.add(at.plusNanos(1_000));
+            clockOuts.add(at.plusSeconds(59));
+        }
+        return clockOuts;
+    }
+
+    private String newDepartment() {
+        return departmentRepository.save(new Department("Shift " + UUID.randomUUID(), "Test")).getId();
+    }
+
+    private AttendanceStatus status(String attendanceId) {
+        return attendanceRepository.findById(attendanceId).orElseThrow().getAttendanceStatus();
+    }
+
+    // An engine whose default rule is the one given; classify(null, ...) never touches the repositories
+    private static ShiftRuleEngine engine(String shiftStart, int lateGraceMinutes, int halfDayMinutes, int overtimeMinutes) {
+        return new ShiftRuleEngine(null, null, null, null, null,
+                shiftStart, lateGraceMinutes, halfDayMinutes, overtimeMinutes);
+    }
+}
@@ -0,0 +1,132 @@
+package com.hrmanagement.hr_management_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hrmanagement.hr_management_api.model.dto.EmployeeSummary;
+import com.hrmanagement.hr_management_api.model.entity.Employee;
+import com.hrmanagement.hr_management_api.model.entity.User;
+import com.hrmanagement.hr_management_api.repository.EmployeeRepository;
+import com.hrmanagement.hr_management_api.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TypeaheadIndexTests {
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Folds the overlay into the index once it holds more than two writes
+    private final TypeaheadIndex index = new TypeaheadIndex(employeeRepository, userRepository, meterRegistry,
+            1000, 2, 10, 50);
+
+    private final Employee jane = employee("1", "Jane", "Smith", "jane.smith@example.com");
+    private final Employee jose = employee("2", "Jos\u00e9", "\u00c1lvarez", "jose@example.com");
+
+    @BeforeEach
+    void load() {
+        when(employeeRepository.findLiveRows()).thenReturn(List.of(EmployeeSummary.of(jane), EmployeeSummary.of(jose)));
+        when(userRepository.findByIsDeletedFalse()).thenReturn(List.of(user("u1", "jane.smith")));
+        index.rebuild();
+    }
+
+    @Test
+    void findsEmployeesByNameWordFullNameAndEmail() {
+        assertThat(ids("jan")).containsExactly("1");
+        assertThat(ids("SMI")).containsExactly("1");
+        assertThat(ids("smith jane")).containsExactly("1");
+        assertThat(ids("jose@")).containsExactly("2");
+        // Accents are folded on both sides
+        assertThat(ids("alv")).containsExactly("2");
+        assertThat(ids("jo")).containsExactly("2");
+        assertThat(index.users("smith", null).orElseThrow()).extracting("username").containsExactly("jane.smith");
+    }
+
+    @Test
+    void seesARenameBeforeTheNextRebuild() {
+        jane.setLastName("Brown");
+        index.saved(jane);
+
+        assertThat(ids("brown")).containsExactly("1");
+        assertThat(ids("smith")).isEmpty();
+        // Found once, from the overlay, not again from the index under its old name
+        assertThat(ids("jane")).containsExactly("1");
+    }
+
+    @Test
+    void dropsRemovedAndDeletedEmployees() {
+        index.removed(jane);
+        jose.setDeleted(true);
+        index.saved(jose);
+
+        assertThat(ids("jane")).isEmpty();
+        assertThat(ids("jose")).isEmpty();
+    }
+
+    @Test
+    void keepsWritesThatArriveDuringARebuild() {
+        Employee mark = employee("3", "Mark", "Jones", "mark@example.com");
+        when(employeeRepository.findLiveRows()).thenAnswer(invocation -> {
+            // Committed after the rebuild read the table, so the rows below do not have it
+            index.saved(mark);
+            return List.of(EmployeeSummary.of(jane), EmployeeSummary.of(jose));
+        });
+
+        index.rebuild();
+
+        assertThat(ids("mark")).containsExactly("3");
+        assertThat(ids("jane")).containsExactly("1");
+    }
+
+    @Test
+    void foldsTheOverlayIntoTheIndexWithoutReloading() throws InterruptedException {
+        for (int i = 3; i < 6; i++) {
+            index.saved(employee(String.valueOf(i), "Kim" + i, "Lee", "kim" + i + "@example.com"));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(pending()).isZero();
+        assertThat(ids("kim")).containsExactlyInAnyOrder("3", "4", "5");
+        assertThat(ids("jane")).containsExactly("1");
+        verify(employeeRepository, times(1)).findLiveRows();
+    }
+
+    private List<String> ids(String query) {
+        return index.employees(query, null).orElseThrow().stream().map(EmployeeSummary::id).toList();
+    }
+
+    private double pending() {
+        return meterRegistry.get("typeahead.index.pending").tag("index", "employees").gauge().value();
+    }
+
+    private static Employee employee(String id, String firstName, String lastName, String email) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail(email);
+        employee.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+        return employee;
+    }
+
+    private static User user(String id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
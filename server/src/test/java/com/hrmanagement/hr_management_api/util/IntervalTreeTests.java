@@ -0,0 +1,88 @@
+package com.hrmanagement.hr_management_api.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTests {
+
+    private record Range(int id, LocalDate start, LocalDate end) {}
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void findsTheSameRangesAsAScan() {
+        Random random = new Random(42);
+        for (int size : new int[] {1, 2, 3, 7, 64, 500}) {
+            List<Range> ranges = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                LocalDate start = DAY.plusDays(random.nextInt(365));
+                ranges.add(new Range(i, start, start.plusDays(random.nextInt(random.nextBoolean() ? 5 : 60))));
+            }
+            IntervalTree<Range> tree = IntervalTree.of(ranges, Range::start, Range::end);
+
+            for (int query = 0; query < 200; query++) {
+                LocalDate from = DAY.plusDays(random.nextInt(400) - 20);
+                LocalDate to = from.plusDays(random.nextInt(30));
+                List<Range> expected = ranges.stream()
+                        .filter(r -> !r.start().isAfter(to) && !r.end().isBefore(from))
+                        .toList();
+
+                List<Range> found = tree.overlapping(from, to);
+
+                assertThat(found).as("%d ranges, %s to %s", size, from, to).containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(found).isSortedAccordingTo(Comparator.comparing(Range::start));
+            }
+        }
+    }
+
+    @Test
+    void countsASharedFirstOrLastDayAsAnOverlap() {
+        Range range = new Range(1, DAY.plusDays(10), DAY.plusDays(20));
+        IntervalTree<Range> tree = IntervalTree.of(List.of(range), Range::start, Range::end);
+
+        assertThat(tree.overlapping(DAY, DAY.plusDays(10))).containsExactly(range);
+        assertThat(tree.overlapping(DAY.plusDays(20), DAY.plusDays(30))).containsExactly(range);
+        assertThat(tree.overlapping(DAY.plusDays(15), DAY.plusDays(15))).containsExactly(range);
+        assertThat(tree.overlapping(DAY, DAY.plusDays(9))).isEmpty();
+        assertThat(tree.overlapping(DAY.plusDays(21), DAY.plusDays(30))).isEmpty();
+    }
+
+    @Test
+    void findsALongRangeBehindShortLaterOnes() {
+        Range longRange = new Range(1, DAY, DAY.plusDays(100));
+        List<Range> ranges = new ArrayList<>(List.of(longRange));
+        for (int i = 2; i < 20; i++) {
+            ranges.add(new Range(i, DAY.plusDays(i), DAY.plusDays(i)));
+        }
+        IntervalTree<Range> tree = IntervalTree.of(ranges, Range::start, Range::end);
+
+        assertThat(tree.overlapping(DAY.plusDays(50), DAY.plusDays(60))).containsExactly(longRange);
+    }
+
+    @Test
+    void returnsItemsInStartOrder() {
+        List<Range> ranges = List.of(
+                new Range(1, DAY.plusDays(5), DAY.plusDays(6)),
+                new Range(2, DAY, DAY.plusDays(1)),
+                new Range(3, DAY.plusDays(2), DAY.plusDays(3)));
+        IntervalTree<Range> tree = IntervalTree.of(ranges, Range::start, Range::end);
+
+        assertThat(tree.items()).extracting(Range::id).containsExactly(2, 3, 1);
+        assertThat(tree.overlapping(DAY, DAY.plusDays(10))).extracting(Range::id).containsExactly(2, 3, 1);
+    }
+
+    @Test
+    void findsNothingInAnEmptyTree() {
+        IntervalTree<Range> tree = IntervalTree.of(List.of(), Range::start, Range::end);
+
+        assertThat(tree.isEmpty()).isTrue();
+        assertThat(tree.overlapping(DAY, DAY.plusDays(365))).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.hrmanagement.hr_management_api.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import com.hrmanagement.hr_management_api.model.entity.Department;
+
+class KeysetCursorTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 10, 9, 15, 30, 123_456_000);
+
+    @Test
+    void decodesTheKeyOfTheLastRowOfAWindow() {
+        List<Department> rows = List.of(department("a", CREATED), department("b", CREATED.plusSeconds(1)),
+                department("c", CREATED.plusSeconds(2)));
+        Window<Department> window = KeysetCursor.window(rows, Limit.of(2), Department::getCreatedAt, Department::getId);
+
+        KeysetCursor.Key key = KeysetCursor.after(KeysetCursor.decode(KeysetCursor.next(window)));
+
+        assertThat(window.getContent()).hasSize(2);
+        assertThat(key).isEqualTo(new KeysetCursor.Key(CREATED.plusSeconds(1), "b"));
+    }
+
+    @Test
+    void keepsSeparatorsInsideTheId() {
+        List<Department> rows = List.of(department("x|y|z", CREATED), department("next", CREATED));
+        Window<Department> window = KeysetCursor.window(rows, Limit.of(1), Department::getCreatedAt, Department::getId);
+
+        KeysetCursor.Key key = KeysetCursor.after(KeysetCursor.decode(KeysetCursor.next(window)));
+
+        assertThat(key).isEqualTo(new KeysetCursor.Key(CREATED, "x|y|z"));
+    }
+
+    @Test
+    void hasNoCursorAfterTheLastPage() {
+        List<Department> rows = List.of(department("a", CREATED), department("b", CREATED));
+
+        assertThat(KeysetCursor.next(KeysetCursor.window(rows, Limit.of(2), Department::getCreatedAt, Department::getId))).isNull();
+        assertThat(KeysetCursor.next(KeysetCursor.window(List.<Department>of(), Limit.of(2), Department::getCreatedAt,
+                Department::getId))).isNull();
+    }
+
+    @Test
+    void startsAtTheFirstPageWithoutACursor() {
+        for (String cursor : new String[] {null, "", "  "}) {
+            ScrollPosition position = KeysetCursor.decode(cursor);
+
+            assertThat(position).isInstanceOf(KeysetScrollPosition.class);
+            assertThat(KeysetCursor.after(position)).isNull();
+        }
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String raw : new String[] {"no-separator", "|id", CREATED + "|", "yesterday|id"}) {
+            String cursor = encode(raw);
+            assertThatIllegalArgumentException().as(raw).isThrownBy(() -> KeysetCursor.decode(cursor));
+        }
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode("not base64!"));
+    }
+
+    @Test
+    void clampsThePageSize() {
+        assertThat(KeysetCursor.limit(null).max()).isEqualTo(KeysetCursor.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetCursor.limit(-5).max()).isEqualTo(1);
+        assertThat(KeysetCursor.limit(0).max()).isEqualTo(1);
+        assertThat(KeysetCursor.limit(20).max()).isEqualTo(20);
+        assertThat(KeysetCursor.limit(KeysetCursor.MAX_PAGE_SIZE + 1).max()).isEqualTo(KeysetCursor.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void pagesInMemoryRowsAfterTheCursor() {
+        List<Department> sorted = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // Pairs of rows share a creation time, so the id breaks the tie
+            sorted.add(department("d" + i, CREATED.plusSeconds(i / 2)));
+        }
+        sorted.sort(KeysetCursor.comparator(Department::getId));
+
+        List<String> seen = new ArrayList<>();
+        ScrollPosition position = KeysetCursor.decode(null);
+        String cursor;
+        do {
+            Window<Department> page = KeysetCursor.page(sorted, Department::getId, position, Limit.of(3));
+            page.forEach(row -> seen.add(row.getId()));
+            cursor = KeysetCursor.next(page);
+            position = KeysetCursor.decode(cursor);
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly("d0", "d1", "d2", "d3", "d4", "d5", "d6");
+    }
+
+    private static Department department(String id, LocalDateTime createdAt) {
+        Department department = new Department();
+        department.setId(id);
+        department.setCreatedAt(createdAt);
+        return department;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
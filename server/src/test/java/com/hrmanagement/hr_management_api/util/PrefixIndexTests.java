@@ -0,0 +1,74 @@
+package com.hrmanagement.hr_management_api.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTests {
+
+    private record Person(String id, String first, String last) {
+
+        List<String> keys() {
+            return List.of(first, last);
+        }
+    }
+
+    private static final Person ANNA = new Person("1", "anna", "berg");
+    private static final Person BEN = new Person("2", "ben", "anders");
+    private static final Person BERTA = new Person("3", "berta", "carlsson");
+    private static final Person CARL = new Person("4", "carl", "berg");
+
+    private final PrefixIndex<Person> index = PrefixIndex.of(List.of(ANNA, BEN, BERTA, CARL), Person::keys, 100);
+
+    @Test
+    void findsItemsInKeyOrder() {
+        // anders (Ben), anna (Anna)
+        assertThat(index.startingWith("an", 10, p -> false)).containsExactly(BEN, ANNA);
+        // ben (Ben), berg (Anna, Carl), berta (Berta)
+        assertThat(index.startingWith("be", 10, p -> false)).containsExactly(BEN, ANNA, CARL, BERTA);
+    }
+
+    @Test
+    void returnsEachItemOnce() {
+        PrefixIndex<Person> samePrefix = PrefixIndex.of(List.of(new Person("5", "bo", "bond")), Person::keys, 10);
+
+        assertThat(samePrefix.startingWith("bo", 10, p -> false)).hasSize(1);
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        assertThat(index.startingWith("be", 2, p -> false)).containsExactly(BEN, ANNA);
+        assertThat(index.startingWith("", 3, p -> false)).containsExactly(BEN, ANNA, CARL);
+    }
+
+    @Test
+    void skipsExcludedItemsWithoutCountingThem() {
+        assertThat(index.startingWith("be", 2, p -> p.id().equals("1"))).containsExactly(BEN, CARL);
+    }
+
+    @Test
+    void findsNothingPastTheLastKey() {
+        assertThat(index.startingWith("zz", 10, p -> false)).isEmpty();
+        assertThat(index.startingWith("bx", 10, p -> false)).isEmpty();
+        assertThat(index.startingWith("anna-maria", 10, p -> false)).isEmpty();
+    }
+
+    @Test
+    void sharesRepeatedKeys() {
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.keyCount()).isEqualTo(8);
+        assertThat(index.items()).containsExactly(ANNA, BEN, BERTA, CARL);
+        assertThat(index.estimatedBytes()).isPositive();
+    }
+
+    @Test
+    void refusesMoreKeysThanTheMaximum() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> PrefixIndex.of(List.of(ANNA, BEN), Person::keys, 3))
+                .withMessageContaining("More than 3");
+        assertThat(PrefixIndex.of(List.of(ANNA, BEN), Person::keys, 4).keyCount()).isEqualTo(4);
+    }
+}